@@ -0,0 +1,45 @@
+#!/usr/bin/env python3
+# Compares two JMH JSON result files benchmark by benchmark.
+#
+#   ./compare.py results/abc1234.json results/def5678.json
+#
+# Prints the baseline and candidate scores and the change in percent. Changes smaller than the
+# combined error margins are marked "~" (noise).
+import json
+import sys
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for run in json.load(f):
+            params = ",".join(f"{k}={v}" for k, v in sorted(run.get("params", {}).items()))
+            name = run["benchmark"].rsplit(".", 2)[-2] + "." + run["benchmark"].rsplit(".", 1)[-1]
+            key = f"{name}({params})" if params else name
+            metric = run["primaryMetric"]
+            results[key] = (metric["score"], metric.get("scoreError") or 0.0, metric["scoreUnit"], run["mode"])
+        return results
+
+
+def main():
+    if len(sys.argv) != 3:
+        sys.exit("usage: compare.py <baseline.json> <candidate.json>")
+    baseline, candidate = load(sys.argv[1]), load(sys.argv[2])
+
+    print(f"{'benchmark':<70} {'baseline':>14} {'candidate':>14} {'change':>9}")
+    for key in sorted(baseline.keys() | candidate.keys()):
+        if key not in baseline or key not in candidate:
+            print(f"{key:<70} {'only in ' + ('candidate' if key in candidate else 'baseline'):>39}")
+            continue
+        base, base_err, unit, mode = baseline[key]
+        cand, cand_err, _, _ = candidate[key]
+        change = (cand - base) / base * 100 if base else 0.0
+        noise = abs(cand - base) <= base_err + cand_err
+        # For throughput higher is better; for time modes lower is better
+        better = change > 0 if mode == "thrpt" else change < 0
+        marker = "~" if noise else ("+" if better else "-")
+        print(f"{key:<70} {base:>10.3f} {unit.split('/')[0]:<3} {cand:>10.3f} {'':<3} {change:>+7.1f}% {marker}")
+
+
+if __name__ == "__main__":
+    main()
@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+# Runs the JMH benchmarks against the current backend sources and keeps the JSON result per commit
+# in results/<short sha>.json, so two runs can be compared with compare.py.
+#
+#   ./run.sh                      # all benchmarks
+#   ./run.sh SearchBenchmark      # one class (any JMH arguments work)
+set -euo pipefail
+
+cd "$(dirname "$0")"
+sha=$(git rev-parse --short HEAD)
+if ! git diff --quiet HEAD -- ../src; then
+    sha="${sha}-dirty"
+fi
+
+mkdir -p results
+(cd .. && mvn -B -q -DskipTests install)
+mvn -B -q compile exec:exec -Djmh.args="$*" -Djmh.result="$PWD/results/${sha}.json"
+
+echo "Results written to results/${sha}.json"
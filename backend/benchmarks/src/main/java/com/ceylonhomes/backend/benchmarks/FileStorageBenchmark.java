@@ -0,0 +1,70 @@
+package com.ceylonhomes.backend.benchmarks;
+
+import com.ceylonhomes.backend.service.FileStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// FileStorageService.storeFile for typical phone-photo sizes, writing into a temp directory.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileStorageBenchmark {
+
+    @Param({"102400", "1048576", "5242880"})
+    private int fileSizeBytes;
+
+    private FileStorageService fileStorageService;
+    private MockMultipartFile file;
+    private Path uploadDir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        uploadDir = Files.createTempDirectory("ceylonhomes-bench-uploads");
+        fileStorageService = new FileStorageService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(fileStorageService, "uploadDir", uploadDir.toString());
+
+        byte[] content = new byte[fileSizeBytes];
+        new Random(42).nextBytes(content);
+        file = new MockMultipartFile("files", "photo.jpg", "image/jpeg", content);
+    }
+
+    // Keep the directory small so later iterations don't measure a huge directory
+    @TearDown(Level.Iteration)
+    public void clearUploads() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir.resolve("listings"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileSystemUtils.deleteRecursively(uploadDir);
+    }
+
+    @Benchmark
+    public String storeFile() {
+        return fileStorageService.storeFile(file);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ceylonhomes.backend.benchmarks;
+
+import com.ceylonhomes.backend.security.JwtAuthenticationFilter;
+import com.ceylonhomes.backend.security.JwtTokenProvider;
+import com.ceylonhomes.backend.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+// Access-token generate/parse, and the full JwtAuthenticationFilter pass that every authenticated
+// request makes (header parse, signature check, revocation check, security context setup).
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtTokenProvider tokenProvider;
+    private JwtAuthenticationFilter filter;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "benchmark-secret-key-that-is-at-least-256-bits-long!!");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpiration", 900_000L);
+        ReflectionTestUtils.invokeMethod(tokenProvider, "init");
+
+        // The revocation check is in-memory; the repository is only used on revoke/sync
+        TokenRevocationService revocationService = new TokenRevocationService(null, tokenProvider);
+        filter = new JwtAuthenticationFilter(tokenProvider, revocationService);
+
+        token = tokenProvider.generateToken("seller@example.lk", 42L, "SELLER");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken("seller@example.lk", 42L, "SELLER");
+    }
+
+    @Benchmark
+    public Claims parseToken() {
+        return tokenProvider.parseClaims(token);
+    }
+
+    @Benchmark
+    public Object authenticationFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/seller/listings");
+        request.addHeader("Authorization", "Bearer " + token);
+        try {
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            return SecurityContextHolder.getContext().getAuthentication();
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.ceylonhomes.backend.benchmarks;
+
+import com.ceylonhomes.backend.CeylonhomesBackendApplication;
+import com.ceylonhomes.backend.config.SyntheticDataGenerator;
+import com.ceylonhomes.backend.dto.ListingCardDTO;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.service.ListingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+// Public search through ListingService (JPQL query, count query, DTO mapping, photo loading) against
+// an in-memory H2 database seeded with 100k listings by SyntheticDataGenerator. H2 is not MySQL, so
+// compare results between commits rather than reading them as production latencies.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Param({"100000"})
+    private int listingCount;
+
+    @Param({"district", "districtTypeRent", "priceRange", "unfiltered"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private ListingService listingService;
+    private final Pageable firstPage = PageRequest.of(0, 12, Sort.by(Sort.Direction.DESC, "createdAt"));
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(CeylonhomesBackendApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.jpa.hibernate.ddl-auto=create",
+                        "spring.jpa.show-sql=false",
+                        "spring.mail.username=bench@example.lk",
+                        "jwt.secret=benchmark-secret-key-that-is-at-least-256-bits-long!!",
+                        "admin.email=", "admin.password=", "admin.name=", "admin.phone=",
+                        "app.rate-limit.enabled=false",
+                        "app.load-shedding.enabled=false",
+                        "app.sql-log.enabled=false",
+                        "app.archival.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        listingService = context.getBean(ListingService.class);
+        new SyntheticDataGenerator(context.getBean(JdbcTemplate.class), null)
+                .generate(listingCount / 50, 50, 2_000, 42, "{bcrypt}unused");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<ListingCardDTO> search() {
+        return switch (query) {
+            case "district" -> listingService.searchListings(
+                    "Colombo", null, null, null, null, null, null, null, firstPage);
+            case "districtTypeRent" -> listingService.searchListings(
+                    "Kandy", null, RentOrSale.RENT, PropertyType.HOUSE, null, null, 2, null, firstPage);
+            case "priceRange" -> listingService.searchListings(
+                    null, null, RentOrSale.RENT, null,
+                    BigDecimal.valueOf(40_000), BigDecimal.valueOf(80_000), null, null, firstPage);
+            default -> listingService.searchListings(
+                    null, null, null, null, null, null, null, null, firstPage);
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.ListingDTO;
+import com.ceylonhomes.backend.entity.Listing;
+import com.ceylonhomes.backend.entity.ListingPhoto;
+import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.enums.Role;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// ListingService.convertToDTO for one page of listings. Lives in the service package because
+// convertToDTO is package-private. Entities are detached, so this measures mapping only, not SQL.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConvertToDtoBenchmark {
+
+    @Param({"12", "50"})
+    private int pageSize;
+
+    @Param({"0", "5", "20"})
+    private int photosPerListing;
+
+    private ListingService listingService;
+    private List<Listing> page;
+
+    @Setup
+    public void setUp() {
+        listingService = new ListingService(null, null, null, null, null, null, null);
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("Nimal Perera");
+        owner.setEmail("nimal@example.lk");
+        owner.setPhone("+94771234567");
+        owner.setRole(Role.SELLER);
+
+        Random random = new Random(42);
+        page = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            Listing listing = new Listing();
+            listing.setId((long) i);
+            listing.setOwner(owner);
+            listing.setTitle("Two-storey house in Nugegoda " + i);
+            listing.setDescription("Spacious house close to High Level Road, 3 bedrooms, parking for two vehicles.");
+            listing.setRentOrSale(RentOrSale.RENT);
+            listing.setPropertyType(PropertyType.HOUSE);
+            listing.setPrice(BigDecimal.valueOf(85_000));
+            listing.setDistrict("Colombo");
+            listing.setCity("Nugegoda");
+            listing.setAddress("12 Stanley Thilakaratne Mawatha");
+            listing.setBedrooms(3);
+            listing.setBathrooms(2);
+            listing.setContactPhone("+94771234567");
+            listing.setStatus(ListingStatus.APPROVED);
+            listing.setCreatedAt(LocalDateTime.now());
+
+            for (int p = 0; p < photosPerListing; p++) {
+                ListingPhoto photo = new ListingPhoto();
+                photo.setUrl("/uploads/listings/" + i + "-" + p + ".jpg");
+                // Stored out of order so the sort does real work
+                photo.setSortOrder(random.nextInt(photosPerListing));
+                listing.getPhotos().add(photo);
+            }
+            page.add(listing);
+        }
+    }
+
+    @Benchmark
+    public void convertPage(Blackhole blackhole) {
+        for (Listing listing : page) {
+            ListingDTO dto = listingService.convertToDTO(listing);
+            blackhole.consume(dto);
+        }
+    }
+}
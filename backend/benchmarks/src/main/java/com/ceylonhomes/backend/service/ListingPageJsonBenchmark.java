@@ -0,0 +1,138 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.ListingCardDTO;
+import com.ceylonhomes.backend.entity.Listing;
+import com.ceylonhomes.backend.entity.ListingPhoto;
+import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.enums.Role;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serializing a 50-item search page as full ListingDTOs versus ListingCardDTOs, with and without
+// gzip (what server.compression does). Payload sizes are printed once per trial; the score is the
+// time to produce the response body.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingPageJsonBenchmark {
+
+    private static final int PAGE_SIZE = 50;
+    private static final String DESCRIPTION = "Spacious two-storey house close to High Level Road and the "
+            + "Nugegoda junction. Three large bedrooms with built-in wardrobes, two attached bathrooms with hot "
+            + "water, a pantry and separate servant's quarters. Parking for two vehicles, 24-hour water supply, "
+            + "solar panels and a small garden. Walking distance to supermarkets, banks and schools. Suitable for "
+            + "a family; no pets please. Three months' advance and a one-year agreement required. Viewing on "
+            + "weekends by appointment only. ";
+
+    @Param({"full", "card"})
+    private String format;
+
+    @Param({"none", "gzip"})
+    private String compression;
+
+    private ObjectMapper objectMapper;
+    private PageImpl<?> page;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        ListingService listingService = new ListingService(null, null, null, null, null, null, null);
+
+        User owner = new User();
+        owner.setId(1L);
+        owner.setName("Nimal Perera");
+        owner.setEmail("nimal@example.lk");
+        owner.setPhone("+94771234567");
+        owner.setRole(Role.SELLER);
+
+        List<Object> content = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            Listing listing = new Listing();
+            listing.setId((long) i);
+            listing.setOwner(owner);
+            listing.setTitle("3 bedroom house for rent in Nugegoda " + i);
+            listing.setDescription(DESCRIPTION.repeat(2));
+            listing.setRentOrSale(RentOrSale.RENT);
+            listing.setPropertyType(PropertyType.HOUSE);
+            listing.setPrice(BigDecimal.valueOf(85_000 + i * 500));
+            listing.setDistrict("Colombo");
+            listing.setCity("Nugegoda");
+            listing.setAddress(i + " Stanley Thilakaratne Mawatha");
+            listing.setBedrooms(3);
+            listing.setBathrooms(2);
+            listing.setContactPhone("+94771234567");
+            listing.setContactWhatsapp("+94771234567");
+            listing.setAvailabilityStart(LocalDate.now());
+            listing.setAvailabilityEnd(LocalDate.now().plusYears(1));
+            listing.setStatus(ListingStatus.APPROVED);
+            listing.setCreatedAt(LocalDateTime.now());
+            listing.setUpdatedAt(LocalDateTime.now());
+            for (int p = 0; p < 5; p++) {
+                ListingPhoto photo = new ListingPhoto();
+                photo.setUrl("/uploads/listings/" + i + "-" + p + "-3f9a2c7e.jpg");
+                photo.setSortOrder(p);
+                listing.getPhotos().add(photo);
+            }
+
+            if (format.equals("full")) {
+                content.add(listingService.convertToDTO(listing));
+            } else {
+                ListingCardDTO card = new ListingCardDTO(listing.getId(), listing.getTitle(),
+                        listing.getDescription().substring(0, ListingCardDTO.SUMMARY_LENGTH),
+                        listing.getRentOrSale(), listing.getPropertyType(), listing.getPrice(),
+                        listing.getDistrict(), listing.getCity(), listing.getBedrooms(), listing.getBathrooms(),
+                        listing.getStatus(), 6.8649, 79.8997, owner.getName(), listing.getCreatedAt());
+                card.setCoverPhotoUrl("http://localhost:8080" + listing.getPhotos().get(0).getUrl());
+                content.add(card);
+            }
+        }
+        page = new PageImpl<>(content, PageRequest.of(0, PAGE_SIZE), 1_000);
+
+        byte[] json = objectMapper.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d: %d bytes JSON, %d bytes gzipped%n",
+                format, PAGE_SIZE, json.length, gzip(json).length);
+    }
+
+    @Benchmark
+    public byte[] responseBody() throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(page);
+        return compression.equals("gzip") ? gzip(json) : json;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
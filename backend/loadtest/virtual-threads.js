@@ -0,0 +1,57 @@
+// k6 load profile used to compare platform-thread and virtual-thread request modes.
+// See VIRTUAL_THREADS.md. Usage: k6 run -e BASE_URL=http://localhost:8080 virtual-threads.js
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '1000', 10);
+
+const DISTRICTS = ['Colombo', 'Gampaha', 'Kandy', 'Galle', 'Kurunegala', 'Matara', 'Jaffna'];
+const TYPES = ['HOUSE', 'ROOM', 'ANNEX', 'BOARDING'];
+
+export const options = {
+  scenarios: {
+    readers: {
+      executor: 'ramping-vus',
+      startVUs: 0,
+      stages: [
+        { duration: '30s', target: MAX_VUS / 4 },
+        { duration: '30s', target: MAX_VUS },
+        { duration: '2m', target: MAX_VUS },
+        { duration: '20s', target: 0 },
+      ],
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds: {
+    http_req_failed: ['rate<0.01'],
+  },
+};
+
+function pick(values) {
+  return values[Math.floor(Math.random() * values.length)];
+}
+
+export default function () {
+  const roll = Math.random();
+
+  if (roll < 0.5) {
+    const res = http.get(
+      `${BASE_URL}/api/listings/search?district=${pick(DISTRICTS)}&propertyType=${pick(TYPES)}&page=0&size=12`,
+      { tags: { endpoint: 'search' } }
+    );
+    check(res, { 'search 200': (r) => r.status === 200 });
+  } else if (roll < 0.8) {
+    const res = http.get(`${BASE_URL}/api/listings/latest?page=0&size=12`, { tags: { endpoint: 'latest' } });
+    check(res, { 'latest 200': (r) => r.status === 200 });
+  } else {
+    const latest = http.get(`${BASE_URL}/api/listings/latest?page=0&size=12`, { tags: { endpoint: 'latest' } });
+    const items = latest.status === 200 ? latest.json('content') : null;
+    if (items && items.length > 0) {
+      const res = http.get(`${BASE_URL}/api/listings/${pick(items).id}`, { tags: { endpoint: 'detail' } });
+      check(res, { 'detail 200': (r) => r.status === 200 });
+    }
+  }
+
+  sleep(Math.random() * 0.5);
+}
@@ -0,0 +1,188 @@
+// k6 workload mix for tuning runs against a database filled by SyntheticDataGenerator.
+// See loadtest/README.md. Usage:
+//   k6 run -e BASE_URL=http://localhost:8080 -e ADMIN_EMAIL=... -e ADMIN_PASSWORD=... workload-mix.js
+// Prints throughput and p50/p95/p99 per endpoint and writes the same numbers to workload-summary.json.
+import http from 'k6/http';
+import { check, sleep } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const RATE = parseInt(__ENV.RATE || '200', 10);            // Requests started per second (whole mix)
+const DURATION = __ENV.DURATION || '5m';
+const SELLERS = parseInt(__ENV.SELLERS || '1000', 10);     // Must match app.synthetic-data.sellers
+const BUYERS = parseInt(__ENV.BUYERS || '5000', 10);       // Must match app.synthetic-data.buyers
+const LOGINS = parseInt(__ENV.LOGINS || '20', 10);         // Sellers and buyers logged in during setup
+const PASSWORD = __ENV.PASSWORD || 'loadtest-password';    // app.synthetic-data.password
+
+const DISTRICTS = ['Colombo', 'Colombo', 'Colombo', 'Gampaha', 'Gampaha', 'Kandy', 'Galle', 'Kalutara',
+  'Kurunegala', 'Matara', 'Jaffna', 'Badulla', 'Ratnapura', 'Anuradhapura', 'Trincomalee'];
+const TYPES = ['HOUSE', 'ROOM', 'ANNEX', 'BOARDING'];
+
+// Share of the mix per action; must add up to 100
+const MIX = [
+  ['search', 55],
+  ['detail', 25],
+  ['seller_dashboard', 10],
+  ['inquiry', 7],
+  ['moderation', 3],
+];
+
+const ENDPOINTS = ['search', 'detail', 'seller_summary', 'seller_listings', 'seller_inquiries',
+  'inquiry_post', 'admin_pending', 'moderation_claim', 'moderation_decide'];
+
+// A threshold per endpoint tag makes k6 keep a sub-metric for it, which handleSummary reads below
+const thresholds = { http_req_failed: ['rate<0.01'] };
+for (const endpoint of ENDPOINTS) {
+  thresholds[`http_req_duration{endpoint:${endpoint}}`] = ['p(95)<1000'];
+  thresholds[`http_reqs{endpoint:${endpoint}}`] = ['count>=0'];
+}
+
+export const options = {
+  scenarios: {
+    mix: {
+      executor: 'constant-arrival-rate',
+      rate: RATE,
+      timeUnit: '1s',
+      duration: DURATION,
+      preAllocatedVUs: Math.max(50, RATE),
+      maxVUs: RATE * 5,
+    },
+  },
+  summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+  thresholds,
+};
+
+function pick(values) {
+  return values[Math.floor(Math.random() * values.length)];
+}
+
+function login(email, password) {
+  const res = http.post(`${BASE_URL}/api/auth/login`, JSON.stringify({ email, password }),
+    { headers: { 'Content-Type': 'application/json' }, tags: { endpoint: 'login' } });
+  return res.status === 200 ? res.json('token') : null;
+}
+
+function auth(token, endpoint) {
+  return { headers: { Authorization: `Bearer ${token}`, 'Content-Type': 'application/json' }, tags: { endpoint } };
+}
+
+export function setup() {
+  const sellers = [];
+  const buyers = [];
+  for (let i = 0; i < LOGINS; i++) {
+    const seller = login(`loadtest-seller-${1 + Math.floor(Math.random() * SELLERS)}@example.lk`, PASSWORD);
+    const buyer = login(`loadtest-buyer-${1 + Math.floor(Math.random() * BUYERS)}@example.lk`, PASSWORD);
+    if (seller) sellers.push(seller);
+    if (buyer) buyers.push(buyer);
+  }
+  const admin = __ENV.ADMIN_EMAIL ? login(__ENV.ADMIN_EMAIL, __ENV.ADMIN_PASSWORD) : null;
+  if (sellers.length === 0 || buyers.length === 0) {
+    throw new Error('Could not log in as synthetic users; is app.synthetic-data enabled and rate limiting off?');
+  }
+  return { sellers, buyers, admin };
+}
+
+function search() {
+  let query = `district=${pick(DISTRICTS)}&page=${Math.floor(Math.random() * 3)}&size=12`;
+  if (Math.random() < 0.6) query += `&propertyType=${pick(TYPES)}`;
+  if (Math.random() < 0.5) query += `&rentOrSale=RENT&maxPrice=${pick([30000, 60000, 100000, 200000])}`;
+  if (Math.random() < 0.3) query += `&bedrooms=${1 + Math.floor(Math.random() * 4)}`;
+  const res = http.get(`${BASE_URL}/api/listings/search?${query}`, { tags: { endpoint: 'search' } });
+  check(res, { 'search 200': (r) => r.status === 200 });
+  return res.status === 200 ? res.json('content') : [];
+}
+
+function detail() {
+  const items = search();
+  if (items && items.length > 0) {
+    const res = http.get(`${BASE_URL}/api/listings/${pick(items).id}`, { tags: { endpoint: 'detail' } });
+    check(res, { 'detail 200': (r) => r.status === 200 });
+  }
+}
+
+function sellerDashboard(data) {
+  const token = pick(data.sellers);
+  check(http.get(`${BASE_URL}/api/seller/listings/summary`, auth(token, 'seller_summary')),
+    { 'seller summary 200': (r) => r.status === 200 });
+  check(http.get(`${BASE_URL}/api/seller/listings`, auth(token, 'seller_listings')),
+    { 'seller listings 200': (r) => r.status === 200 });
+  check(http.get(`${BASE_URL}/api/seller/inquiries/recent`, auth(token, 'seller_inquiries')),
+    { 'seller inquiries 200': (r) => r.status === 200 });
+}
+
+function inquiry(data) {
+  const items = search();
+  if (items && items.length > 0) {
+    const res = http.post(`${BASE_URL}/api/inquiries/listing/${pick(items).id}`,
+      JSON.stringify({ message: 'Is this still available? I would like to arrange a viewing.' }),
+      auth(pick(data.buyers), 'inquiry_post'));
+    check(res, { 'inquiry 200': (r) => r.status === 200 });
+  }
+}
+
+function moderation(data) {
+  if (!data.admin) {
+    return;
+  }
+  check(http.get(`${BASE_URL}/api/admin/listings?status=PENDING&size=20`, auth(data.admin, 'admin_pending')),
+    { 'pending 200': (r) => r.status === 200 });
+  const claimed = http.post(`${BASE_URL}/api/admin/moderation-queue/claim?size=1`, null,
+    auth(data.admin, 'moderation_claim'));
+  if (claimed.status !== 200 || claimed.json().length === 0) {
+    return;
+  }
+  const id = claimed.json()[0].id;
+  const approve = Math.random() < 0.8;
+  const res = http.post(`${BASE_URL}/api/admin/listings/${id}/${approve ? 'approve' : 'reject'}`,
+    JSON.stringify({ action: approve ? 'APPROVE' : 'REJECT', note: 'Load test decision' }),
+    auth(data.admin, 'moderation_decide'));
+  check(res, { 'decision 200': (r) => r.status === 200 });
+}
+
+const ACTIONS = { search, detail, seller_dashboard: sellerDashboard, inquiry, moderation };
+
+export default function (data) {
+  let roll = Math.random() * 100;
+  for (const [action, share] of MIX) {
+    roll -= share;
+    if (roll < 0) {
+      ACTIONS[action](data);
+      break;
+    }
+  }
+  sleep(Math.random() * 0.2);
+}
+
+export function handleSummary(data) {
+  const seconds = data.state.testRunDurationMs / 1000;
+  const rows = [];
+  for (const endpoint of ENDPOINTS) {
+    const duration = data.metrics[`http_req_duration{endpoint:${endpoint}}`];
+    const requests = data.metrics[`http_reqs{endpoint:${endpoint}}`];
+    if (!duration || !requests || requests.values.count === 0) {
+      continue;
+    }
+    rows.push({
+      endpoint,
+      requests: requests.values.count,
+      perSecond: +(requests.values.count / seconds).toFixed(1),
+      p50: +duration.values['p(50)'].toFixed(1),
+      p95: +duration.values['p(95)'].toFixed(1),
+      p99: +duration.values['p(99)'].toFixed(1),
+    });
+  }
+
+  const lines = [`${'endpoint'.padEnd(20)}${'requests'.padStart(10)}${'req/s'.padStart(9)}`
+    + `${'p50 ms'.padStart(10)}${'p95 ms'.padStart(10)}${'p99 ms'.padStart(10)}`];
+  for (const row of rows) {
+    lines.push(`${row.endpoint.padEnd(20)}${String(row.requests).padStart(10)}${String(row.perSecond).padStart(9)}`
+      + `${String(row.p50).padStart(10)}${String(row.p95).padStart(10)}${String(row.p99).padStart(10)}`);
+  }
+  const total = data.metrics.http_reqs.values.count;
+  lines.push(`\nTotal: ${total} requests, ${(total / seconds).toFixed(1)} req/s, `
+    + `${(data.metrics.http_req_failed.values.rate * 100).toFixed(2)}% failed`);
+
+  return {
+    stdout: lines.join('\n') + '\n',
+    'workload-summary.json': JSON.stringify({ durationSeconds: seconds, endpoints: rows }, null, 2),
+  };
+}
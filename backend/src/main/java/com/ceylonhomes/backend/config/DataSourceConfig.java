@@ -0,0 +1,117 @@
+package com.ceylonhomes.backend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+// Primary pool from spring.datasource(.hikari), optional read replica from app.datasource.replica.
+// When a replica URL is set, @Transactional(readOnly = true) work is routed to it. Every statement
+// passes through SlowQueryLogger and StatementCounter.
+@Configuration
+public class DataSourceConfig {
+
+    // Connector/J defaults: cache prepared statements on the server and client side, and rewrite
+    // JDBC batches into multi-row statements. Anything set under data-source-properties wins.
+    private static final Map<String, String> MYSQL_DEFAULTS = Map.of(
+            "cachePrepStmts", "true",
+            "prepStmtCacheSize", "250",
+            "prepStmtCacheSqlLimit", "2048",
+            "useServerPrepStmts", "true",
+            "rewriteBatchedStatements", "true",
+            "cacheResultSetMetadata", "true",
+            "elideSetAutoCommits", "true",
+            "maintainTimeStats", "false");
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, PoolWaitMetrics poolWaitMetrics) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        applyDefaults(dataSource, poolWaitMetrics);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.url")
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(
+            DataSourceProperties properties,
+            PoolWaitMetrics poolWaitMetrics,
+            @Value("${app.datasource.replica.url}") String url,
+            @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+            @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        applyDefaults(dataSource, poolWaitMetrics);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replica,
+            SlowQueryLogger slowQueryLogger,
+            StatementCounter statementCounter) {
+        DataSource target = primary;
+        DataSource replicaDataSource = replica.getIfAvailable();
+        if (replicaDataSource != null) {
+            ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+            routing.setTargetDataSources(Map.<Object, Object>of(
+                    ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                    ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+            routing.setDefaultTargetDataSource(primary);
+            routing.afterPropertiesSet();
+            target = routing;
+        }
+
+        // Lazy even without a replica: transactions that never run a statement don't take a connection
+        return ProxyDataSourceBuilder.create(new LazyConnectionDataSourceProxy(target))
+                .name("ceylonhomes")
+                .listener(slowQueryLogger)
+                .listener(statementCounter)
+                .build();
+    }
+
+    // Spring's default handling mode holds one JDBC connection for the whole session. Sessions are
+    // per transaction with open-in-view off, but one that outlives its transaction (open-in-view
+    // turned back on, an SSE request) would otherwise keep a pooled connection, and stay on
+    // whichever pool its first transaction picked. Releasing after each transaction returns the
+    // connection and lets every transaction route on its own read-only flag.
+    @Bean
+    public HibernatePropertiesCustomizer releaseConnectionAfterTransaction() {
+        return properties -> properties.putIfAbsent(
+                "hibernate.connection.handling_mode", "DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION");
+    }
+
+    private static void applyDefaults(HikariDataSource dataSource, PoolWaitMetrics poolWaitMetrics) {
+        // Other drivers (H2 in the benchmarks) don't understand Connector/J properties
+        if (dataSource.getJdbcUrl() != null && dataSource.getJdbcUrl().startsWith("jdbc:mysql:")) {
+            MYSQL_DEFAULTS.forEach(dataSource::addDataSourceProperty);
+        }
+        dataSource.setMetricsTrackerFactory(poolWaitMetrics);
+    }
+}
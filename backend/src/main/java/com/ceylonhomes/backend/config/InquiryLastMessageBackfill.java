@@ -0,0 +1,42 @@
+package com.ceylonhomes.backend.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Sets last_message_at on inquiries created before the column existed, to their latest reply or
+// else their opening message. The inbox orders by last_message_at DESC, so without it those
+// conversations sort after every newer one whatever their activity. Runs in batches at startup
+// like ListingLocationBackfill; once every row is set it is one UPDATE that changes nothing.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class InquiryLastMessageBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        String sql = "UPDATE inquiries i SET i.last_message_at = GREATEST(i.created_at, " +
+                "COALESCE((SELECT MAX(m.created_at) FROM inquiry_messages m WHERE m.inquiry_id = i.id), i.created_at)) " +
+                "WHERE i.last_message_at IS NULL LIMIT ?";
+        try {
+            long set = 0;
+            int updated;
+            do {
+                updated = jdbcTemplate.update(sql, BATCH_SIZE);
+                set += updated;
+            } while (updated == BATCH_SIZE);
+            if (set > 0) {
+                log.info("Set last_message_at on {} inquiries", set);
+            }
+        } catch (Exception e) {
+            log.warn("Could not backfill last_message_at of inquiries: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.ceylonhomes.backend.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Second-level and query cache for entities marked @Cache (currently User). Region sizes and TTLs
+// live in ehcache.xml. Set here rather than in application.yml so every environment gets the
+// bounded regions; spring.jpa.properties still override any of these.
+@Configuration
+public class JpaCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer() {
+        return properties -> {
+            properties.putIfAbsent("hibernate.cache.use_second_level_cache", "true");
+            properties.putIfAbsent("hibernate.cache.use_query_cache", "true");
+            properties.putIfAbsent("hibernate.cache.region.factory_class", "jcache");
+            properties.putIfAbsent("hibernate.javax.cache.provider", "org.ehcache.jsr107.EhcacheCachingProvider");
+            properties.putIfAbsent("hibernate.javax.cache.uri", "classpath:ehcache.xml");
+            properties.putIfAbsent("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+}
@@ -0,0 +1,74 @@
+package com.ceylonhomes.backend.config;
+
+import com.ceylonhomes.backend.service.ListingLocations;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Places listings saved before coordinates existed at their district centre, the same default
+// ListingLocations applies on create and update, so they show up in radius search and on the map.
+// Runs before ApplicationReadyEvent, so ListingGeoIndex loads them on the same start; instances
+// already running pick them up at their nightly rebuild, as updated_at is left alone. Once every
+// row has coordinates it is one UPDATE per table that changes nothing. Listings in an unknown
+// district keep NULL coordinates and stay out of location search, as they do on create.
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ListingLocationBackfill implements ApplicationRunner {
+
+    private static final int BATCH_SIZE = 5000;
+    private static final List<String> TABLES = List.of("listings", "listings_archive");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        // SET latitude = CASE ... END, longitude = CASE ... END WHERE ... IN (...), one pair per district
+        StringBuilder latitudes = new StringBuilder("CASE LOWER(TRIM(district))");
+        StringBuilder longitudes = new StringBuilder("CASE LOWER(TRIM(district))");
+        StringBuilder districts = new StringBuilder();
+        List<Object> latitudeArgs = new ArrayList<>();
+        List<Object> longitudeArgs = new ArrayList<>();
+        List<Object> districtArgs = new ArrayList<>();
+        for (Map.Entry<String, double[]> centre : ListingLocations.districtCentres().entrySet()) {
+            latitudes.append(" WHEN ? THEN ?");
+            longitudes.append(" WHEN ? THEN ?");
+            districts.append(districtArgs.isEmpty() ? "?" : ", ?");
+            latitudeArgs.add(centre.getKey());
+            latitudeArgs.add(centre.getValue()[0]);
+            longitudeArgs.add(centre.getKey());
+            longitudeArgs.add(centre.getValue()[1]);
+            districtArgs.add(centre.getKey());
+        }
+        List<Object> sqlArgs = new ArrayList<>(latitudeArgs);
+        sqlArgs.addAll(longitudeArgs);
+        sqlArgs.addAll(districtArgs);
+        sqlArgs.add(BATCH_SIZE);
+
+        for (String table : TABLES) {
+            String sql = "UPDATE " + table + " SET latitude = " + latitudes + " END, longitude = " + longitudes + " END " +
+                    "WHERE (latitude IS NULL OR longitude IS NULL) AND LOWER(TRIM(district)) IN (" + districts + ") " +
+                    "LIMIT ?";
+            try {
+                long placed = 0;
+                int updated;
+                do {
+                    updated = jdbcTemplate.update(sql, sqlArgs.toArray());
+                    placed += updated;
+                } while (updated == BATCH_SIZE);
+                if (placed > 0) {
+                    log.info("Placed {} rows of {} without coordinates at their district centre", placed, table);
+                }
+            } catch (Exception e) {
+                log.warn("Could not backfill coordinates of {}: {}", table, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.ceylonhomes.backend.config;
+
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.security.LoadSheddingFilter;
+import com.ceylonhomes.backend.security.PasswordHashingExecutor;
+import com.ceylonhomes.backend.security.RateLimiter;
+import com.ceylonhomes.backend.security.TokenRevocationService;
+import com.ceylonhomes.backend.service.AdminEventService;
+import com.ceylonhomes.backend.service.EmailService;
+import com.ceylonhomes.backend.service.InboxStreamRegistry;
+import com.ceylonhomes.backend.service.LatestListingsFeed;
+import com.ceylonhomes.backend.service.ListingViewCounter;
+import com.ceylonhomes.backend.service.ListingVersions;
+import com.ceylonhomes.backend.service.UserService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.Supplier;
+
+// Gauges for the in-memory caches and work queues. Request timers (http.server.requests, one
+// series per controller endpoint), Hikari pool metrics and JVM metrics come from Spring Boot
+// Actuator; upload and email metrics are recorded in FileStorageService and EmailService.
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder cacheSizeMetrics(
+            RateLimiter rateLimiter,
+            TokenRevocationService tokenRevocationService,
+            UserService userService,
+            ListingVersions listingVersions,
+            LatestListingsFeed latestListingsFeed,
+            ListingViewCounter listingViewCounter) {
+        return registry -> {
+            cacheSize(registry, "rate-limit-buckets", rateLimiter::size);
+            cacheSize(registry, "revoked-tokens", tokenRevocationService::getRevokedTokenCount);
+            cacheSize(registry, "user-revocation-cutoffs", tokenRevocationService::getUserCutoffCount);
+            cacheSize(registry, "reset-code-throttle", userService::getResetCodeThrottleSize);
+            cacheSize(registry, "listing-etags", listingVersions::getTrackedListingCount);
+            cacheSize(registry, "latest-feed", latestListingsFeed::size);
+            cacheSize(registry, "listing-view-counters", listingViewCounter::size);
+        };
+    }
+
+    @Bean
+    public MeterBinder queueSizeMetrics(
+            EmailService emailService,
+            PasswordHashingExecutor passwordHashingExecutor,
+            LoadSheddingFilter loadSheddingFilter,
+            ListingRepository listingRepository,
+            InboxStreamRegistry inboxStreamRegistry,
+            AdminEventService adminEventService) {
+        return registry -> {
+            queueSize(registry, "mail", emailService::getQueueSize);
+            queueSize(registry, "password-hashing", passwordHashingExecutor::getQueueSize);
+            queueSize(registry, "inbox-push", inboxStreamRegistry::getSendQueueSize);
+            queueSize(registry, "admin-push", adminEventService::getSendQueueSize);
+            // One COUNT on an indexed column per scrape
+            queueSize(registry, "moderation", () -> listingRepository.countByStatus(ListingStatus.PENDING));
+            Gauge.builder("ceylonhomes.requests.in.flight", loadSheddingFilter::getInFlightRequests)
+                    .description("API requests currently admitted by the load-shedding filter")
+                    .register(registry);
+            Gauge.builder("ceylonhomes.inbox.streams", inboxStreamRegistry::getConnectionCount)
+                    .description("Inbox event streams open on this instance")
+                    .register(registry);
+            Gauge.builder("ceylonhomes.admin.streams", adminEventService::getConnectionCount)
+                    .description("Admin event streams open on this instance")
+                    .register(registry);
+        };
+    }
+
+    private static void cacheSize(MeterRegistry registry, String cache, Supplier<Number> size) {
+        Gauge.builder("ceylonhomes.cache.size", size)
+                .tag("cache", cache)
+                .description("Entries held in an in-memory cache")
+                .register(registry);
+    }
+
+    private static void queueSize(MeterRegistry registry, String queue, Supplier<Number> size) {
+        Gauge.builder("ceylonhomes.queue.size", size)
+                .tag("queue", queue)
+                .description("Items waiting in a work queue")
+                .register(registry);
+    }
+}
@@ -0,0 +1,118 @@
+package com.ceylonhomes.backend.config;
+
+import com.ceylonhomes.backend.dto.DataSourcePoolStatsDTO;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Hikari metrics tracker that records how long callers wait for a connection, per pool.
+// Cheap enough for every getConnection(): LongAdder/LongAccumulator only, no locks.
+// Also forwards to Hikari's Micrometer tracker, which Boot would otherwise install itself, so the
+// standard hikaricp_* series still reach Prometheus.
+@Slf4j
+@Component
+public class PoolWaitMetrics implements MetricsTrackerFactory {
+
+    private final Map<String, Tracker> trackers = new ConcurrentHashMap<>();
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public PoolWaitMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        IMetricsTracker micrometer = registry == null
+                ? new IMetricsTracker() { }
+                : new MicrometerMetricsTrackerFactory(registry).create(poolName, poolStats);
+        Tracker tracker = new Tracker(poolName, poolStats, micrometer);
+        trackers.put(poolName, tracker);
+        return tracker;
+    }
+
+    public List<DataSourcePoolStatsDTO> snapshot() {
+        return trackers.values().stream()
+                .map(Tracker::toDTO)
+                .sorted((a, b) -> a.getPoolName().compareTo(b.getPoolName()))
+                .toList();
+    }
+
+    private static final class Tracker implements IMetricsTracker {
+        private final String poolName;
+        private final PoolStats poolStats;
+        private final IMetricsTracker micrometer;
+        private final LongAdder acquireCount = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAccumulator acquireMaxNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder usageCount = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+
+        private Tracker(String poolName, PoolStats poolStats, IMetricsTracker micrometer) {
+            this.poolName = poolName;
+            this.poolStats = poolStats;
+            this.micrometer = micrometer;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(long connectionCreatedMillis) {
+            micrometer.recordConnectionCreatedMillis(connectionCreatedMillis);
+        }
+
+        @Override
+        public void close() {
+            micrometer.close();
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquireCount.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            acquireMaxNanos.accumulate(elapsedAcquiredNanos);
+            micrometer.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageCount.increment();
+            usageMillis.add(elapsedBorrowedMillis);
+            micrometer.recordConnectionUsageMillis(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+            micrometer.recordConnectionTimeout();
+            log.warn("Connection request timed out on pool {} (active={}, waiting={})",
+                    poolName, poolStats.getActiveConnections(), poolStats.getPendingThreads());
+        }
+
+        private DataSourcePoolStatsDTO toDTO() {
+            long acquired = acquireCount.sum();
+            long used = usageCount.sum();
+            return new DataSourcePoolStatsDTO(
+                    poolName,
+                    poolStats.getActiveConnections(),
+                    poolStats.getIdleConnections(),
+                    poolStats.getMaxConnections(),
+                    poolStats.getPendingThreads(),
+                    acquired,
+                    acquired == 0 ? 0 : acquireNanos.sum() / 1_000_000.0 / acquired,
+                    acquireMaxNanos.get() / 1_000_000.0,
+                    timeouts.sum(),
+                    used == 0 ? 0 : (double) usageMillis.sum() / used);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.ceylonhomes.backend.config;
+
+import com.ceylonhomes.backend.dto.EndpointQueryStatsDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Counts the SQL statements each controller call issues (including lazy loads while the response
+// is serialized) and aggregates them per endpoint. Requests over the statement or latency budget
+// are logged with their counts, which is usually enough to spot an N+1.
+@Slf4j
+@Component
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String SCOPE_ATTRIBUTE = QueryBudgetInterceptor.class.getName() + ".scope";
+
+    private final Map<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.query-budget.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.query-budget.max-statements:20}")
+    private long maxStatements;
+
+    @Value("${app.query-budget.max-millis:1000}")
+    private long maxMillis;
+
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (enabled && handler instanceof HandlerMethod && request.getDispatcherType() != DispatcherType.ASYNC) {
+            request.setAttribute(SCOPE_ATTRIBUTE, StatementCounter.open());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // Async/streaming responses finish on another thread; record what the handler itself issued
+        finish(request, handler);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        finish(request, handler);
+    }
+
+    public List<EndpointQueryStatsDTO> snapshot() {
+        return endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().toDTO(entry.getKey()))
+                .sorted(Comparator.comparingDouble(EndpointQueryStatsDTO::getAvgStatements).reversed())
+                .toList();
+    }
+
+    private void finish(HttpServletRequest request, Object handler) {
+        Object attribute = request.getAttribute(SCOPE_ATTRIBUTE);
+        if (!(attribute instanceof StatementCounter.Scope scope) || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        request.removeAttribute(SCOPE_ATTRIBUTE);
+        scope.close();
+
+        String endpoint = endpointName(handlerMethod);
+        long statements = scope.getStatementCount();
+        long elapsedMillis = scope.getElapsedMillis();
+        boolean overBudget = statements > maxStatements || elapsedMillis > maxMillis;
+
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointStats(meterRegistry, key))
+                .record(statements, scope.getSqlMillis(), elapsedMillis, overBudget);
+
+        if (overBudget) {
+            log.warn("Over query budget: {} {} -> {} issued {} statements ({} ms SQL, {} ms total)",
+                    request.getMethod(), request.getRequestURI(), endpoint,
+                    statements, scope.getSqlMillis(), elapsedMillis);
+        }
+    }
+
+    private static String endpointName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+
+    private static final class EndpointStats {
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final LongAdder sqlMillis = new LongAdder();
+        private final LongAdder elapsedMillis = new LongAdder();
+        private final LongAdder overBudget = new LongAdder();
+        private final DistributionSummary statementSummary;
+
+        private EndpointStats(MeterRegistry meterRegistry, String endpoint) {
+            this.statementSummary = DistributionSummary.builder("ceylonhomes.sql.statements")
+                    .description("SQL statements issued per request")
+                    .tag("endpoint", endpoint)
+                    .register(meterRegistry);
+        }
+
+        private void record(long statementCount, long sqlMs, long elapsedMs, boolean isOverBudget) {
+            requests.increment();
+            statements.add(statementCount);
+            statementSummary.record(statementCount);
+            maxStatements.accumulate(statementCount);
+            sqlMillis.add(sqlMs);
+            elapsedMillis.add(elapsedMs);
+            if (isOverBudget) {
+                overBudget.increment();
+            }
+        }
+
+        private EndpointQueryStatsDTO toDTO(String endpoint) {
+            long count = Math.max(1, requests.sum());
+            return new EndpointQueryStatsDTO(
+                    endpoint,
+                    requests.sum(),
+                    (double) statements.sum() / count,
+                    maxStatements.get(),
+                    (double) sqlMillis.sum() / count,
+                    (double) elapsedMillis.sum() / count,
+                    overBudget.sum());
+        }
+    }
+}
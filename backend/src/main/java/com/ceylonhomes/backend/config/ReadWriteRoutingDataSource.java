@@ -0,0 +1,17 @@
+package com.ceylonhomes.backend.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Sends connections for @Transactional(readOnly = true) work to the replica and everything else to
+// the primary. Must sit behind a LazyConnectionDataSourceProxy: the read-only flag is only set after
+// the transaction has begun, so the real connection has to be fetched on the first statement.
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+}
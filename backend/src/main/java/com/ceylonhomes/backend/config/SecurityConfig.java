@@ -2,9 +2,13 @@ package com.ceylonhomes.backend.config;
 
 import com.ceylonhomes.backend.security.JwtAuthenticationEntryPoint;
 import com.ceylonhomes.backend.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -13,17 +17,22 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 
 @Configuration
 @EnableWebSecurity
@@ -32,12 +41,32 @@ import java.util.List;
 public class SecurityConfig {
 
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
     private final JwtAuthenticationEntryPoint authenticationEntryPoint;
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${app.security.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    // Port the separate management server listens on; -1 while actuator shares the application port
+    private volatile int managementPort = -1;
+
+    // The management server runs in a child context whose events reach this one
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        if ("management".equals(event.getApplicationContext().getServerNamespace())) {
+            managementPort = event.getWebServer().getPort();
+        }
+    }
+
+    // Hashes are stored as {bcrypt}<hash>. Hashes saved before the prefix existed are plain bcrypt,
+    // and any hash with a lower cost than bcrypt-strength is re-encoded on the next successful login.
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        DelegatingPasswordEncoder encoder = new DelegatingPasswordEncoder(
+            "bcrypt", Map.of("bcrypt", new BCryptPasswordEncoder(bcryptStrength)));
+        encoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder(bcryptStrength));
+        return encoder;
     }
 
     @Bean
@@ -45,6 +74,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -63,12 +93,25 @@ public class SecurityConfig {
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // Event streams (SseEmitter) end on an async dispatch, which carries no token; the
+                // request was already authorized when the stream was opened
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                 // Public endpoints
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/uploads/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/listings/search").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/listings/latest").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/listings/map").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/listings/{id}").permitAll()
+
+                // Health checks, and the Prometheus scrape only when it arrives on the separate
+                // management port; on the application port it needs an admin token like the rest
+                .requestMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                .requestMatchers(new AndRequestMatcher(
+                    new AntPathRequestMatcher("/actuator/prometheus", HttpMethod.GET.name()),
+                    request -> request.getLocalPort() == managementPort)).permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 
                 // Admin endpoints
                 .requestMatchers("/api/admin/**").hasRole("ADMIN")
@@ -85,6 +128,9 @@ public class SecurityConfig {
                 
                 // Inquiry endpoints (USER or SELLER)
                 .requestMatchers(HttpMethod.POST, "/api/inquiries/**").hasAnyRole("USER", "SELLER")
+
+                // Saved searches (USER or SELLER)
+                .requestMatchers("/api/saved-searches/**").hasAnyRole("USER", "SELLER")
                 
                 // All other requests require authentication
                 .anyRequest().authenticated()
@@ -0,0 +1,93 @@
+package com.ceylonhomes.backend.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+// Replacement for show-sql under load. Logs statements slower than the threshold, plus an optional
+// random sample of the rest, capped at max-per-second lines so a slow database can't flood the log.
+@Slf4j
+@Component
+public class SlowQueryLogger implements QueryExecutionListener {
+
+    private static final int MAX_SQL_LENGTH = 1000;
+
+    private final AtomicLong currentSecond = new AtomicLong();
+    private final AtomicInteger loggedThisSecond = new AtomicInteger();
+    private final AtomicInteger suppressedThisSecond = new AtomicInteger();
+
+    @Value("${app.sql-log.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.sql-log.slow-threshold-ms:500}")
+    private long slowThresholdMs;
+
+    @Value("${app.sql-log.sample-rate:0.0}")
+    private double sampleRate;
+
+    @Value("${app.sql-log.max-per-second:20}")
+    private int maxPerSecond;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        if (!enabled) {
+            return;
+        }
+
+        long elapsedMs = execInfo.getElapsedTime();
+        boolean slow = elapsedMs >= slowThresholdMs;
+        if (!slow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        if (!tryAcquireLogSlot()) {
+            return;
+        }
+
+        String sql = abbreviate(queryInfoList.stream()
+                .map(QueryInfo::getQuery)
+                .collect(Collectors.joining("; ")));
+        if (slow) {
+            log.warn("Slow query: {} ms{} on {}: {}", elapsedMs, batchSuffix(execInfo), Thread.currentThread().getName(), sql);
+        } else {
+            log.info("Sampled query: {} ms{}: {}", elapsedMs, batchSuffix(execInfo), sql);
+        }
+    }
+
+    private boolean tryAcquireLogSlot() {
+        long second = System.currentTimeMillis() / 1000;
+        long previous = currentSecond.get();
+        if (second != previous && currentSecond.compareAndSet(previous, second)) {
+            loggedThisSecond.set(0);
+            int suppressed = suppressedThisSecond.getAndSet(0);
+            if (suppressed > 0) {
+                log.warn("Suppressed {} slow/sampled query log lines in the previous second", suppressed);
+            }
+        }
+        if (loggedThisSecond.incrementAndGet() > maxPerSecond) {
+            suppressedThisSecond.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    private static String batchSuffix(ExecutionInfo execInfo) {
+        return execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "";
+    }
+
+    private static String abbreviate(String sql) {
+        return sql.length() <= MAX_SQL_LENGTH ? sql : sql.substring(0, MAX_SQL_LENGTH) + "...";
+    }
+}
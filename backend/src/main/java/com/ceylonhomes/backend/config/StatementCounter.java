@@ -0,0 +1,77 @@
+package com.ceylonhomes.backend.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Counts JDBC statements and their execution time on the current thread while a Scope is open.
+// QueryBudgetInterceptor opens one per request; tests can open one directly to assert a budget:
+//
+//   try (StatementCounter.Scope scope = StatementCounter.open()) {
+//       mockMvc.perform(get("/api/listings/latest"));
+//       assertThat(scope.getStatementCount()).isLessThanOrEqualTo(3);
+//   }
+@Component
+public class StatementCounter implements QueryExecutionListener {
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Nested scopes (a test around a request) each see the statement
+        for (Scope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.statementCount++;
+            scope.sqlMillis += execInfo.getElapsedTime();
+        }
+    }
+
+    public static final class Scope implements AutoCloseable {
+        private final Scope parent;
+        private final long startNanos = System.nanoTime();
+        private long statementCount;
+        private long sqlMillis;
+        private boolean closed;
+
+        private Scope(Scope parent) {
+            this.parent = parent;
+        }
+
+        public long getStatementCount() {
+            return statementCount;
+        }
+
+        public long getSqlMillis() {
+            return sqlMillis;
+        }
+
+        public long getElapsedMillis() {
+            return (System.nanoTime() - startNanos) / 1_000_000;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.ceylonhomes.backend.config;
+
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.service.ListingLocations;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Fills the database with synthetic sellers, buyers, listings, photos and inquiries for load
+// testing (see loadtest/README.md). Listings are spread over all 25 districts with rent and sale
+// prices that follow the usual island-wide spread (Colombo highest, rural districts lowest).
+// Off unless app.synthetic-data.enabled=true; never enable it against a real database.
+// Every generated user logs in with app.synthetic-data.password.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.synthetic-data.enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class SyntheticDataGenerator implements ApplicationRunner {
+
+    public static final String SELLER_EMAIL_FORMAT = "loadtest-seller-%d@example.lk";
+    public static final String BUYER_EMAIL_FORMAT = "loadtest-buyer-%d@example.lk";
+
+    private static final int BATCH_SIZE = 1000;
+
+    // District, relative price level, cities (first city is the most common)
+    private static final List<District> DISTRICTS = List.of(
+            new District("Colombo", 1.8, "Colombo 03", "Colombo 05", "Dehiwala", "Mount Lavinia", "Nugegoda",
+                    "Maharagama", "Battaramulla", "Rajagiriya", "Kottawa", "Moratuwa", "Homagama"),
+            new District("Gampaha", 1.2, "Negombo", "Gampaha", "Ja-Ela", "Kadawatha", "Wattala", "Kiribathgoda",
+                    "Kelaniya", "Minuwangoda"),
+            new District("Kalutara", 1.0, "Panadura", "Kalutara", "Horana", "Beruwala", "Wadduwa"),
+            new District("Kandy", 1.1, "Kandy", "Peradeniya", "Katugastota", "Kundasale", "Gampola"),
+            new District("Matale", 0.7, "Matale", "Dambulla", "Galewela"),
+            new District("Nuwara Eliya", 0.9, "Nuwara Eliya", "Hatton", "Talawakele"),
+            new District("Galle", 1.1, "Galle", "Hikkaduwa", "Unawatuna", "Ambalangoda", "Karapitiya"),
+            new District("Matara", 0.9, "Matara", "Weligama", "Mirissa", "Dikwella"),
+            new District("Hambantota", 0.7, "Hambantota", "Tangalle", "Tissamaharama", "Ambalantota"),
+            new District("Jaffna", 0.8, "Jaffna", "Nallur", "Chavakachcheri", "Point Pedro"),
+            new District("Kilinochchi", 0.5, "Kilinochchi", "Paranthan"),
+            new District("Mannar", 0.5, "Mannar", "Murunkan"),
+            new District("Vavuniya", 0.6, "Vavuniya", "Cheddikulam"),
+            new District("Mullaitivu", 0.5, "Mullaitivu", "Puthukudiyiruppu"),
+            new District("Batticaloa", 0.6, "Batticaloa", "Kattankudy", "Eravur"),
+            new District("Ampara", 0.6, "Ampara", "Kalmunai", "Akkaraipattu"),
+            new District("Trincomalee", 0.7, "Trincomalee", "Kinniya", "Nilaveli"),
+            new District("Kurunegala", 0.8, "Kurunegala", "Kuliyapitiya", "Pannala", "Narammala"),
+            new District("Puttalam", 0.7, "Puttalam", "Chilaw", "Wennappuwa", "Marawila"),
+            new District("Anuradhapura", 0.6, "Anuradhapura", "Kekirawa", "Medawachchiya"),
+            new District("Polonnaruwa", 0.6, "Polonnaruwa", "Kaduruwela", "Hingurakgoda"),
+            new District("Badulla", 0.7, "Badulla", "Bandarawela", "Ella", "Haputale"),
+            new District("Moneragala", 0.5, "Moneragala", "Wellawaya", "Bibile"),
+            new District("Ratnapura", 0.7, "Ratnapura", "Embilipitiya", "Balangoda"),
+            new District("Kegalle", 0.7, "Kegalle", "Mawanella", "Warakapola"));
+
+    // Share of listings per district, roughly following population
+    private static final int[] DISTRICT_WEIGHTS = {
+            30, 18, 8, 9, 3, 3, 7, 5, 3, 4, 1, 1, 1, 1, 2, 2, 2, 7, 3, 3, 2, 4, 2, 4, 3};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+
+    @Value("${app.synthetic-data.sellers:1000}")
+    private int sellers;
+
+    @Value("${app.synthetic-data.listings-per-seller:20}")
+    private int listingsPerSeller;
+
+    @Value("${app.synthetic-data.buyers:5000}")
+    private int buyers;
+
+    @Value("${app.synthetic-data.seed:42}")
+    private long seed;
+
+    @Value("${app.synthetic-data.password:loadtest-password}")
+    private String password;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer existing = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM users WHERE email = ?", Integer.class, SELLER_EMAIL_FORMAT.formatted(1));
+        if (existing != null && existing > 0) {
+            log.info("Synthetic data already present, skipping generation");
+            return;
+        }
+        generate(sellers, listingsPerSeller, buyers, seed, passwordEncoder.encode(password));
+    }
+
+    // Inserts the data set and returns the number of listings created. The same seed always produces
+    // the same data, so runs against a fresh database are comparable.
+    public long generate(int sellerCount, int listingsPerSellerCount, int buyerCount, long randomSeed, String passwordHash) {
+        long started = System.currentTimeMillis();
+        Random random = new Random(randomSeed);
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Long> sellerIds = insertUsers(SELLER_EMAIL_FORMAT, "+9471", "SELLER", sellerCount, passwordHash, random, now);
+        List<Long> buyerIds = insertUsers(BUYER_EMAIL_FORMAT, "+9472", "USER", buyerCount, passwordHash, random, now);
+
+        long listings = 0;
+        long photos = 0;
+        long inquiries = 0;
+        List<Object[]> listingRows = new ArrayList<>(BATCH_SIZE);
+        List<ListingSeed> seeds = new ArrayList<>(BATCH_SIZE);
+        for (Long sellerId : sellerIds) {
+            // Sellers list most of their properties in one or two districts
+            District home = pickDistrict(random);
+            for (int i = 0; i < listingsPerSellerCount; i++) {
+                District district = random.nextInt(4) == 0 ? pickDistrict(random) : home;
+                ListingSeed listing = newListing(sellerId, district, random, now);
+                listingRows.add(listing.row());
+                seeds.add(listing);
+                if (listingRows.size() == BATCH_SIZE) {
+                    long[] counts = flushListings(listingRows, seeds, buyerIds, random);
+                    listings += counts[0];
+                    photos += counts[1];
+                    inquiries += counts[2];
+                }
+            }
+        }
+        long[] counts = flushListings(listingRows, seeds, buyerIds, random);
+        listings += counts[0];
+        photos += counts[1];
+        inquiries += counts[2];
+
+        log.info("Generated {} sellers, {} buyers, {} listings, {} photos and {} inquiries in {} ms",
+                sellerIds.size(), buyerIds.size(), listings, photos, inquiries, System.currentTimeMillis() - started);
+        return listings;
+    }
+
+    private List<Long> insertUsers(String emailFormat, String phonePrefix, String role, int count,
+                                   String passwordHash, Random random, LocalDateTime now) {
+        List<Long> ids = new ArrayList<>(count);
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 1; i <= count; i++) {
+            Timestamp createdAt = Timestamp.valueOf(now.minusDays(random.nextInt(730)));
+            rows.add(new Object[]{
+                    (role.equals("SELLER") ? "Seller " : "Buyer ") + i,
+                    emailFormat.formatted(i),
+                    phonePrefix + String.format("%07d", i),
+                    passwordHash, role, true, createdAt, createdAt});
+            if (rows.size() == BATCH_SIZE || i == count) {
+                ids.addAll(insertReturningIds("INSERT INTO users "
+                        + "(name, email, phone, password_hash, role, is_active, created_at, updated_at) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)", rows));
+                rows.clear();
+            }
+        }
+        return ids;
+    }
+
+    private ListingSeed newListing(Long sellerId, District district, Random random, LocalDateTime now) {
+        boolean rent = random.nextInt(100) < 70;
+        PropertyType type = rent ? pickRentType(random) : (random.nextInt(10) < 9 ? PropertyType.HOUSE : PropertyType.ANNEX);
+        String city = district.cities()[Math.min(district.cities().length - 1, (int) Math.abs(random.nextGaussian() * 2))];
+
+        int bedrooms = switch (type) {
+            case ROOM, BOARDING -> 1;
+            case ANNEX -> 1 + random.nextInt(2);
+            case HOUSE -> 2 + random.nextInt(4);
+        };
+        int bathrooms = Math.max(1, bedrooms - random.nextInt(2));
+
+        // Log-normal around a per-type median, scaled by the district's price level
+        double median = rent
+                ? switch (type) {
+                    case ROOM -> 15_000;
+                    case BOARDING -> 12_000;
+                    case ANNEX -> 35_000;
+                    case HOUSE -> 40_000 + bedrooms * 15_000;
+                }
+                : (type == PropertyType.HOUSE ? 8_000_000 + bedrooms * 6_000_000 : 9_000_000);
+        double raw = median * district.priceLevel() * Math.exp(random.nextGaussian() * 0.35);
+        long step = rent ? 500 : 50_000;
+        BigDecimal price = BigDecimal.valueOf(Math.max(step, Math.round(raw / step) * step));
+
+        ListingStatus status = pickStatus(random);
+        LocalDateTime createdAt = now.minusMinutes(random.nextInt(365 * 24 * 60));
+        LocalDateTime closedAt = switch (status) {
+            case SOLD, RENTED, ARCHIVED -> createdAt.plusDays(random.nextInt(60) + 1);
+            default -> null;
+        };
+        if (closedAt != null && closedAt.isAfter(now)) {
+            closedAt = now;
+        }
+
+        String title = switch (type) {
+            case HOUSE -> bedrooms + " bedroom house " + (rent ? "for rent" : "for sale") + " in " + city;
+            case ANNEX -> "Annex " + (rent ? "for rent" : "for sale") + " in " + city;
+            case ROOM -> "Room for rent in " + city;
+            case BOARDING -> "Boarding place in " + city;
+        };
+        String description = "Synthetic load-test listing. " + title + ", " + district.name()
+                + " district. Close to bus route, water and electricity available.";
+
+        // Scattered up to ~15 km around the district capital so radius searches have something to find
+        double[] centre = ListingLocations.districtCentre(district.name());
+        double latitude = centre[0] + random.nextGaussian() * 0.07;
+        double longitude = centre[1] + random.nextGaussian() * 0.07;
+
+        Object[] row = {sellerId, title, description, rent ? "RENT" : "SALE", type.name(), price,
+                district.name(), city, (1 + random.nextInt(400)) + " " + city + " Road", latitude, longitude,
+                bedrooms, bathrooms, "+9477" + String.format("%07d", sellerId % 10_000_000),
+                status.name(), Timestamp.valueOf(createdAt),
+                closedAt != null ? Timestamp.valueOf(closedAt) : null,
+                Timestamp.valueOf(closedAt != null ? closedAt : createdAt)};
+        return new ListingSeed(row, status, createdAt);
+    }
+
+    // Inserts the buffered listings, then their photos and inquiries. Returns {listings, photos, inquiries}.
+    private long[] flushListings(List<Object[]> listingRows, List<ListingSeed> seeds, List<Long> buyerIds, Random random) {
+        if (listingRows.isEmpty()) {
+            return new long[3];
+        }
+        List<Long> listingIds = insertReturningIds("INSERT INTO listings (owner_id, title, description, rent_or_sale, "
+                + "property_type, price, district, city, address, latitude, longitude, bedrooms, bathrooms, contact_phone, "
+                + "status, created_at, closed_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                listingRows);
+
+        List<Object[]> photoRows = new ArrayList<>();
+        List<Object[]> inquiryRows = new ArrayList<>();
+        for (int i = 0; i < listingIds.size(); i++) {
+            Long listingId = listingIds.get(i);
+            ListingSeed listing = seeds.get(i);
+            Timestamp createdAt = Timestamp.valueOf(listing.createdAt());
+
+            int photoCount = random.nextInt(10) == 0 ? 0 : 1 + random.nextInt(8);
+            for (int p = 0; p < photoCount; p++) {
+                // Points at shared placeholder names; the files themselves are not generated
+                photoRows.add(new Object[]{listingId, "/uploads/listings/loadtest-" + random.nextInt(50) + ".jpg",
+                        p, createdAt});
+            }
+
+            if (listing.status() != ListingStatus.PENDING && listing.status() != ListingStatus.REJECTED
+                    && !buyerIds.isEmpty()) {
+                // Most listings get a few inquiries, a handful get many
+                int inquiryCount = random.nextInt(20) == 0 ? 10 + random.nextInt(30) : random.nextInt(4);
+                for (int q = 0; q < inquiryCount; q++) {
+                    inquiryRows.add(new Object[]{listingId, buyerIds.get(random.nextInt(buyerIds.size())),
+                            "Hi, is this still available? I would like to arrange a viewing.",
+                            Timestamp.valueOf(listing.createdAt().plusHours(1 + random.nextInt(24 * 30)))});
+                }
+            }
+        }
+
+        batchInsert("INSERT INTO listing_photos (listing_id, url, sort_order, created_at) VALUES (?, ?, ?, ?)", photoRows);
+        batchInsert("INSERT INTO inquiries (listing_id, buyer_id, message, created_at) VALUES (?, ?, ?, ?)", inquiryRows);
+
+        listingRows.clear();
+        seeds.clear();
+        return new long[]{listingIds.size(), photoRows.size(), inquiryRows.size()};
+    }
+
+    private void batchInsert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+    }
+
+    private List<Long> insertReturningIds(String sql, List<Object[]> rows) {
+        GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Object[] row = rows.get(i);
+                        for (int column = 0; column < row.length; column++) {
+                            ps.setObject(column + 1, row[column]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return rows.size();
+                    }
+                }, keyHolder);
+
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (Map<String, Object> keys : keyHolder.getKeyList()) {
+            ids.add(((Number) keys.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    private static District pickDistrict(Random random) {
+        int total = 0;
+        for (int weight : DISTRICT_WEIGHTS) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < DISTRICT_WEIGHTS.length; i++) {
+            roll -= DISTRICT_WEIGHTS[i];
+            if (roll < 0) {
+                return DISTRICTS.get(i);
+            }
+        }
+        return DISTRICTS.get(0);
+    }
+
+    private static PropertyType pickRentType(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 45) {
+            return PropertyType.HOUSE;
+        }
+        if (roll < 70) {
+            return PropertyType.ANNEX;
+        }
+        return roll < 88 ? PropertyType.ROOM : PropertyType.BOARDING;
+    }
+
+    private static ListingStatus pickStatus(Random random) {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            return ListingStatus.APPROVED;
+        }
+        if (roll < 78) {
+            return ListingStatus.PENDING;
+        }
+        if (roll < 81) {
+            return ListingStatus.REJECTED;
+        }
+        if (roll < 82) {
+            return ListingStatus.SUSPENDED;
+        }
+        if (roll < 88) {
+            return ListingStatus.SOLD;
+        }
+        return roll < 96 ? ListingStatus.RENTED : ListingStatus.ARCHIVED;
+    }
+
+    private record District(String name, double priceLevel, String... cities) {
+    }
+
+    private record ListingSeed(Object[] row, ListingStatus status, LocalDateTime createdAt) {
+    }
+}
@@ -1,8 +1,13 @@
 package com.ceylonhomes.backend.controller;
 
+import com.ceylonhomes.backend.config.PoolWaitMetrics;
+import com.ceylonhomes.backend.config.QueryBudgetInterceptor;
 import com.ceylonhomes.backend.dto.*;
 import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.enums.ApprovalActionType;
 import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.security.AccessToken;
+import com.ceylonhomes.backend.service.AdminEventService;
 import com.ceylonhomes.backend.service.AdminService;
 import com.ceylonhomes.backend.service.UserService;
 import com.ceylonhomes.backend.service.ListingService;
@@ -12,10 +17,15 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
 
@@ -25,8 +35,11 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminService adminService;
+    private final AdminEventService adminEventService;
     private final UserService userService;
     private final ListingService listingService;
+    private final PoolWaitMetrics poolWaitMetrics;
+    private final QueryBudgetInterceptor queryBudgetInterceptor;
 
     // Statistics Overview
     @GetMapping("/stats")
@@ -40,19 +53,45 @@ public class AdminController {
         return ResponseEntity.ok(stats);
     }
 
+    // Server-sent events: "stats" with the counts on connect, then "listing-submitted", "listing-updated"
+    // and "listing-moderated" as listing changes commit, each with the stats delta
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(Authentication authentication) {
+        User admin = userService.getUserByEmail(authentication.getName());
+        return adminEventService.openStream(admin, (AccessToken) authentication.getCredentials());
+    }
+
+    // Connection pool usage and wait times, per pool (primary, replica)
+    @GetMapping("/datasource-pools")
+    public ResponseEntity<List<DataSourcePoolStatsDTO>> getDataSourcePools() {
+        return ResponseEntity.ok(poolWaitMetrics.snapshot());
+    }
+
+    // SQL statements per request, aggregated per endpoint (worst average first)
+    @GetMapping("/query-stats")
+    public ResponseEntity<List<EndpointQueryStatsDTO>> getQueryStats() {
+        return ResponseEntity.ok(queryBudgetInterceptor.snapshot());
+    }
+
     // Listings Management
     @GetMapping("/listings")
-    public ResponseEntity<Page<ListingDTO>> getListings(
+    public ResponseEntity<Page<ListingCardDTO>> getListings(
             @RequestParam(required = false) String status,
             @RequestParam(required = false) String title,
             @RequestParam(required = false) String owner,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "20") int size) {
         Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<ListingDTO> listings = listingService.getAdminListings(status, title, owner, pageable);
+        Page<ListingCardDTO> listings = listingService.getAdminListings(status, title, owner, pageable);
         return ResponseEntity.ok(listings);
     }
 
+    // Full details of one listing (any status) for the moderation view; the table rows are cards
+    @GetMapping("/listings/{id}")
+    public ResponseEntity<ListingDTO> getListing(@PathVariable Long id) {
+        return ResponseEntity.ok(listingService.getListingById(id));
+    }
+
     @PostMapping("/listings/{id}/approve")
     public ResponseEntity<Map<String, String>> approveListing(
             @PathVariable Long id,
@@ -95,6 +134,42 @@ public class AdminController {
         return ResponseEntity.ok(Map.of("message", "Listing unsuspended successfully"));
     }
 
+    // User Management
+    @PostMapping("/users/{id}/deactivate")
+    public ResponseEntity<Map<String, String>> deactivateUser(@PathVariable Long id) {
+        userService.setUserActive(id, false);
+        return ResponseEntity.ok(Map.of("message", "User deactivated and signed out"));
+    }
+
+    @PostMapping("/users/{id}/activate")
+    public ResponseEntity<Map<String, String>> activateUser(@PathVariable Long id) {
+        userService.setUserActive(id, true);
+        return ResponseEntity.ok(Map.of("message", "User activated successfully"));
+    }
+
+    // Moderation Queue
+    @PostMapping("/moderation-queue/claim")
+    public ResponseEntity<List<ListingDTO>> claimPendingListings(
+            @RequestParam(defaultValue = "10") int size,
+            Authentication authentication) {
+        User admin = userService.getUserByEmail(authentication.getName());
+        return ResponseEntity.ok(adminService.claimPendingListings(admin, size));
+    }
+
+    @GetMapping("/moderation-queue")
+    public ResponseEntity<List<ListingDTO>> getClaimedListings(Authentication authentication) {
+        User admin = userService.getUserByEmail(authentication.getName());
+        return ResponseEntity.ok(adminService.getClaimedListings(admin));
+    }
+
+    @PostMapping("/moderation-queue/{id}/release")
+    public ResponseEntity<Map<String, String>> releaseClaim(
+            @PathVariable Long id,
+            Authentication authentication) {
+        User admin = userService.getUserByEmail(authentication.getName());
+        adminService.releaseClaim(id, admin);
+        return ResponseEntity.ok(Map.of("message", "Listing released successfully"));
+    }
 
     @GetMapping("/approval-actions")
     public ResponseEntity<Page<ApprovalActionDTO>> getApprovalHistory(
@@ -105,6 +180,26 @@ public class AdminController {
         return ResponseEntity.ok(actions);
     }
 
+    @GetMapping("/audit-log")
+    public ResponseEntity<AuditLogPageDTO> getAuditLog(
+            @RequestParam(required = false) Long adminId,
+            @RequestParam(required = false) ApprovalActionType action,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime beforeCreatedAt,
+            @RequestParam(required = false) Long beforeId,
+            @RequestParam(defaultValue = "20") int size) {
+        AuditLogPageDTO auditLog = adminService.getAuditLog(adminId, action, from, to, beforeCreatedAt, beforeId, size);
+        return ResponseEntity.ok(auditLog);
+    }
+
+    @PostMapping("/approval-actions/archive")
+    public ResponseEntity<Map<String, Object>> archiveApprovalHistory(
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth month) {
+        int archived = adminService.archiveApprovalHistory(month);
+        return ResponseEntity.ok(Map.of("message", "Approval history archived", "archived", archived));
+    }
+
     @GetMapping("/approval-actions/listing/{listingId}")
     public ResponseEntity<List<ApprovalActionDTO>> getListingApprovalHistory(@PathVariable Long listingId) {
         List<ApprovalActionDTO> actions = adminService.getListingApprovalHistory(listingId);
@@ -1,17 +1,26 @@
 package com.ceylonhomes.backend.controller;
 
+import com.ceylonhomes.backend.dto.ConversationDTO;
+import com.ceylonhomes.backend.dto.ErrorResponse;
 import com.ceylonhomes.backend.dto.InquiryDTO;
+import com.ceylonhomes.backend.dto.InquiryMessageDTO;
 import com.ceylonhomes.backend.dto.InquiryRequest;
 import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.security.AccessToken;
 import com.ceylonhomes.backend.service.InquiryService;
 import com.ceylonhomes.backend.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/inquiries")
@@ -46,4 +55,65 @@ public class InquiryController {
         List<InquiryDTO> inquiries = inquiryService.getListingInquiries(listingId, owner);
         return ResponseEntity.ok(inquiries);
     }
+
+    // Server-sent events: "message" for each new message in the user's conversations, "unread" with
+    // the unread total on connect and after a thread is read elsewhere
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(Authentication authentication) {
+        User user = userService.getUserByEmail(authentication.getName());
+        return inquiryService.openStream(user, (AccessToken) authentication.getCredentials());
+    }
+
+    @GetMapping("/conversations")
+    public ResponseEntity<Page<ConversationDTO>> getConversations(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        User user = userService.getUserByEmail(authentication.getName());
+        PageRequest pageable = PageRequest.of(Math.max(page, 0), Math.max(1, Math.min(size, 50)));
+        return ResponseEntity.ok(inquiryService.getConversations(user, pageable));
+    }
+
+    @GetMapping("/unread-count")
+    public ResponseEntity<Map<String, Long>> getUnreadCount(Authentication authentication) {
+        User user = userService.getUserByEmail(authentication.getName());
+        return ResponseEntity.ok(Map.of("unread", inquiryService.getUnreadCount(user)));
+    }
+
+    @GetMapping("/{id}/messages")
+    public ResponseEntity<?> getMessages(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long afterId,
+            Authentication authentication) {
+        try {
+            User user = userService.getUserByEmail(authentication.getName());
+            List<InquiryMessageDTO> messages = inquiryService.getMessages(id, user, afterId);
+            return ResponseEntity.ok(messages);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/messages")
+    public ResponseEntity<?> reply(
+            @PathVariable Long id,
+            @Valid @RequestBody InquiryRequest request,
+            Authentication authentication) {
+        try {
+            User user = userService.getUserByEmail(authentication.getName());
+            return ResponseEntity.ok(inquiryService.reply(id, request.getMessage(), user));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @PostMapping("/{id}/read")
+    public ResponseEntity<?> markRead(@PathVariable Long id, Authentication authentication) {
+        try {
+            User user = userService.getUserByEmail(authentication.getName());
+            return ResponseEntity.ok(Map.of("unread", inquiryService.markRead(id, user)));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
 }
@@ -1,21 +1,32 @@
 package com.ceylonhomes.backend.controller;
 
+import com.ceylonhomes.backend.dto.ErrorResponse;
+import com.ceylonhomes.backend.dto.ListingCardDTO;
 import com.ceylonhomes.backend.dto.ListingDTO;
 import com.ceylonhomes.backend.dto.ListingRequest;
+import com.ceylonhomes.backend.dto.MapClusterDTO;
 import com.ceylonhomes.backend.entity.User;
 import com.ceylonhomes.backend.enums.PropertyType;
 import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.service.LatestListingsFeed;
+import com.ceylonhomes.backend.service.ListingGeoIndex;
 import com.ceylonhomes.backend.service.ListingService;
+import com.ceylonhomes.backend.service.ListingViewCounter;
+import com.ceylonhomes.backend.service.ListingVersions;
 import com.ceylonhomes.backend.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
@@ -29,6 +40,8 @@ public class ListingController {
 
     private final ListingService listingService;
     private final UserService userService;
+    private final ListingVersions listingVersions;
+    private final ListingViewCounter listingViewCounter;
 
     @PostMapping
     public ResponseEntity<ListingDTO> createListing(
@@ -95,14 +108,32 @@ public class ListingController {
         return ResponseEntity.ok(Map.of("message", "Listing archived successfully"));
     }
 
+    // Conditional GET: a matching If-None-Match gets 304 before the listing is read. Both count as a
+    // view; the count itself is only in memory until the next flush.
     @GetMapping("/{id}")
-    public ResponseEntity<ListingDTO> getListingById(@PathVariable Long id) {
+    public ResponseEntity<ListingDTO> getListingById(
+            @PathVariable Long id,
+            WebRequest request,
+            HttpServletRequest servletRequest) {
+        String etag = listingVersions.listingTag(id);
+        if (request.checkNotModified(etag)) {
+            listingViewCounter.recordView(id, servletRequest);
+            return null;
+        }
         ListingDTO listing = listingService.getListingById(id);
-        return ResponseEntity.ok(listing);
+        // View flushes do not move the ETag, so a count in this body would be served stale on every
+        // 304. Sellers see it in their own listings, admins in the admin detail.
+        listing.setViewCount(null);
+        listingViewCounter.recordView(id, servletRequest);
+        return tagged(etag, listing);
     }
 
+    // Passing lat/lng/radiusKm or minLat/maxLat/minLng/maxLng switches to a location search;
+    // results are then ordered nearest first and sortBy/sortDir are ignored. facets=true adds
+    // facet counts to the page (not available for location searches). Tagged with the approved-set
+    // generation, so a repeated search is answered with 304 until an approved listing changes.
     @GetMapping("/search")
-    public ResponseEntity<Page<ListingDTO>> searchListings(
+    public ResponseEntity<?> searchListings(
             @RequestParam(required = false) String district,
             @RequestParam(required = false) String city,
             @RequestParam(required = false) RentOrSale rentOrSale,
@@ -111,27 +142,107 @@ public class ListingController {
             @RequestParam(required = false) BigDecimal maxPrice,
             @RequestParam(required = false) Integer bedrooms,
             @RequestParam(required = false) Integer bathrooms,
+            @RequestParam(required = false) Double lat,
+            @RequestParam(required = false) Double lng,
+            @RequestParam(required = false) Double radiusKm,
+            @RequestParam(required = false) Double minLat,
+            @RequestParam(required = false) Double maxLat,
+            @RequestParam(required = false) Double minLng,
+            @RequestParam(required = false) Double maxLng,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "12") int size,
             @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDir) {
-        
+            @RequestParam(defaultValue = "DESC") String sortDir,
+            @RequestParam(defaultValue = "false") boolean facets,
+            WebRequest request) {
+
+        String etag = listingVersions.approvedSetTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
+        if (lat != null || lng != null || radiusKm != null
+                || minLat != null || maxLat != null || minLng != null || maxLng != null) {
+            try {
+                ListingGeoIndex.Area area;
+                if (lat != null && lng != null && radiusKm != null) {
+                    area = ListingGeoIndex.Area.radius(lat, lng, radiusKm);
+                } else if (minLat != null && maxLat != null && minLng != null && maxLng != null) {
+                    area = ListingGeoIndex.Area.box(minLat, maxLat, minLng, maxLng);
+                } else {
+                    throw new IllegalArgumentException(
+                            "Pass either lat, lng and radiusKm or minLat, maxLat, minLng and maxLng");
+                }
+                ListingGeoIndex.Filter filter = new ListingGeoIndex.Filter(district, city, rentOrSale,
+                        propertyType, minPrice, maxPrice, bedrooms, bathrooms);
+                return tagged(etag, listingService.searchListingsNear(area, filter, PageRequest.of(page, size)));
+            } catch (IllegalArgumentException e) {
+                return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+            } catch (IllegalStateException e) {
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(e.getMessage()));
+            }
+        }
+
         Sort.Direction direction = sortDir.equalsIgnoreCase("ASC") ? Sort.Direction.ASC : Sort.Direction.DESC;
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
-        
-        Page<ListingDTO> listings = listingService.searchListings(
+
+        if (facets) {
+            return tagged(etag, listingService.searchListingsWithFacets(
+                    district, city, rentOrSale, propertyType,
+                    minPrice, maxPrice, bedrooms, bathrooms, pageable));
+        }
+        Page<ListingCardDTO> listings = listingService.searchListings(
                 district, city, rentOrSale, propertyType,
                 minPrice, maxPrice, bedrooms, bathrooms, pageable
         );
-        return ResponseEntity.ok(listings);
+        return tagged(etag, listings);
+    }
+
+    // Pre-aggregated map markers for the viewport; takes the same filters as /search
+    @GetMapping("/map")
+    public ResponseEntity<?> getMapClusters(
+            @RequestParam double minLat,
+            @RequestParam double maxLat,
+            @RequestParam double minLng,
+            @RequestParam double maxLng,
+            @RequestParam int zoom,
+            @RequestParam(required = false) String district,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) RentOrSale rentOrSale,
+            @RequestParam(required = false) PropertyType propertyType,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) Integer bedrooms,
+            @RequestParam(required = false) Integer bathrooms) {
+        try {
+            ListingGeoIndex.Area box = ListingGeoIndex.Area.box(minLat, maxLat, minLng, maxLng);
+            ListingGeoIndex.Filter filter = new ListingGeoIndex.Filter(district, city, rentOrSale,
+                    propertyType, minPrice, maxPrice, bedrooms, bathrooms);
+            List<MapClusterDTO> clusters = listingService.getMapClusters(box, filter, zoom);
+            return ResponseEntity.ok(clusters);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(new ErrorResponse(e.getMessage()));
+        }
     }
 
     @GetMapping("/latest")
-    public ResponseEntity<Page<ListingDTO>> getLatestListings(
+    public ResponseEntity<Page<ListingCardDTO>> getLatestListings(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "12") int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, "createdAt"));
-        Page<ListingDTO> listings = listingService.getLatestApprovedListings(pageable);
-        return ResponseEntity.ok(listings);
+            @RequestParam(defaultValue = "12") int size,
+            WebRequest request) {
+        String etag = listingVersions.approvedSetTag();
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        Pageable pageable = PageRequest.of(page, size, LatestListingsFeed.ORDER);
+        Page<ListingCardDTO> listings = listingService.getLatestApprovedListings(pageable);
+        return tagged(etag, listings);
+    }
+
+    // no-cache: browsers keep the body but revalidate with If-None-Match on every use
+    private static <T> ResponseEntity<T> tagged(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(CacheControl.noCache()).body(body);
     }
 }
@@ -0,0 +1,56 @@
+package com.ceylonhomes.backend.controller;
+
+import com.ceylonhomes.backend.dto.ErrorResponse;
+import com.ceylonhomes.backend.dto.SavedSearchDTO;
+import com.ceylonhomes.backend.dto.SavedSearchRequest;
+import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.service.SavedSearchService;
+import com.ceylonhomes.backend.service.UserService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@RequiredArgsConstructor
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+    private final UserService userService;
+
+    @GetMapping
+    public ResponseEntity<List<SavedSearchDTO>> getSavedSearches(Authentication authentication) {
+        User user = userService.getUserByEmail(authentication.getName());
+        return ResponseEntity.ok(savedSearchService.getSavedSearches(user));
+    }
+
+    @PostMapping
+    public ResponseEntity<?> createSavedSearch(
+            @Valid @RequestBody SavedSearchRequest request,
+            Authentication authentication) {
+        try {
+            User user = userService.getUserByEmail(authentication.getName());
+            return ResponseEntity.ok(savedSearchService.createSavedSearch(user, request));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteSavedSearch(
+            @PathVariable Long id,
+            Authentication authentication) {
+        try {
+            User user = userService.getUserByEmail(authentication.getName());
+            savedSearchService.deleteSavedSearch(user, id);
+            return ResponseEntity.ok(Map.of("message", "Saved search deleted successfully"));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(new ErrorResponse(e.getMessage()));
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.ceylonhomes.backend.controller;
 
 import com.ceylonhomes.backend.dto.*;
 import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.service.ListingAnalyticsService;
+import com.ceylonhomes.backend.service.ListingArchivalService;
 import com.ceylonhomes.backend.service.SellerService;
 import com.ceylonhomes.backend.service.UserService;
 import jakarta.validation.Valid;
@@ -26,6 +28,8 @@ public class SellerController {
 
     private final SellerService sellerService;
     private final UserService userService;
+    private final ListingArchivalService listingArchivalService;
+    private final ListingAnalyticsService listingAnalyticsService;
 
     @GetMapping("/listings")
     public ResponseEntity<List<ListingDTO>> getMyListings(
@@ -36,12 +40,36 @@ public class SellerController {
         return ResponseEntity.ok(listings);
     }
 
+    @GetMapping("/listings/archived")
+    public ResponseEntity<List<ListingDTO>> getArchivedListings(@AuthenticationPrincipal UserDetails userDetails) {
+        List<ListingDTO> listings = listingArchivalService.getArchivedListings(userDetails.getUsername());
+        return ResponseEntity.ok(listings);
+    }
+
+    @PostMapping("/listings/archived/{id}/restore")
+    public ResponseEntity<Void> restoreArchivedListing(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id) {
+        
+        listingArchivalService.restoreListing(userDetails.getUsername(), id);
+        return ResponseEntity.ok().build();
+    }
+
     @GetMapping("/listings/summary")
     public ResponseEntity<ListingSummaryDTO> getListingSummary(@AuthenticationPrincipal UserDetails userDetails) {
         ListingSummaryDTO summary = sellerService.getSellerListingSummary(userDetails.getUsername());
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/listings/{id}/analytics")
+    public ResponseEntity<ListingAnalyticsDTO> getListingAnalytics(
+            @AuthenticationPrincipal UserDetails userDetails,
+            @PathVariable Long id) {
+
+        ListingAnalyticsDTO analytics = listingAnalyticsService.getListingAnalytics(userDetails.getUsername(), id);
+        return ResponseEntity.ok(analytics);
+    }
+
     @GetMapping("/profile")
     public ResponseEntity<UserDTO> getProfile(@AuthenticationPrincipal UserDetails userDetails) {
         UserDTO user = userService.getProfileByEmail(userDetails.getUsername());
@@ -0,0 +1,21 @@
+package com.ceylonhomes.backend.dto;
+
+import com.ceylonhomes.backend.enums.ListingStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Pushed on GET /api/admin/events as "listing-submitted", "listing-updated" or "listing-moderated".
+// listing is the admin table row (null once the listing is deleted); statsDelta is what to add to
+// the counts from the last "stats" event. Changes picked up from other instances carry no
+// previousStatus or delta and are followed by a fresh "stats" event instead.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AdminEventDTO {
+    private Long listingId;
+    private ListingStatus previousStatus;
+    private ListingStatus status;
+    private ListingCardDTO listing;
+    private AdminStatsDTO statsDelta;
+}
@@ -0,0 +1,19 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditLogPageDTO {
+    private List<ApprovalActionDTO> items;
+    private boolean hasMore;
+    // Pass these back as beforeCreatedAt/beforeId to fetch the next page
+    private LocalDateTime nextBeforeCreatedAt;
+    private Long nextBeforeId;
+}
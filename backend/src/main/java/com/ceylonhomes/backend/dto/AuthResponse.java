@@ -11,5 +11,6 @@ import lombok.NoArgsConstructor;
 public class AuthResponse {
     
     private String token;
+    private String refreshToken;
     private UserDTO user;
 }
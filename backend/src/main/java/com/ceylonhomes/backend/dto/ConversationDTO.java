@@ -0,0 +1,25 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// An inquiry thread as seen by one participant; unread counts messages from the other side
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConversationDTO {
+    private Long inquiryId;
+    private Long listingId;
+    private String listingTitle;
+    private Long buyerId;
+    private String buyerName;
+    private Long sellerId;
+    private String sellerName;
+    private String openingMessage;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastMessageAt;
+    private int unread;
+}
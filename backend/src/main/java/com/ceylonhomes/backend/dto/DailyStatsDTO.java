@@ -0,0 +1,17 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyStatsDTO {
+    private LocalDate date;
+    private long views;
+    private long inquiries;
+    private double conversionRate;  // Inquiries per view, 0 on days without views
+}
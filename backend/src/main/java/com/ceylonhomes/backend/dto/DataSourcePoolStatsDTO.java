@@ -0,0 +1,22 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataSourcePoolStatsDTO {
+    private String poolName;
+    private int activeConnections;
+    private int idleConnections;
+    private int maxConnections;
+    private int threadsAwaitingConnection;
+    // Totals since startup
+    private long acquireCount;
+    private double acquireAvgMillis;
+    private double acquireMaxMillis;
+    private long acquireTimeouts;
+    private double usageAvgMillis;
+}
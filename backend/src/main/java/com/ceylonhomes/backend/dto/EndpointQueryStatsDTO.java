@@ -0,0 +1,18 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointQueryStatsDTO {
+    private String endpoint;          // e.g. ListingController.searchListings
+    private long requests;
+    private double avgStatements;
+    private long maxStatements;
+    private double avgSqlMillis;
+    private double avgElapsedMillis;
+    private long overBudgetRequests;
+}
@@ -0,0 +1,19 @@
+package com.ceylonhomes.backend.dto;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+
+// A search page with facet counts; serializes like any other page plus a "facets" field
+public class FacetedPage<T> extends PageImpl<T> {
+
+    private final ListingFacetsDTO facets;
+
+    public FacetedPage(Page<T> page, ListingFacetsDTO facets) {
+        super(page.getContent(), page.getPageable(), page.getTotalElements());
+        this.facets = facets;
+    }
+
+    public ListingFacetsDTO getFacets() {
+        return facets;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Pushed on GET /api/inquiries/stream. "message" carries a new message in one of the user's
+// conversations; "unread" (sent on connect and after the user reads a thread) only the total.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InboxEventDTO {
+    private Long inquiryId;
+    private Long listingId;
+    private String listingTitle;
+    private InquiryMessageDTO message;
+    private long totalUnread;
+}
@@ -0,0 +1,20 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One message in an inquiry conversation. The buyer's opening message has no id of its own.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InquiryMessageDTO {
+    private Long id;
+    private Long inquiryId;
+    private Long senderId;
+    private String senderName;
+    private String message;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,21 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingAnalyticsDTO {
+    private Long listingId;
+    private LocalDate from;
+    private LocalDate to;
+    private long views;
+    private long inquiries;
+    private double conversionRate;
+    private List<DailyStatsDTO> days;   // One entry per day from..to, oldest first, zeros included
+}
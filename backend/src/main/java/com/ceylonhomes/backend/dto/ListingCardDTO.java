@@ -0,0 +1,58 @@
+package com.ceylonhomes.backend.dto;
+
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// What a listing card or admin table row shows. Built by a JPQL constructor expression, so list
+// endpoints never load Listing entities; ListingDTO is only used for the detail view.
+@Data
+@NoArgsConstructor
+public class ListingCardDTO {
+
+    public static final int SUMMARY_LENGTH = 160;
+
+    private Long id;
+    private String title;
+    private String summary;         // First SUMMARY_LENGTH characters of the description
+    private RentOrSale rentOrSale;
+    private PropertyType propertyType;
+    private BigDecimal price;
+    private String district;
+    private String city;
+    private Integer bedrooms;
+    private Integer bathrooms;
+    private ListingStatus status;
+    private Double latitude;
+    private Double longitude;
+    private Double distanceKm;      // Only set by radius/bounding-box searches
+    private String ownerName;
+    private String coverPhotoUrl;   // Filled in after the query, from one batched photo lookup
+    private LocalDateTime createdAt;
+
+    public ListingCardDTO(Long id, String title, String summary, RentOrSale rentOrSale, PropertyType propertyType,
+                          BigDecimal price, String district, String city, Integer bedrooms, Integer bathrooms,
+                          ListingStatus status, Double latitude, Double longitude, String ownerName,
+                          LocalDateTime createdAt) {
+        this.id = id;
+        this.title = title;
+        this.summary = summary;
+        this.rentOrSale = rentOrSale;
+        this.propertyType = propertyType;
+        this.price = price;
+        this.district = district;
+        this.city = city;
+        this.bedrooms = bedrooms;
+        this.bathrooms = bathrooms;
+        this.status = status;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.ownerName = ownerName;
+        this.createdAt = createdAt;
+    }
+}
@@ -37,10 +37,15 @@ public class ListingDTO {
     private String contactWhatsapp;
     private LocalDate availabilityStart;
     private LocalDate availabilityEnd;
+    private Double latitude;
+    private Double longitude;
     private ListingStatus status;
     private String rejectionReason;
     private LocalDateTime closedAt;
+    private Long claimedById;
+    private LocalDateTime claimExpiresAt;
     private List<String> photoUrls;
+    private Long viewCount;         // Distinct viewers, flushed every few seconds; null in the ETagged public detail
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 }
@@ -0,0 +1,33 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// Counts shown next to the search filters. Each facet is counted with every other active filter
+// applied but not its own, so the alternatives to the current choice keep their counts.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingFacetsDTO {
+    private long total;
+    private Map<String, Long> districts;
+    private Map<String, Long> cities;
+    private Map<String, Long> propertyTypes;
+    private Map<String, Long> rentOrSale;
+    private Map<String, Long> bedrooms; // "0" (studios, rooms) .. "4", "5+"
+    private List<PriceBucket> priceHistogram;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceBucket {
+        private BigDecimal from;
+        private BigDecimal to; // Null for the open-ended top bucket
+        private long count;
+    }
+}
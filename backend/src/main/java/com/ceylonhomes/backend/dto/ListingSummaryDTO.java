@@ -14,4 +14,5 @@ public class ListingSummaryDTO {
     private Long sold;
     private Long rented;
     private Long archived;
+    private Long views;
 }
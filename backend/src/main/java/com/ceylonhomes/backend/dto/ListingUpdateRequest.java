@@ -62,4 +62,13 @@ public class ListingUpdateRequest {
     private LocalDate availabilityStart;
 
     private LocalDate availabilityEnd;
+
+    // Optional map pin; without it the listing is placed at its district centre
+    @DecimalMin(value = "-90.0", message = "Latitude must be between -90 and 90")
+    @DecimalMax(value = "90.0", message = "Latitude must be between -90 and 90")
+    private Double latitude;
+
+    @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
+    @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
+    private Double longitude;
 }
@@ -0,0 +1,20 @@
+package com.ceylonhomes.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// One map marker: a group of listings, or a single listing when count is 1
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MapClusterDTO {
+    private double latitude;
+    private double longitude;
+    private int count;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Long listingId; // Only set when count is 1
+}
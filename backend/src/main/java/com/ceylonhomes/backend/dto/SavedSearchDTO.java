@@ -0,0 +1,27 @@
+package com.ceylonhomes.backend.dto;
+
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchDTO {
+    private Long id;
+    private String name;
+    private String district;
+    private String city;
+    private RentOrSale rentOrSale;
+    private PropertyType propertyType;
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer bedrooms;
+    private Integer bathrooms;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,42 @@
+package com.ceylonhomes.backend.dto;
+
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+// Same filters as GET /api/listings/search; leave a field out to match any value
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchRequest {
+
+    @Size(max = 100, message = "Name must not exceed 100 characters")
+    private String name;
+
+    @Size(max = 80, message = "District must not exceed 80 characters")
+    private String district;
+
+    @Size(max = 80, message = "City must not exceed 80 characters")
+    private String city;
+
+    private RentOrSale rentOrSale;
+
+    private PropertyType propertyType;
+
+    @DecimalMin(value = "0.0", message = "Minimum price cannot be negative")
+    private BigDecimal minPrice;
+
+    @DecimalMin(value = "0.0", message = "Maximum price cannot be negative")
+    private BigDecimal maxPrice;
+
+    @Min(value = 0, message = "Bedrooms cannot be negative")
+    private Integer bedrooms;
+
+    @Min(value = 0, message = "Bathrooms cannot be negative")
+    private Integer bathrooms;
+}
@@ -10,7 +10,11 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "approval_actions")
+@Table(name = "approval_actions", indexes = {
+    @Index(name = "idx_created_id", columnList = "created_at, id"),
+    @Index(name = "idx_admin_created", columnList = "admin_id, created_at"),
+    @Index(name = "idx_action_created", columnList = "action, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
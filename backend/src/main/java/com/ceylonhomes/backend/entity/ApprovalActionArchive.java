@@ -0,0 +1,51 @@
+package com.ceylonhomes.backend.entity;
+
+import com.ceylonhomes.backend.enums.ApprovalActionType;
+import com.ceylonhomes.backend.enums.ArchiveReason;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Cold copy of approval_actions rows, moved out month by month or together with an archived listing
+// (archiveReason; only LISTING rows go back when the listing is restored). Keeps plain ids instead
+// of foreign keys so archived rows outlive their listing/admin.
+@Entity
+@Table(name = "approval_actions_archive", indexes = {
+    @Index(name = "idx_archive_created", columnList = "created_at"),
+    @Index(name = "idx_archive_listing", columnList = "listing_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApprovalActionArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @Column(name = "admin_id", nullable = false)
+    private Long adminId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ApprovalActionType action;
+
+    @Column
+    private String note;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+
+    // NULL on rows archived before the reason was recorded; treated like MONTHLY
+    @Enumerated(EnumType.STRING)
+    @Column(name = "archive_reason", length = 10)
+    private ArchiveReason archiveReason;
+}
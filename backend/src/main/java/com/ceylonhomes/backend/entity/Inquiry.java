@@ -7,9 +7,15 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+// A buyer-seller conversation about a listing. message is the buyer's opening message; replies
+// are InquiryMessages. Each side has an unread counter that is reset when it reads the thread.
 @Entity
-@Table(name = "inquiries")
+@Table(name = "inquiries", indexes = {
+    @Index(name = "idx_inquiry_created", columnList = "created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -33,4 +39,16 @@ public class Inquiry {
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+
+    @Column(name = "buyer_unread", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int buyerUnread;
+
+    @Column(name = "seller_unread", nullable = false, columnDefinition = "INT NOT NULL DEFAULT 0")
+    private int sellerUnread;
+
+    @OneToMany(mappedBy = "inquiry", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<InquiryMessage> messages = new ArrayList<>();
 }
@@ -0,0 +1,36 @@
+package com.ceylonhomes.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inquiries_archive", indexes = {
+    @Index(name = "idx_inquiries_archive_listing", columnList = "listing_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InquiryArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @Column(name = "buyer_id", nullable = false)
+    private Long buyerId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "last_message_at")
+    private LocalDateTime lastMessageAt;
+}
@@ -0,0 +1,37 @@
+package com.ceylonhomes.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "inquiry_messages_archive", indexes = {
+    @Index(name = "idx_inquiry_messages_archive_listing", columnList = "listing_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class InquiryMessageArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "inquiry_id", nullable = false)
+    private Long inquiryId;
+
+    // Copied from the inquiry so a listing's messages can be moved back without a join
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @Column(name = "sender_id", nullable = false)
+    private Long senderId;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
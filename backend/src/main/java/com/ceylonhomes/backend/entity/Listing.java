@@ -7,7 +7,9 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.math.BigDecimal;
@@ -18,6 +20,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "listings")
+@BatchSize(size = 50)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -66,6 +69,13 @@ public class Listing {
     @Column(length = 50)
     private String size;
 
+    // WGS84 coordinates; the district centre when the seller did not pin the property
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
     @Column(name = "contact_phone", nullable = false, length = 30)
     private String contactPhone;
 
@@ -88,7 +98,21 @@ public class Listing {
     @Column(name = "closed_at")
     private LocalDateTime closedAt;
 
+    // Moderation lease: the admin currently reviewing this listing and until when
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "claimed_by")
+    private User claimedBy;
+
+    @Column(name = "claim_expires_at")
+    private LocalDateTime claimExpiresAt;
+
+    // Flushed by ListingViewCounter into listing_views; read with the row, so no extra query
+    @Formula("(SELECT v.views FROM listing_views v WHERE v.listing_id = id)")
+    private Long viewCount;
+
+    // Photos for a page of listings load in one IN query instead of one query per listing
     @OneToMany(mappedBy = "listing", cascade = CascadeType.ALL, orphanRemoval = true)
+    @BatchSize(size = 50)
     private List<ListingPhoto> photos = new ArrayList<>();
 
     @OneToMany(mappedBy = "listing", cascade = CascadeType.ALL, orphanRemoval = true)
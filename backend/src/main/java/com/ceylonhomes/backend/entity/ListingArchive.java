@@ -0,0 +1,103 @@
+package com.ceylonhomes.backend.entity;
+
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Cold copy of a closed listing moved out of the live listings table by ListingArchivalService.
+// Keeps the original id so the listing can be restored in place.
+@Entity
+@Table(name = "listings_archive", indexes = {
+    @Index(name = "idx_listings_archive_owner", columnList = "owner_id, closed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId;
+
+    @Column(nullable = false, length = 150)
+    private String title;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String description;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rent_or_sale", nullable = false)
+    private RentOrSale rentOrSale;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "property_type", nullable = false)
+    private PropertyType propertyType;
+
+    @Column(nullable = false, precision = 12, scale = 2)
+    private BigDecimal price;
+
+    @Column(nullable = false, length = 80)
+    private String district;
+
+    @Column(nullable = false, length = 80)
+    private String city;
+
+    @Column(nullable = false)
+    private String address;
+
+    @Column
+    private Integer bedrooms;
+
+    @Column
+    private Integer bathrooms;
+
+    @Column(length = 50)
+    private String size;
+
+    @Column
+    private Double latitude;
+
+    @Column
+    private Double longitude;
+
+    @Column(name = "contact_phone", nullable = false, length = 30)
+    private String contactPhone;
+
+    @Column(name = "contact_whatsapp", length = 30)
+    private String contactWhatsapp;
+
+    @Column(name = "availability_start")
+    private LocalDate availabilityStart;
+
+    @Column(name = "availability_end")
+    private LocalDate availabilityEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private ListingStatus status;
+
+    @Column(name = "rejection_reason")
+    private String rejectionReason;
+
+    @Column(name = "closed_at")
+    private LocalDateTime closedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at")
+    private LocalDateTime archivedAt;
+}
@@ -9,7 +9,9 @@ import org.hibernate.annotations.CreationTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "listing_photos")
+@Table(name = "listing_photos", indexes = {
+    @Index(name = "idx_photo_listing_sort", columnList = "listing_id, sort_order, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,33 @@
+package com.ceylonhomes.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "listing_photos_archive", indexes = {
+    @Index(name = "idx_photos_archive_listing", columnList = "listing_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingPhotoArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @Column(nullable = false)
+    private String url;
+
+    @Column(name = "sort_order")
+    private Integer sortOrder;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
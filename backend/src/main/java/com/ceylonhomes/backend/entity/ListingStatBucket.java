@@ -0,0 +1,54 @@
+package com.ceylonhomes.backend.entity;
+
+import com.ceylonhomes.backend.enums.StatGranularity;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+// Views and inquiries of one listing in one hour or one day, written by ListingAnalyticsService.
+// Recent activity lands in hourly buckets, which are folded into daily ones once they are old
+// enough. idx_stat_series serves a listing's whole series as one range read, whatever order the
+// primary key columns end up in.
+@Entity
+@Table(name = "listing_stat_buckets", indexes = {
+    @Index(name = "idx_stat_series", columnList = "listing_id, bucket_start"),
+    @Index(name = "idx_stat_compaction", columnList = "granularity, bucket_start")
+})
+@IdClass(ListingStatBucket.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingStatBucket {
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long listingId;
+        private LocalDateTime bucketStart;
+        private StatGranularity granularity;
+    }
+
+    @Id
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDateTime bucketStart;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 8)
+    private StatGranularity granularity;
+
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long views;
+
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long inquiries;
+}
@@ -0,0 +1,28 @@
+package com.ceylonhomes.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Distinct-viewer count of one listing. Rows are upserted in batches by ListingViewCounter and
+// read through Listing.viewCount. listing_id has no foreign key so counts survive archiving.
+@Entity
+@Table(name = "listing_views")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ListingView {
+
+    @Id
+    @Column(name = "listing_id")
+    private Long listingId;
+
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private long views;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "password_reset_tokens")
+@Table(name = "password_reset_tokens", indexes = {
+    @Index(name = "idx_reset_lookup", columnList = "email, code, used, expiry_time"),
+    @Index(name = "idx_reset_expiry", columnList = "expiry_time")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,41 @@
+package com.ceylonhomes.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Cold copy of reports rows of archived listings. The live reports table is created by schema.sql
+// only, so ListingArchivalService copies into this table only where that table exists.
+@Entity
+@Table(name = "reports_archive", indexes = {
+    @Index(name = "idx_reports_archive_listing", columnList = "listing_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @Column(name = "reporter_id", nullable = false)
+    private Long reporterId;
+
+    @Column(nullable = false, length = 120)
+    private String reason;
+
+    @Column(columnDefinition = "TEXT")
+    private String details;
+
+    @Column(length = 10)
+    private String status;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
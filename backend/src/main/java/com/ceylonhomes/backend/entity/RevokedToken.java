@@ -0,0 +1,37 @@
+package com.ceylonhomes.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Access-token revocations, shared between instances. A row either revokes one token (jti)
+// or every token of a user issued before cutoffMillis. Rows are useless once expiresAt has
+// passed, because every token they could match has expired by then.
+@Entity
+@Table(name = "revoked_tokens", indexes = {
+    @Index(name = "idx_revoked_expires", columnList = "expires_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 36)
+    private String jti;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "cutoff_millis")
+    private Long cutoffMillis;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -0,0 +1,65 @@
+package com.ceylonhomes.backend.entity;
+
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// A buyer's search filters, alerted when a newly approved listing matches. Null fields mean "any".
+@Entity
+@Table(name = "saved_searches", indexes = {
+    @Index(name = "idx_saved_search_user", columnList = "user_id"),
+    @Index(name = "idx_saved_search_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(length = 100)
+    private String name;
+
+    @Column(length = 80)
+    private String district;
+
+    @Column(length = 80)
+    private String city;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "rent_or_sale")
+    private RentOrSale rentOrSale;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "property_type")
+    private PropertyType propertyType;
+
+    @Column(name = "min_price", precision = 12, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price", precision = 12, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Column
+    private Integer bedrooms;
+
+    @Column
+    private Integer bathrooms;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
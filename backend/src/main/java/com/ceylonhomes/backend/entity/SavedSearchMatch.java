@@ -0,0 +1,43 @@
+package com.ceylonhomes.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+// A listing that matched a saved search when it was approved. Rows are written in bulk by
+// SavedSearchService and mailed out in per-user digests; notifiedAt is set once sent.
+// listing_id has no foreign key so that deleting or archiving a listing is not blocked.
+@Entity
+@Table(name = "saved_search_matches",
+    uniqueConstraints = @UniqueConstraint(name = "uk_saved_search_listing", columnNames = {"saved_search_id", "listing_id"}),
+    indexes = {
+        @Index(name = "idx_saved_search_match_listing", columnList = "listing_id"),
+        @Index(name = "idx_saved_search_match_pending", columnList = "notified_at, id")
+    })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SavedSearchMatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "saved_search_id", nullable = false)
+    private SavedSearch savedSearch;
+
+    @Column(name = "listing_id", nullable = false)
+    private Long listingId;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "notified_at")
+    private LocalDateTime notifiedAt;
+}
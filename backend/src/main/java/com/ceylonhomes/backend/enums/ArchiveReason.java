@@ -0,0 +1,6 @@
+package com.ceylonhomes.backend.enums;
+
+public enum ArchiveReason {
+    MONTHLY,    // A past month of approval history moved out by AdminService.archiveApprovalHistory
+    LISTING     // Moved together with its listing by ListingArchivalService; restored with it
+}
@@ -0,0 +1,6 @@
+package com.ceylonhomes.backend.enums;
+
+public enum StatGranularity {
+    HOUR,
+    DAY
+}
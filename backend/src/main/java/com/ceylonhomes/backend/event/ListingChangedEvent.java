@@ -0,0 +1,13 @@
+package com.ceylonhomes.backend.event;
+
+import com.ceylonhomes.backend.enums.ListingStatus;
+
+// Published whenever a listing is created, edited, changes status or is deleted (status == null).
+// In-memory views of the approved listings and the admin event stream listen with
+// @TransactionalEventListener, so they only see changes that committed.
+public record ListingChangedEvent(Long listingId, ListingStatus previousStatus, ListingStatus status) {
+
+    public static ListingChangedEvent deleted(Long listingId, ListingStatus previousStatus) {
+        return new ListingChangedEvent(listingId, previousStatus, null);
+    }
+}
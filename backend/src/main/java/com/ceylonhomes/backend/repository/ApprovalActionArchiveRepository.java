@@ -0,0 +1,52 @@
+package com.ceylonhomes.backend.repository;
+
+import com.ceylonhomes.backend.dto.ApprovalActionDTO;
+import com.ceylonhomes.backend.entity.ApprovalActionArchive;
+import com.ceylonhomes.backend.enums.ApprovalActionType;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Read side of approval_actions_archive, in the same DTO shape as ApprovalActionRepository so the
+// history views can merge both. Archived rows have no foreign keys, so the listing (live or
+// archived) and the admin are joined by id and may be gone.
+@Repository
+public interface ApprovalActionArchiveRepository extends JpaRepository<ApprovalActionArchive, Long> {
+
+    String DTO_SELECT = "SELECT new com.ceylonhomes.backend.dto.ApprovalActionDTO(" +
+            "a.id, a.listingId, COALESCE(l.title, la.title), a.adminId, ad.name, a.action, a.note, a.createdAt) " +
+            "FROM ApprovalActionArchive a LEFT JOIN Listing l ON l.id = a.listingId " +
+            "LEFT JOIN ListingArchive la ON la.id = a.listingId LEFT JOIN User ad ON ad.id = a.adminId ";
+
+    @Query(DTO_SELECT + "WHERE a.listingId = :listingId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApprovalActionDTO> findHistoryByListingId(@Param("listingId") Long listingId);
+
+    @Query(value = DTO_SELECT,
+           countQuery = "SELECT COUNT(a) FROM ApprovalActionArchive a")
+    Page<ApprovalActionDTO> findHistory(Pageable pageable);
+
+    // Same filters and (createdAt, id) cursor as ApprovalActionRepository.findAuditLog
+    @Query(DTO_SELECT + "WHERE " +
+           "(:adminId IS NULL OR a.adminId = :adminId) " +
+           "AND (:action IS NULL OR a.action = :action) " +
+           "AND (:from IS NULL OR a.createdAt >= :from) " +
+           "AND (:to IS NULL OR a.createdAt < :to) " +
+           "AND (:beforeCreatedAt IS NULL OR a.createdAt < :beforeCreatedAt " +
+           "OR (a.createdAt = :beforeCreatedAt AND a.id < :beforeId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApprovalActionDTO> findAuditLog(
+        @Param("adminId") Long adminId,
+        @Param("action") ApprovalActionType action,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+}
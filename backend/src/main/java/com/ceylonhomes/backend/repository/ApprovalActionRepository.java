@@ -1,19 +1,69 @@
 package com.ceylonhomes.backend.repository;
 
+import com.ceylonhomes.backend.dto.ApprovalActionDTO;
 import com.ceylonhomes.backend.entity.ApprovalAction;
+import com.ceylonhomes.backend.enums.ApprovalActionType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface ApprovalActionRepository extends JpaRepository<ApprovalAction, Long> {
-    
-    List<ApprovalAction> findByListingIdOrderByCreatedAtDesc(Long listingId);
-    
-    List<ApprovalAction> findAllByOrderByCreatedAtDesc();
 
-    Page<ApprovalAction> findAllByOrderByCreatedAtDesc(Pageable pageable);
+    // History for one listing, projected straight into DTOs
+    @Query("SELECT new com.ceylonhomes.backend.dto.ApprovalActionDTO(" +
+           "a.id, l.id, l.title, ad.id, ad.name, a.action, a.note, a.createdAt) " +
+           "FROM ApprovalAction a JOIN a.listing l JOIN a.admin ad " +
+           "WHERE l.id = :listingId ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApprovalActionDTO> findHistoryByListingId(@Param("listingId") Long listingId);
+
+    // Offset-paged history, projected straight into DTOs
+    @Query(value = "SELECT new com.ceylonhomes.backend.dto.ApprovalActionDTO(" +
+                   "a.id, l.id, l.title, ad.id, ad.name, a.action, a.note, a.createdAt) " +
+                   "FROM ApprovalAction a JOIN a.listing l JOIN a.admin ad",
+           countQuery = "SELECT COUNT(a) FROM ApprovalAction a")
+    Page<ApprovalActionDTO> findHistory(Pageable pageable);
+
+    // Keyset-paged audit log with optional filters. The cursor is the (createdAt, id) of the
+    // last row of the previous page; rows are always returned newest first.
+    @Query("SELECT new com.ceylonhomes.backend.dto.ApprovalActionDTO(" +
+           "a.id, l.id, l.title, ad.id, ad.name, a.action, a.note, a.createdAt) " +
+           "FROM ApprovalAction a JOIN a.listing l JOIN a.admin ad WHERE " +
+           "(:adminId IS NULL OR ad.id = :adminId) " +
+           "AND (:action IS NULL OR a.action = :action) " +
+           "AND (:from IS NULL OR a.createdAt >= :from) " +
+           "AND (:to IS NULL OR a.createdAt < :to) " +
+           "AND (:beforeCreatedAt IS NULL OR a.createdAt < :beforeCreatedAt " +
+           "OR (a.createdAt = :beforeCreatedAt AND a.id < :beforeId)) " +
+           "ORDER BY a.createdAt DESC, a.id DESC")
+    List<ApprovalActionDTO> findAuditLog(
+        @Param("adminId") Long adminId,
+        @Param("action") ApprovalActionType action,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to,
+        @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+        @Param("beforeId") Long beforeId,
+        Pageable pageable
+    );
+
+    // Monthly archiving: copy a closed time range into approval_actions_archive, then drop it here
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO approval_actions_archive " +
+                   "(id, listing_id, admin_id, action, note, created_at, archived_at, archive_reason) " +
+                   "SELECT id, listing_id, admin_id, action, note, created_at, NOW(), 'MONTHLY' FROM approval_actions " +
+                   "WHERE created_at >= :from AND created_at < :to",
+           nativeQuery = true)
+    int copyRangeToArchive(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query(value = "DELETE FROM approval_actions WHERE created_at >= :from AND created_at < :to",
+           nativeQuery = true)
+    int deleteRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -0,0 +1,26 @@
+package com.ceylonhomes.backend.repository;
+
+import com.ceylonhomes.backend.entity.InquiryMessage;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface InquiryMessageRepository extends JpaRepository<InquiryMessage, Long> {
+
+    // One page of a thread, oldest first; afterId is the last message id the client already has
+    @Query("SELECT m FROM InquiryMessage m JOIN FETCH m.sender " +
+           "WHERE m.inquiry.id = :inquiryId AND m.id > :afterId ORDER BY m.id")
+    List<InquiryMessage> findThread(@Param("inquiryId") Long inquiryId, @Param("afterId") long afterId, Pageable pageable);
+
+    // Inbox push rows: message id, inquiry id, sender id, sender name, message, created at, buyer id,
+    // seller id, listing id, listing title
+    @Query("SELECT m.id, i.id, s.id, s.name, m.message, m.createdAt, i.buyer.id, l.owner.id, l.id, l.title " +
+           "FROM InquiryMessage m JOIN m.inquiry i JOIN m.sender s JOIN i.listing l WHERE m.createdAt >= :since")
+    List<Object[]> findPushRowsCreatedSince(@Param("since") LocalDateTime since);
+}
@@ -1,10 +1,17 @@
 package com.ceylonhomes.backend.repository;
 
 import com.ceylonhomes.backend.entity.Inquiry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface InquiryRepository extends JpaRepository<Inquiry, Long> {
@@ -14,4 +21,49 @@ public interface InquiryRepository extends JpaRepository<Inquiry, Long> {
     
     // Find all inquiries for listings owned by a specific seller
     List<Inquiry> findByListingOwnerIdOrderByCreatedAtDesc(Long ownerId);
+
+    // Newest inquiries for a seller, with listing and buyer loaded in the same query
+    @Query("SELECT i FROM Inquiry i JOIN FETCH i.listing l JOIN FETCH i.buyer " +
+           "WHERE l.owner.id = :ownerId ORDER BY i.createdAt DESC")
+    List<Inquiry> findRecentByOwnerId(@Param("ownerId") Long ownerId, Pageable pageable);
+
+    @Query("SELECT i FROM Inquiry i JOIN FETCH i.listing l JOIN FETCH i.buyer WHERE i.id = :id")
+    Optional<Inquiry> findWithListingById(@Param("id") Long id);
+
+    // Conversations the user takes part in, as buyer or as listing owner, most recently active first
+    @Query(value = "SELECT i FROM Inquiry i JOIN FETCH i.listing l JOIN FETCH l.owner JOIN FETCH i.buyer " +
+                   "WHERE i.buyer.id = :userId OR l.owner.id = :userId ORDER BY i.lastMessageAt DESC, i.id DESC",
+           countQuery = "SELECT COUNT(i) FROM Inquiry i WHERE i.buyer.id = :userId OR i.listing.owner.id = :userId")
+    Page<Inquiry> findConversations(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT COALESCE(SUM(CASE WHEN i.buyer.id = :userId THEN i.buyerUnread ELSE 0 END) + " +
+           "SUM(CASE WHEN l.owner.id = :userId THEN i.sellerUnread ELSE 0 END), 0) " +
+           "FROM Inquiry i JOIN i.listing l WHERE i.buyer.id = :userId OR l.owner.id = :userId")
+    long sumUnread(@Param("userId") Long userId);
+
+    // A new message bumps the other side's unread count in place, so concurrent messages are not
+    // lost; writing in a thread also marks it read for the writer
+    @Modifying
+    @Query("UPDATE Inquiry i SET i.sellerUnread = i.sellerUnread + 1, i.buyerUnread = 0, i.lastMessageAt = :at " +
+           "WHERE i.id = :id")
+    int recordBuyerMessage(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE Inquiry i SET i.buyerUnread = i.buyerUnread + 1, i.sellerUnread = 0, i.lastMessageAt = :at " +
+           "WHERE i.id = :id")
+    int recordSellerMessage(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    @Modifying
+    @Query("UPDATE Inquiry i SET i.buyerUnread = 0 WHERE i.id = :id")
+    int clearBuyerUnread(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE Inquiry i SET i.sellerUnread = 0 WHERE i.id = :id")
+    int clearSellerUnread(@Param("id") Long id);
+
+    // Inbox push for users connected to this instance, same layout as InquiryMessageRepository.findPushRowsCreatedSince:
+    // inquiry id (twice), sender id, sender name, message, created at, buyer id, seller id, listing id, listing title
+    @Query("SELECT i.id, i.id, b.id, b.name, i.message, i.createdAt, b.id, l.owner.id, l.id, l.title " +
+           "FROM Inquiry i JOIN i.buyer b JOIN i.listing l WHERE i.createdAt >= :since")
+    List<Object[]> findPushRowsCreatedSince(@Param("since") LocalDateTime since);
 }
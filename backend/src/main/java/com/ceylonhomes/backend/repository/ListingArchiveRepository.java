@@ -0,0 +1,168 @@
+package com.ceylonhomes.backend.repository;
+
+import com.ceylonhomes.backend.entity.ListingArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+// Moves closed listings and their dependent rows between the live tables and the *_archive tables.
+// Every statement works on a whole batch of listing ids; callers run them in one transaction.
+@Repository
+public interface ListingArchiveRepository extends JpaRepository<ListingArchive, Long> {
+
+    List<ListingArchive> findByOwnerIdOrderByClosedAtDesc(Long ownerId);
+
+    // ---------- Live -> archive ----------
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO listings_archive (id, owner_id, title, description, rent_or_sale, property_type, " +
+                   "price, district, city, address, bedrooms, bathrooms, size, latitude, longitude, contact_phone, contact_whatsapp, " +
+                   "availability_start, availability_end, status, rejection_reason, closed_at, created_at, updated_at, archived_at) " +
+                   "SELECT id, owner_id, title, description, rent_or_sale, property_type, " +
+                   "price, district, city, address, bedrooms, bathrooms, size, latitude, longitude, contact_phone, contact_whatsapp, " +
+                   "availability_start, availability_end, status, rejection_reason, closed_at, created_at, updated_at, NOW() " +
+                   "FROM listings WHERE id IN (:ids)",
+           nativeQuery = true)
+    int copyListingsToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO listing_photos_archive (id, listing_id, url, sort_order, created_at) " +
+                   "SELECT id, listing_id, url, sort_order, created_at FROM listing_photos WHERE listing_id IN (:ids)",
+           nativeQuery = true)
+    int copyPhotosToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO inquiries_archive (id, listing_id, buyer_id, message, created_at, last_message_at) " +
+                   "SELECT id, listing_id, buyer_id, message, created_at, last_message_at FROM inquiries WHERE listing_id IN (:ids)",
+           nativeQuery = true)
+    int copyInquiriesToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO inquiry_messages_archive (id, inquiry_id, listing_id, sender_id, message, created_at) " +
+                   "SELECT m.id, m.inquiry_id, i.listing_id, m.sender_id, m.message, m.created_at " +
+                   "FROM inquiry_messages m JOIN inquiries i ON i.id = m.inquiry_id WHERE i.listing_id IN (:ids)",
+           nativeQuery = true)
+    int copyInquiryMessagesToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO approval_actions_archive " +
+                   "(id, listing_id, admin_id, action, note, created_at, archived_at, archive_reason) " +
+                   "SELECT id, listing_id, admin_id, action, note, created_at, NOW(), 'LISTING' " +
+                   "FROM approval_actions WHERE listing_id IN (:ids)",
+           nativeQuery = true)
+    int copyApprovalActionsToArchive(@Param("ids") Collection<Long> ids);
+
+    // Only called where the schema.sql-only reports table exists (see ListingArchivalService)
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO reports_archive (id, listing_id, reporter_id, reason, details, status, created_at) " +
+                   "SELECT id, listing_id, reporter_id, reason, details, status, created_at FROM reports WHERE listing_id IN (:ids)",
+           nativeQuery = true)
+    int copyReportsToArchive(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM reports WHERE listing_id IN (:ids)", nativeQuery = true)
+    int deleteLiveReports(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM approval_actions WHERE listing_id IN (:ids)", nativeQuery = true)
+    int deleteLiveApprovalActions(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE m FROM inquiry_messages m JOIN inquiries i ON i.id = m.inquiry_id WHERE i.listing_id IN (:ids)",
+           nativeQuery = true)
+    int deleteLiveInquiryMessages(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM inquiries WHERE listing_id IN (:ids)", nativeQuery = true)
+    int deleteLiveInquiries(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM listing_photos WHERE listing_id IN (:ids)", nativeQuery = true)
+    int deleteLivePhotos(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM listings WHERE id IN (:ids)", nativeQuery = true)
+    int deleteLiveListings(@Param("ids") Collection<Long> ids);
+
+    // ---------- Archive -> live ----------
+
+    // closed_at is reset so a restored listing stays live for another full retention period
+    @Modifying
+    @Query(value = "INSERT INTO listings (id, owner_id, title, description, rent_or_sale, property_type, " +
+                   "price, district, city, address, bedrooms, bathrooms, size, latitude, longitude, contact_phone, contact_whatsapp, " +
+                   "availability_start, availability_end, status, rejection_reason, closed_at, created_at, updated_at) " +
+                   "SELECT id, owner_id, title, description, rent_or_sale, property_type, " +
+                   "price, district, city, address, bedrooms, bathrooms, size, latitude, longitude, contact_phone, contact_whatsapp, " +
+                   "availability_start, availability_end, status, rejection_reason, NOW(), created_at, NOW() " +
+                   "FROM listings_archive WHERE id = :id",
+           nativeQuery = true)
+    int restoreListing(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO listing_photos (id, listing_id, url, sort_order, created_at) " +
+                   "SELECT id, listing_id, url, sort_order, created_at FROM listing_photos_archive WHERE listing_id = :id",
+           nativeQuery = true)
+    int restorePhotos(@Param("id") Long id);
+
+    // Rows whose buyer, sender, admin or reporter account no longer exists stay in the archive
+    @Modifying
+    @Query(value = "INSERT INTO inquiries (id, listing_id, buyer_id, message, created_at, last_message_at) " +
+                   "SELECT a.id, a.listing_id, a.buyer_id, a.message, a.created_at, a.last_message_at FROM inquiries_archive a " +
+                   "JOIN users u ON u.id = a.buyer_id WHERE a.listing_id = :id",
+           nativeQuery = true)
+    int restoreInquiries(@Param("id") Long id);
+
+    // Runs after restoreInquiries; messages whose inquiry or sender was not restored stay in the archive
+    @Modifying
+    @Query(value = "INSERT INTO inquiry_messages (id, inquiry_id, sender_id, message, created_at) " +
+                   "SELECT a.id, a.inquiry_id, a.sender_id, a.message, a.created_at FROM inquiry_messages_archive a " +
+                   "JOIN inquiries i ON i.id = a.inquiry_id JOIN users u ON u.id = a.sender_id WHERE a.listing_id = :id",
+           nativeQuery = true)
+    int restoreInquiryMessages(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO approval_actions (id, listing_id, admin_id, action, note, created_at) " +
+                   "SELECT a.id, a.listing_id, a.admin_id, a.action, a.note, a.created_at FROM approval_actions_archive a " +
+                   "JOIN users u ON u.id = a.admin_id WHERE a.listing_id = :id AND a.archive_reason = 'LISTING'",
+           nativeQuery = true)
+    int restoreApprovalActions(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "INSERT INTO reports (id, listing_id, reporter_id, reason, details, status, created_at) " +
+                   "SELECT a.id, a.listing_id, a.reporter_id, a.reason, a.details, a.status, a.created_at FROM reports_archive a " +
+                   "JOIN users u ON u.id = a.reporter_id WHERE a.listing_id = :id",
+           nativeQuery = true)
+    int restoreReports(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE FROM listing_photos_archive WHERE listing_id = :id", nativeQuery = true)
+    int deleteArchivedPhotos(@Param("id") Long id);
+
+    // The deletes below only take rows that are back in the live table, so rows skipped by the
+    // restore* queries above (their user is gone) really do stay in the archive. Run them after the restores.
+    @Modifying
+    @Query(value = "DELETE a FROM inquiries_archive a JOIN inquiries i ON i.id = a.id WHERE a.listing_id = :id",
+           nativeQuery = true)
+    int deleteArchivedInquiries(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE a FROM inquiry_messages_archive a JOIN inquiry_messages m ON m.id = a.id WHERE a.listing_id = :id",
+           nativeQuery = true)
+    int deleteArchivedInquiryMessages(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE a FROM approval_actions_archive a JOIN approval_actions l ON l.id = a.id " +
+                   "WHERE a.listing_id = :id AND a.archive_reason = 'LISTING'",
+           nativeQuery = true)
+    int deleteArchivedApprovalActions(@Param("id") Long id);
+
+    @Modifying
+    @Query(value = "DELETE a FROM reports_archive a JOIN reports r ON r.id = a.id WHERE a.listing_id = :id",
+           nativeQuery = true)
+    int deleteArchivedReports(@Param("id") Long id);
+}
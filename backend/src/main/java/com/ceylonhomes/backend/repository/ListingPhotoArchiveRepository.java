@@ -0,0 +1,14 @@
+package com.ceylonhomes.backend.repository;
+
+import com.ceylonhomes.backend.entity.ListingPhotoArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ListingPhotoArchiveRepository extends JpaRepository<ListingPhotoArchive, Long> {
+
+    List<ListingPhotoArchive> findByListingIdInOrderBySortOrderAsc(Collection<Long> listingIds);
+}
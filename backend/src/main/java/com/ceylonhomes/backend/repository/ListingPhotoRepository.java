@@ -2,8 +2,11 @@ package com.ceylonhomes.backend.repository;
 
 import com.ceylonhomes.backend.entity.ListingPhoto;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,4 +15,15 @@ public interface ListingPhotoRepository extends JpaRepository<ListingPhoto, Long
     List<ListingPhoto> findByListingIdOrderBySortOrderAsc(Long listingId);
     
     void deleteByListingId(Long listingId);
+
+    // (listingId, url of its first photo) for a page of listings; url is null for a listing without
+    // photos. Each subquery reads a single entry of idx_photo_listing_sort.
+    @Query(value = "SELECT l.id, (SELECT p.url FROM listing_photos p WHERE p.listing_id = l.id " +
+                   "ORDER BY p.sort_order, p.id LIMIT 1) FROM listings l WHERE l.id IN (:listingIds)",
+           nativeQuery = true)
+    List<Object[]> findCoverUrlsByListingIds(@Param("listingIds") Collection<Long> listingIds);
+
+    // (listingId, url) of every photo of a page of listings, in display order
+    @Query("SELECT p.listing.id, p.url FROM ListingPhoto p WHERE p.listing.id IN :listingIds ORDER BY p.sortOrder, p.id")
+    List<Object[]> findUrlsByListingIds(@Param("listingIds") Collection<Long> listingIds);
 }
@@ -1,35 +1,98 @@
 package com.ceylonhomes.backend.repository;
 
+import com.ceylonhomes.backend.dto.ListingCardDTO;
 import com.ceylonhomes.backend.entity.Listing;
 import com.ceylonhomes.backend.enums.ListingStatus;
 import com.ceylonhomes.backend.enums.PropertyType;
 import com.ceylonhomes.backend.enums.RentOrSale;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ListingRepository extends JpaRepository<Listing, Long> {
+
+    String CARD_COLUMNS = "l.id, l.title, SUBSTRING(l.description, 1, " + ListingCardDTO.SUMMARY_LENGTH + "), " +
+            "l.rentOrSale, l.propertyType, l.price, l.district, l.city, l.bedrooms, l.bathrooms, l.status, " +
+            "l.latitude, l.longitude, o.name, l.createdAt";
+
+    // Row layout read by ListingGeoIndex and ListingFacetIndex
+    String INDEX_COLUMNS = "l.id, l.latitude, l.longitude, l.price, l.district, l.city, l.rentOrSale, " +
+            "l.propertyType, l.bedrooms, l.bathrooms, l.status";
+
+    String SEARCH_FILTERS = "l.status = 'APPROVED' " +
+            "AND (:district IS NULL OR l.district = :district) " +
+            "AND (:city IS NULL OR l.city = :city) " +
+            "AND (:rentOrSale IS NULL OR l.rentOrSale = :rentOrSale) " +
+            "AND (:propertyType IS NULL OR l.propertyType = :propertyType) " +
+            "AND (:minPrice IS NULL OR l.price >= :minPrice) " +
+            "AND (:maxPrice IS NULL OR l.price <= :maxPrice) " +
+            "AND (:bedrooms IS NULL OR l.bedrooms >= :bedrooms) " +
+            "AND (:bathrooms IS NULL OR l.bathrooms >= :bathrooms)";
+
+    String ADMIN_FILTERS = "(:status IS NULL OR l.status = :status) " +
+            "AND (:title IS NULL OR LOWER(l.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
+            "AND (:owner IS NULL OR LOWER(o.name) LIKE LOWER(CONCAT('%', :owner, '%')) " +
+            "OR LOWER(o.email) LIKE LOWER(CONCAT('%', :owner, '%')))";
     
     // Find listings by owner
     List<Listing> findByOwnerIdOrderByCreatedAtDesc(Long ownerId);
+
+    // Ownership check without loading the listing
+    @Query("SELECT o.email FROM Listing l JOIN l.owner o WHERE l.id = :id")
+    Optional<String> findOwnerEmailById(@Param("id") Long id);
     
     // Find listings by status
+    @EntityGraph(attributePaths = "owner")
     Page<Listing> findByStatusOrderByCreatedAtDesc(ListingStatus status, Pageable pageable);
 
-    // Admin search with optional filters
-    @Query("SELECT l FROM Listing l WHERE " +
-           "(:status IS NULL OR l.status = :status) " +
-           "AND (:title IS NULL OR LOWER(l.title) LIKE LOWER(CONCAT('%', :title, '%'))) " +
-           "AND (:owner IS NULL OR LOWER(l.owner.name) LIKE LOWER(CONCAT('%', :owner, '%')) " +
-           "OR LOWER(l.owner.email) LIKE LOWER(CONCAT('%', :owner, '%')))")
-    Page<Listing> adminSearch(
+    // Moderation queue: lock the oldest unclaimed rows, skipping rows another admin is claiming right now
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT l FROM Listing l WHERE l.status = :status " +
+           "AND (l.claimExpiresAt IS NULL OR l.claimExpiresAt < :now) " +
+           "ORDER BY l.createdAt ASC")
+    List<Listing> findClaimableForUpdate(
+        @Param("status") ListingStatus status,
+        @Param("now") LocalDateTime now,
+        Pageable pageable
+    );
+
+    // Moderation queue: listings an admin holds a live lease on, with owner and photos in one query
+    @Query("SELECT DISTINCT l FROM Listing l JOIN FETCH l.owner LEFT JOIN FETCH l.photos " +
+           "WHERE l.status = :status AND l.claimedBy.id = :adminId AND l.claimExpiresAt > :now " +
+           "ORDER BY l.createdAt ASC")
+    List<Listing> findClaimedBy(
+        @Param("status") ListingStatus status,
+        @Param("adminId") Long adminId,
+        @Param("now") LocalDateTime now
+    );
+
+    @Modifying
+    @Query("UPDATE Listing l SET l.claimedBy = NULL, l.claimExpiresAt = NULL " +
+           "WHERE l.id = :id AND l.claimedBy.id = :adminId")
+    int releaseClaim(@Param("id") Long id, @Param("adminId") Long adminId);
+
+    // Admin table rows with optional filters
+    @Query(value = "SELECT new com.ceylonhomes.backend.dto.ListingCardDTO(" + CARD_COLUMNS + ") " +
+                   "FROM Listing l JOIN l.owner o WHERE " + ADMIN_FILTERS,
+           countQuery = "SELECT COUNT(l) FROM Listing l JOIN l.owner o WHERE " + ADMIN_FILTERS)
+    Page<ListingCardDTO> adminSearchCards(
         @Param("status") ListingStatus status,
         @Param("title") String title,
         @Param("owner") String owner,
@@ -38,18 +101,16 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
     
     // Count by status
     long countByStatus(ListingStatus status);
+
+    // Admin stats in one statement: [0] status, [1] count
+    @Query("SELECT l.status, COUNT(l) FROM Listing l GROUP BY l.status")
+    List<Object[]> countGroupedByStatus();
     
-    // Public search - only APPROVED listings
-    @Query("SELECT l FROM Listing l WHERE l.status = 'APPROVED' " +
-           "AND (:district IS NULL OR l.district = :district) " +
-           "AND (:city IS NULL OR l.city = :city) " +
-           "AND (:rentOrSale IS NULL OR l.rentOrSale = :rentOrSale) " +
-           "AND (:propertyType IS NULL OR l.propertyType = :propertyType) " +
-           "AND (:minPrice IS NULL OR l.price >= :minPrice) " +
-           "AND (:maxPrice IS NULL OR l.price <= :maxPrice) " +
-           "AND (:bedrooms IS NULL OR l.bedrooms >= :bedrooms) " +
-           "AND (:bathrooms IS NULL OR l.bathrooms >= :bathrooms)")
-    Page<Listing> searchListings(
+    // Public search - only APPROVED listings, projected straight into cards
+    @Query(value = "SELECT new com.ceylonhomes.backend.dto.ListingCardDTO(" + CARD_COLUMNS + ") " +
+                   "FROM Listing l JOIN l.owner o WHERE " + SEARCH_FILTERS,
+           countQuery = "SELECT COUNT(l) FROM Listing l WHERE " + SEARCH_FILTERS)
+    Page<ListingCardDTO> searchListingCards(
         @Param("district") String district,
         @Param("city") String city,
         @Param("rentOrSale") RentOrSale rentOrSale,
@@ -61,6 +122,59 @@ public interface ListingRepository extends JpaRepository<Listing, Long> {
         Pageable pageable
     );
     
-    // Latest approved listings
+    // Listings by status (seller dashboard pagination)
     Page<Listing> findByStatus(ListingStatus status, Pageable pageable);
+
+    // Latest approved listings as cards
+    @Query(value = "SELECT new com.ceylonhomes.backend.dto.ListingCardDTO(" + CARD_COLUMNS + ") " +
+                   "FROM Listing l JOIN l.owner o WHERE l.status = :status",
+           countQuery = "SELECT COUNT(l) FROM Listing l WHERE l.status = :status")
+    Page<ListingCardDTO> findCardsByStatus(@Param("status") ListingStatus status, Pageable pageable);
+
+    // Cards for ids chosen by an in-memory index; rows that are no longer APPROVED are dropped
+    @Query("SELECT new com.ceylonhomes.backend.dto.ListingCardDTO(" + CARD_COLUMNS + ") " +
+           "FROM Listing l JOIN l.owner o WHERE l.id IN :ids AND l.status = 'APPROVED'")
+    List<ListingCardDTO> findApprovedCardsByIds(@Param("ids") Collection<Long> ids);
+
+    // ListingGeoIndex and ListingFacetIndex: full load in id order, one batch at a time
+    @Query("SELECT " + INDEX_COLUMNS + " FROM Listing l WHERE l.status = 'APPROVED' " +
+           "AND l.id > :afterId ORDER BY l.id")
+    List<Object[]> findApprovedIndexRows(@Param("afterId") long afterId, Pageable pageable);
+
+    // ListingGeoIndex and ListingFacetIndex: every listing touched since the last sync, whatever its status now
+    @Query("SELECT " + INDEX_COLUMNS + " FROM Listing l WHERE l.updatedAt >= :since")
+    List<Object[]> findIndexRowsUpdatedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT " + INDEX_COLUMNS + " FROM Listing l WHERE l.id = :id")
+    List<Object[]> findIndexRowById(@Param("id") Long id);
+
+    // ListingVersions: [0] id, [1] updatedAt of every listing touched since the last sync
+    @Query("SELECT l.id, l.updatedAt FROM Listing l WHERE l.updatedAt >= :since")
+    List<Object[]> findVersionsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Admin event stream: the admin table row for listings changed here or on another instance, any status
+    @Query("SELECT new com.ceylonhomes.backend.dto.ListingCardDTO(" + CARD_COLUMNS + ") " +
+           "FROM Listing l JOIN l.owner o WHERE l.id IN :ids")
+    List<ListingCardDTO> findCardsByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.ceylonhomes.backend.dto.ListingCardDTO(" + CARD_COLUMNS + ") " +
+           "FROM Listing l JOIN l.owner o WHERE l.updatedAt >= :since")
+    List<ListingCardDTO> findCardsUpdatedSince(@Param("since") LocalDateTime since);
+
+    // Closed listings old enough to move to cold storage, in two queries so each is one range on
+    // idx_status_closed (status, closed_at, updated_at): closed before the cutoff, and listings without
+    // closed_at (ARCHIVED ones, older closed rows) last updated before it
+    @Query("SELECT l.id FROM Listing l WHERE l.status IN :statuses AND l.closedAt < :cutoff")
+    List<Long> findClosedBefore(
+        @Param("statuses") Collection<ListingStatus> statuses,
+        @Param("cutoff") LocalDateTime cutoff,
+        Pageable pageable
+    );
+
+    @Query("SELECT l.id FROM Listing l WHERE l.status IN :statuses AND l.closedAt IS NULL AND l.updatedAt < :cutoff")
+    List<Long> findUnclosedUpdatedBefore(
+        @Param("statuses") Collection<ListingStatus> statuses,
+        @Param("cutoff") LocalDateTime cutoff,
+        Pageable pageable
+    );
 }
@@ -0,0 +1,41 @@
+package com.ceylonhomes.backend.repository;
+
+import com.ceylonhomes.backend.entity.ListingStatBucket;
+import com.ceylonhomes.backend.enums.StatGranularity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ListingStatBucketRepository extends JpaRepository<ListingStatBucket, ListingStatBucket.Key> {
+
+    // [0] bucketStart, [1] views, [2] inquiries of every hourly and daily bucket since from (idx_stat_series)
+    @Query("SELECT b.bucketStart, b.views, b.inquiries FROM ListingStatBucket b " +
+           "WHERE b.listingId = :listingId AND b.bucketStart >= :from")
+    List<Object[]> findSeries(@Param("listingId") Long listingId, @Param("from") LocalDateTime from);
+
+    @Query("SELECT MIN(b.bucketStart) FROM ListingStatBucket b WHERE b.granularity = :granularity")
+    LocalDateTime findOldestBucketStart(@Param("granularity") StatGranularity granularity);
+
+    @Modifying
+    @Query("DELETE FROM ListingStatBucket b WHERE b.granularity = :granularity " +
+           "AND b.bucketStart >= :from AND b.bucketStart < :to")
+    int deleteBuckets(
+        @Param("granularity") StatGranularity granularity,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    @Modifying
+    @Query("DELETE FROM ListingStatBucket b WHERE b.granularity = :granularity AND b.bucketStart < :before")
+    int deleteBucketsBefore(@Param("granularity") StatGranularity granularity, @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM ListingStatBucket b WHERE b.listingId = :listingId")
+    int deleteByListingId(@Param("listingId") Long listingId);
+}
@@ -2,6 +2,9 @@ package com.ceylonhomes.backend.repository;
 
 import com.ceylonhomes.backend.entity.PasswordResetToken;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -16,4 +19,10 @@ public interface PasswordResetTokenRepository extends JpaRepository<PasswordRese
     );
     
     void deleteByExpiryTimeBefore(LocalDateTime currentTime);
+
+    // Sweeper: removes at most :limit expired or used tokens per call to keep each delete short
+    @Modifying
+    @Query(value = "DELETE FROM password_reset_tokens WHERE expiry_time < :now OR used = TRUE LIMIT :limit",
+           nativeQuery = true)
+    int deleteExpiredOrUsed(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
@@ -0,0 +1,38 @@
+package com.ceylonhomes.backend.repository;
+
+import com.ceylonhomes.backend.entity.SavedSearchMatch;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface SavedSearchMatchRepository extends JpaRepository<SavedSearchMatch, Long> {
+
+    // Digest job: lock the oldest unsent matches, skipping rows another instance is sending right now
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT m FROM SavedSearchMatch m WHERE m.notifiedAt IS NULL ORDER BY m.id")
+    List<SavedSearchMatch> findPendingForUpdate(Pageable pageable);
+
+    // Digest rows: match id, user id, email, name, search name, listing id, title, price, city, district, status.
+    // The listing columns are null when the listing has since been deleted or archived.
+    @Query("SELECT m.id, u.id, u.email, u.name, s.name, l.id, l.title, l.price, l.city, l.district, l.status " +
+           "FROM SavedSearchMatch m JOIN m.savedSearch s JOIN s.user u " +
+           "LEFT JOIN Listing l ON l.id = m.listingId " +
+           "WHERE m.id IN :ids ORDER BY u.id, m.id")
+    List<Object[]> findDigestRows(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM SavedSearchMatch m WHERE m.savedSearch.id = :savedSearchId")
+    int deleteBySavedSearchId(@Param("savedSearchId") Long savedSearchId);
+}
@@ -0,0 +1,34 @@
+package com.ceylonhomes.backend.repository;
+
+import com.ceylonhomes.backend.entity.SavedSearch;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Long> {
+
+    // Row layout read by SavedSearchIndex
+    String INDEX_COLUMNS = "s.id, s.district, s.city, s.rentOrSale, s.propertyType, s.minPrice, s.maxPrice, " +
+            "s.bedrooms, s.bathrooms";
+
+    List<SavedSearch> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    Optional<SavedSearch> findByIdAndUserId(Long id, Long userId);
+
+    long countByUserId(Long userId);
+
+    // SavedSearchIndex: full load in id order, one batch at a time
+    @Query("SELECT " + INDEX_COLUMNS + " FROM SavedSearch s WHERE s.id > :afterId ORDER BY s.id")
+    List<Object[]> findIndexRows(@Param("afterId") long afterId, Pageable pageable);
+
+    // SavedSearchIndex: searches saved on other instances since the last sync
+    @Query("SELECT " + INDEX_COLUMNS + " FROM SavedSearch s WHERE s.createdAt >= :since")
+    List<Object[]> findIndexRowsCreatedSince(@Param("since") LocalDateTime since);
+}
@@ -0,0 +1,6 @@
+package com.ceylonhomes.backend.security;
+
+// The access token a request was authenticated with, kept as the credentials of the Authentication
+// that JwtAuthenticationFilter sets. Long-lived connections hold on to it to notice revocation.
+public record AccessToken(String id, Long userId, long issuedAtMillis) {
+}
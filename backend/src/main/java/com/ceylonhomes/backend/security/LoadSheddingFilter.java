@@ -0,0 +1,91 @@
+package com.ceylonhomes.backend.security;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+
+// Rejects API requests with 503 as soon as the server is saturated, instead of letting them queue
+// for a database connection until they time out. Two signals: too many requests in flight, or
+// too many threads already waiting on the Hikari pool.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+public class LoadSheddingFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final int maxAwaitingConnection;
+    private final int maxConcurrentRequests;
+    private final Semaphore inFlight;
+    private final HikariDataSource hikariDataSource;
+
+    public LoadSheddingFilter(
+            DataSource dataSource,
+            @Value("${app.load-shedding.enabled:true}") boolean enabled,
+            @Value("${app.load-shedding.max-concurrent-requests:200}") int maxConcurrentRequests,
+            @Value("${app.load-shedding.max-threads-awaiting-connection:10}") int maxAwaitingConnection) {
+        this.enabled = enabled;
+        this.maxAwaitingConnection = maxAwaitingConnection;
+        this.maxConcurrentRequests = maxConcurrentRequests;
+        this.inFlight = new Semaphore(maxConcurrentRequests);
+        this.hikariDataSource = unwrapHikari(dataSource);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        if (isPoolExhausted() || !inFlight.tryAcquire()) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "1");
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Service Unavailable\", \"message\": \"Server is busy. Please retry shortly.\"}");
+            return;
+        }
+
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    public int getInFlightRequests() {
+        return maxConcurrentRequests - inFlight.availablePermits();
+    }
+
+    private boolean isPoolExhausted() {
+        if (hikariDataSource == null) {
+            return false;
+        }
+        HikariPoolMXBean pool = hikariDataSource.getHikariPoolMXBean();
+        return pool != null && pool.getThreadsAwaitingConnection() > maxAwaitingConnection;
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                return dataSource.unwrap(HikariDataSource.class);
+            }
+        } catch (SQLException e) {
+            // Not a Hikari pool; only the in-flight limit applies
+        }
+        return null;
+    }
+}
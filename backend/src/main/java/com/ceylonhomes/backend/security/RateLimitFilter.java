@@ -0,0 +1,101 @@
+package com.ceylonhomes.backend.security;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Per-client, per-route limits for the public endpoints. Runs before Spring Security
+// so abusive clients are turned away before JWT parsing or any database work.
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final UrlPathHelper PATH_HELPER = new UrlPathHelper();
+
+    private final RateLimiter rateLimiter;
+    private final boolean enabled;
+    private final boolean trustForwardedFor;
+    private final Map<String, RateLimiter.Rule> rules;
+
+    public RateLimitFilter(
+            RateLimiter rateLimiter,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor,
+            @Value("${app.rate-limit.search.per-minute:120}") int searchPerMinute,
+            @Value("${app.rate-limit.search.burst:30}") int searchBurst,
+            @Value("${app.rate-limit.login.per-minute:10}") int loginPerMinute,
+            @Value("${app.rate-limit.login.burst:5}") int loginBurst,
+            @Value("${app.rate-limit.forgot-password.per-minute:3}") int forgotPerMinute,
+            @Value("${app.rate-limit.forgot-password.burst:3}") int forgotBurst) {
+        this.rateLimiter = rateLimiter;
+        this.enabled = enabled;
+        this.trustForwardedFor = trustForwardedFor;
+        this.rules = Map.of(
+            "GET /api/listings/search", RateLimiter.Rule.perMinute("search", searchPerMinute, searchBurst),
+            "GET /api/listings/latest", RateLimiter.Rule.perMinute("latest", searchPerMinute, searchBurst),
+            "GET /api/listings/map", RateLimiter.Rule.perMinute("map", searchPerMinute, searchBurst),
+            "POST /api/auth/login", RateLimiter.Rule.perMinute("login", loginPerMinute, loginBurst),
+            "POST /api/auth/forgot-password", RateLimiter.Rule.perMinute("forgot-password", forgotPerMinute, forgotBurst)
+        );
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !rules.containsKey(routeOf(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RateLimiter.Rule rule = rules.get(routeOf(request));
+        long waitNanos = rateLimiter.tryAcquire(clientIp(request, trustForwardedFor) + "|" + rule.name(), rule);
+
+        if (waitNanos > 0) {
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(429);
+            response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+            response.setContentType("application/json");
+            response.getWriter().write("{\"error\": \"Too Many Requests\", \"message\": \"Rate limit exceeded. Retry in "
+                    + retryAfterSeconds + " seconds.\"}");
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    // Decoded, without ;parameters and with repeated or trailing slashes removed, so variants such as
+    // "/api/auth/login/" are limited like the route they reach
+    static String routeOf(HttpServletRequest request) {
+        String path = PATH_HELPER.getLookupPathForRequest(request).replaceAll("/{2,}", "/");
+        while (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        return request.getMethod().toUpperCase(Locale.ROOT) + " " + path;
+    }
+
+    // Also used to tell viewers apart in ListingViewCounter
+    public static String clientIp(HttpServletRequest request, boolean trustForwardedFor) {
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (StringUtils.hasText(forwardedFor)) {
+                int comma = forwardedFor.indexOf(',');
+                return (comma >= 0 ? forwardedFor.substring(0, comma) : forwardedFor).trim();
+            }
+        }
+        return request.getRemoteAddr();
+    }
+}
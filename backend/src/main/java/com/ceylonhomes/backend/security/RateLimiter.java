@@ -0,0 +1,81 @@
+package com.ceylonhomes.backend.security;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// In-process token bucket limiter, implemented as GCRA: each bucket is a single AtomicLong holding the
+// "theoretical arrival time" of the next request, updated with a CAS loop (no locks).
+// A bucket whose arrival time has passed is full, so dropping it loses nothing; idle buckets are
+// evicted periodically and whenever the map reaches its capacity. If every bucket is still active,
+// new clients are refused until some go idle: letting them through untracked would let anyone
+// switch the limiter off by filling it.
+@Slf4j
+@Component
+public class RateLimiter {
+
+    private final ConcurrentHashMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private volatile long lastEviction = System.nanoTime();
+
+    @Value("${app.rate-limit.max-buckets:100000}")
+    private int maxBuckets;
+
+    // Returns 0 when the request is allowed, otherwise the nanoseconds until it would be
+    public long tryAcquire(String key, Rule rule) {
+        long now = System.nanoTime();
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxBuckets) {
+                // At most one inline eviction per second, so a flood does not scan the map on every request
+                if (now - lastEviction >= TimeUnit.SECONDS.toNanos(1)) {
+                    evictIdle(now);
+                }
+                if (buckets.size() >= maxBuckets) {
+                    log.warn("Rate limiter is full ({} buckets); refusing {}", buckets.size(), key);
+                    return rule.intervalNanos();
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+
+        while (true) {
+            long tat = bucket.get();
+            long effective = Math.max(tat, now);
+            long wait = effective - now - rule.burstToleranceNanos();
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(tat, effective + rule.intervalNanos())) {
+                return 0;
+            }
+        }
+    }
+
+    public int size() {
+        return buckets.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        evictIdle(System.nanoTime());
+    }
+
+    private void evictIdle(long now) {
+        lastEviction = now;
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    // intervalNanos: time to earn one token; burstToleranceNanos: how far ahead a client may run (burst - 1 tokens)
+    public record Rule(String name, long intervalNanos, long burstToleranceNanos) {
+
+        public static Rule perMinute(String name, int requestsPerMinute, int burst) {
+            long interval = TimeUnit.MINUTES.toNanos(1) / Math.max(requestsPerMinute, 1);
+            return new Rule(name, interval, interval * Math.max(burst - 1, 0));
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.ceylonhomes.backend.security;
+
+import com.ceylonhomes.backend.entity.RevokedToken;
+import com.ceylonhomes.backend.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Keeps access-token revocations in memory so JwtAuthenticationFilter can authorize without the database.
+// Single tokens are tracked by jti in a Bloom filter (cheap "definitely not revoked" answer) backed by an
+// exact set; "log out everywhere" and deactivation store a per-user cutoff instead. Revocations are also
+// written to revoked_tokens and re-read every few seconds, so they reach every instance quickly.
+@Slf4j
+@Service
+public class TokenRevocationService {
+
+    private static final int BLOOM_BITS = 1 << 20;
+    private static final int BLOOM_HASHES = 5;
+
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final long accessTokenTtlMillis;
+
+    // jti -> epoch millis after which the revoked token would have expired anyway
+    private final ConcurrentHashMap<String, Long> revokedJtis = new ConcurrentHashMap<>();
+    // userId -> tokens issued before this epoch millis are revoked
+    private final ConcurrentHashMap<Long, Long> userCutoffs = new ConcurrentHashMap<>();
+    private final AtomicReference<BloomFilter> bloom = new AtomicReference<>(new BloomFilter());
+
+    public TokenRevocationService(RevokedTokenRepository revokedTokenRepository, JwtTokenProvider jwtTokenProvider) {
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.accessTokenTtlMillis = jwtTokenProvider.getExpirationMillis();
+    }
+
+    public boolean isRevoked(String jti, Long userId, long issuedAtMillis) {
+        if (userId != null) {
+            Long cutoff = userCutoffs.get(userId);
+            if (cutoff != null && issuedAtMillis < cutoff) {
+                return true;
+            }
+        }
+        return jti != null && bloom.get().mightContain(jti) && revokedJtis.containsKey(jti);
+    }
+
+    public boolean isRevoked(AccessToken token) {
+        return isRevoked(token.id(), token.userId(), token.issuedAtMillis());
+    }
+
+    public int getRevokedTokenCount() {
+        return revokedJtis.size();
+    }
+
+    public int getUserCutoffCount() {
+        return userCutoffs.size();
+    }
+
+    @Transactional
+    public void revokeToken(String jti, long expiresAtMillis) {
+        if (jti == null || expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        rememberJti(jti, expiresAtMillis);
+
+        RevokedToken row = new RevokedToken();
+        row.setJti(jti);
+        row.setExpiresAt(toLocalDateTime(expiresAtMillis));
+        revokedTokenRepository.save(row);
+    }
+
+    // Revokes every access token issued to the user up to now (JWT iat has second precision,
+    // so the cutoff is rounded up to the next whole second)
+    @Transactional
+    public void revokeAllForUser(Long userId) {
+        long cutoff = (System.currentTimeMillis() / 1000 + 1) * 1000;
+        rememberCutoff(userId, cutoff);
+
+        RevokedToken row = new RevokedToken();
+        row.setUserId(userId);
+        row.setCutoffMillis(cutoff);
+        row.setExpiresAt(toLocalDateTime(cutoff + accessTokenTtlMillis));
+        revokedTokenRepository.save(row);
+    }
+
+    // Pick up revocations made by other instances
+    @Scheduled(fixedDelayString = "${jwt.revocation-sync-ms:5000}")
+    public void syncFromDatabase() {
+        try {
+            for (RevokedToken row : revokedTokenRepository.findByExpiresAtAfter(LocalDateTime.now())) {
+                if (row.getJti() != null) {
+                    rememberJti(row.getJti(), toEpochMillis(row.getExpiresAt()));
+                } else if (row.getUserId() != null && row.getCutoffMillis() != null) {
+                    rememberCutoff(row.getUserId(), row.getCutoffMillis());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Could not sync token revocations: {}", e.getMessage());
+        }
+    }
+
+    // Drop entries whose tokens have expired and rebuild the Bloom filter without them
+    @Scheduled(fixedDelayString = "${jwt.revocation-cleanup-ms:300000}")
+    @Transactional
+    public void cleanup() {
+        long now = System.currentTimeMillis();
+        revokedJtis.values().removeIf(expiresAt -> expiresAt <= now);
+        userCutoffs.values().removeIf(cutoff -> cutoff + accessTokenTtlMillis <= now);
+
+        BloomFilter rebuilt = new BloomFilter();
+        revokedJtis.keySet().forEach(rebuilt::add);
+        bloom.set(rebuilt);
+        // Second pass catches jtis revoked while the first pass was running
+        revokedJtis.keySet().forEach(rebuilt::add);
+
+        revokedTokenRepository.deleteExpired(LocalDateTime.now());
+    }
+
+    private void rememberJti(String jti, long expiresAtMillis) {
+        // Exact set first: a reader that sees the jti in the Bloom filter must also find it here
+        revokedJtis.put(jti, expiresAtMillis);
+        bloom.get().add(jti);
+    }
+
+    private void rememberCutoff(Long userId, long cutoffMillis) {
+        userCutoffs.merge(userId, cutoffMillis, Math::max);
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    // Fixed-size, thread-safe Bloom filter over jti strings (128 KB, ~1% false positives at 100k entries)
+    private static final class BloomFilter {
+
+        private final AtomicLongArray words = new AtomicLongArray(BLOOM_BITS / 64);
+
+        void add(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (h1 + i * h2) & (BLOOM_BITS - 1);
+                long mask = 1L << (bit & 63);
+                int index = bit >>> 6;
+                long word;
+                do {
+                    word = words.get(index);
+                    if ((word & mask) != 0) {
+                        break;
+                    }
+                } while (!words.compareAndSet(index, word, word | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long hash = hash64(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                int bit = (h1 + i * h2) & (BLOOM_BITS - 1);
+                if ((words.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // 64-bit FNV-1a
+        private static long hash64(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                hash ^= value.charAt(i);
+                hash *= 0x100000001b3L;
+            }
+            return hash;
+        }
+    }
+}
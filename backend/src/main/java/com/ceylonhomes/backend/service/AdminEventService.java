@@ -0,0 +1,184 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.AdminEventDTO;
+import com.ceylonhomes.backend.dto.AdminStatsDTO;
+import com.ceylonhomes.backend.dto.ListingCardDTO;
+import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.security.AccessToken;
+import com.ceylonhomes.backend.security.TokenRevocationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Moderation queue push for admins (GET /api/admin/events). Listing changes are pushed once they
+// commit, with the admin table row and the change to the stats counts, so an open admin screen
+// stays current without polling /api/admin/listings or /api/admin/stats. Nothing is read while no
+// admin is connected to this instance.
+@Slf4j
+@Service
+public class AdminEventService {
+
+    private final ListingRepository listingRepository;
+    private final TokenRevocationService tokenRevocationService;
+    private final SseEmitterRegistry streams;
+
+    // Changes already pushed by this instance, keyed by "listingId:status", so the sync below does
+    // not push them twice. Value is when it was pushed.
+    private final ConcurrentHashMap<String, Long> pushedChanges = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    @Value("${app.admin-events.sync-overlap-seconds:30}")
+    private int syncOverlapSeconds;
+
+    public AdminEventService(
+            ListingRepository listingRepository,
+            TokenRevocationService tokenRevocationService,
+            @Value("${app.admin-events.stream-timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.admin-events.max-streams-per-user:5}") int maxStreamsPerUser,
+            @Value("${app.admin-events.send-threads:1}") int sendThreads,
+            @Value("${app.admin-events.send-queue-capacity:1000}") int sendQueueCapacity) {
+        this.listingRepository = listingRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.streams = new SseEmitterRegistry("admin", timeoutMs, maxStreamsPerUser, sendThreads, sendQueueCapacity);
+    }
+
+    // Registered before the counts are read, so a change committed in between is at worst counted twice
+    // until the next "stats" event, never missed. The counts run in the repository's own transaction,
+    // so with open-in-view off no connection is kept for the stream's lifetime.
+    public SseEmitter openStream(User admin, AccessToken token) {
+        SseEmitter emitter = streams.register(admin.getId(), token);
+        streams.send(admin.getId(), "stats", currentStats());
+        return emitter;
+    }
+
+    public int getConnectionCount() {
+        return streams.getConnectionCount();
+    }
+
+    public int getSendQueueSize() {
+        return streams.getSendQueueSize();
+    }
+
+    // Re-read the row from the primary once the change has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (!streams.hasConnections()) {
+            return;
+        }
+        ListingCardDTO listing = event.status() == null ? null
+                : listingRepository.findCardsByIds(List.of(event.listingId())).stream().findFirst().orElse(null);
+        pushedChanges.put(event.listingId() + ":" + event.status(), System.currentTimeMillis());
+        streams.sendToAll(eventName(event.previousStatus(), event.status()), new AdminEventDTO(
+                event.listingId(), event.previousStatus(), event.status(), listing,
+                statsDelta(event.previousStatus(), event.status())));
+    }
+
+    // Changes committed on other instances reach admins connected here through this poll. The window
+    // overlaps the previous one to cover slow commits; pushedChanges drops what was already sent. The
+    // previous status is unknown here, so a fresh "stats" event follows instead of deltas.
+    @Scheduled(fixedDelayString = "${app.admin-events.sync-ms:5000}")
+    @Transactional
+    public void pushFromOtherInstances() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            if (streams.hasConnections()) {
+                boolean changed = false;
+                for (ListingCardDTO listing : listingRepository.findCardsUpdatedSince(
+                        lastSync.minusSeconds(syncOverlapSeconds))) {
+                    if (pushedChanges.putIfAbsent(listing.getId() + ":" + listing.getStatus(),
+                            System.currentTimeMillis()) == null) {
+                        streams.sendToAll("listing-updated",
+                                new AdminEventDTO(listing.getId(), null, listing.getStatus(), listing, null));
+                        changed = true;
+                    }
+                }
+                if (changed) {
+                    streams.sendToAll("stats", currentStats());
+                }
+            }
+            lastSync = startedAt;
+
+            long cutoff = System.currentTimeMillis() - 2000L * syncOverlapSeconds;
+            pushedChanges.values().removeIf(pushedAt -> pushedAt < cutoff);
+        } catch (Exception e) {
+            log.warn("Could not sync admin events: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.admin-events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.heartbeat();
+    }
+
+    // Same as InboxStreamRegistry.closeRevokedStreams, for admins who log out or are deactivated
+    @Scheduled(fixedDelayString = "${app.admin-events.revocation-check-ms:5000}")
+    public void closeRevokedStreams() {
+        int closed = streams.closeRevoked(tokenRevocationService::isRevoked);
+        if (closed > 0) {
+            log.info("Closed {} admin event streams opened with revoked access tokens", closed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.shutdown();
+    }
+
+    // One GROUP BY instead of a COUNT per status
+    private AdminStatsDTO currentStats() {
+        AdminStatsDTO stats = new AdminStatsDTO();
+        for (Object[] row : listingRepository.countGroupedByStatus()) {
+            add(stats, (ListingStatus) row[0], (Long) row[1]);
+        }
+        return stats;
+    }
+
+    // A new listing enters the queue as PENDING; admins only ever move a listing to APPROVED, REJECTED or
+    // SUSPENDED; everything else (seller edits, sold/rented/archived, deletes) is an update
+    private static String eventName(ListingStatus previousStatus, ListingStatus status) {
+        if (previousStatus == null && status == ListingStatus.PENDING) {
+            return "listing-submitted";
+        }
+        if (status != previousStatus && (status == ListingStatus.APPROVED
+                || status == ListingStatus.REJECTED || status == ListingStatus.SUSPENDED)) {
+            return "listing-moderated";
+        }
+        return "listing-updated";
+    }
+
+    private static AdminStatsDTO statsDelta(ListingStatus previousStatus, ListingStatus status) {
+        AdminStatsDTO delta = new AdminStatsDTO();
+        if (previousStatus != status) {
+            add(delta, previousStatus, -1);
+            add(delta, status, 1);
+        }
+        return delta;
+    }
+
+    private static void add(AdminStatsDTO stats, ListingStatus status, long count) {
+        if (status == null) {
+            return;
+        }
+        switch (status) {
+            case PENDING -> stats.setPendingCount(stats.getPendingCount() + count);
+            case APPROVED -> stats.setApprovedCount(stats.getApprovedCount() + count);
+            case REJECTED -> stats.setRejectedCount(stats.getRejectedCount() + count);
+            case SUSPENDED -> stats.setSuspendedCount(stats.getSuspendedCount() + count);
+            default -> { }
+        }
+    }
+}
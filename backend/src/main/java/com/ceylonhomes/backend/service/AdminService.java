@@ -1,20 +1,32 @@
 package com.ceylonhomes.backend.service;
 
 import com.ceylonhomes.backend.dto.ApprovalActionDTO;
+import com.ceylonhomes.backend.dto.AuditLogPageDTO;
 import com.ceylonhomes.backend.dto.ListingDTO;
 import com.ceylonhomes.backend.entity.ApprovalAction;
 import com.ceylonhomes.backend.entity.Listing;
 import com.ceylonhomes.backend.entity.User;
 import com.ceylonhomes.backend.enums.ApprovalActionType;
 import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ApprovalActionArchiveRepository;
 import com.ceylonhomes.backend.repository.ApprovalActionRepository;
 import com.ceylonhomes.backend.repository.ListingRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -24,21 +36,75 @@ public class AdminService {
 
     private final ListingRepository listingRepository;
     private final ApprovalActionRepository approvalActionRepository;
+    private final ApprovalActionArchiveRepository approvalActionArchiveRepository;
     private final ListingService listingService;
+    private final ApplicationEventPublisher eventPublisher;
 
+    private static final int MAX_CLAIM_BATCH = 50;
+    private static final int MAX_AUDIT_PAGE = 100;
+    private static final int MAX_HISTORY_OFFSET = 10_000;
+
+    // Order of every approval history view, live and archived rows alike
+    private static final Comparator<ApprovalActionDTO> NEWEST_FIRST = Comparator
+            .comparing(ApprovalActionDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ApprovalActionDTO::getId, Comparator.reverseOrder());
+
+    @Value("${app.moderation.lease-minutes:15}")
+    private long leaseMinutes;
+
+    @Transactional(readOnly = true)
     public Page<ListingDTO> getPendingListings(Pageable pageable) {
-        Page<Listing> listings = listingRepository.findByStatusOrderByCreatedAtDesc(ListingStatus.PENDING, pageable);
-        return listings.map(listing -> listingService.getListingById(listing.getId()));
+        // Owners come with the page (entity graph), photos in one query for the whole page
+        return listingService.convertToDTOs(
+                listingRepository.findByStatusOrderByCreatedAtDesc(ListingStatus.PENDING, pageable));
+    }
+
+    // Claim a batch of pending listings under a time-limited lease. Rows locked by a concurrent
+    // claim are skipped, so parallel admins never receive the same listing.
+    @Transactional
+    public List<ListingDTO> claimPendingListings(User admin, int batchSize) {
+        int limit = Math.min(Math.max(batchSize, 1), MAX_CLAIM_BATCH);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime leaseUntil = now.plusMinutes(leaseMinutes);
+
+        List<Listing> claimable = listingRepository.findClaimableForUpdate(
+                ListingStatus.PENDING, now, PageRequest.of(0, limit));
+        for (Listing listing : claimable) {
+            listing.setClaimedBy(admin);
+            listing.setClaimExpiresAt(leaseUntil);
+        }
+        listingRepository.saveAll(claimable);
+
+        return getClaimedListings(admin);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ListingDTO> getClaimedListings(User admin) {
+        return listingRepository.findClaimedBy(ListingStatus.PENDING, admin.getId(), LocalDateTime.now())
+                .stream()
+                .map(listingService::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void releaseClaim(Long listingId, User admin) {
+        if (listingRepository.releaseClaim(listingId, admin.getId()) == 0) {
+            throw new RuntimeException("Listing is not claimed by you");
+        }
     }
 
     @Transactional
     public void approveListing(Long listingId, User admin, String note) {
         Listing listing = listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found"));
+        checkNotClaimedByAnother(listing, admin);
 
+        ListingStatus previousStatus = listing.getStatus();
         listing.setStatus(ListingStatus.APPROVED);
         listing.setRejectionReason(null);
+        clearClaim(listing);
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, ListingStatus.APPROVED));
 
         // Record approval action
         ApprovalAction action = new ApprovalAction();
@@ -57,10 +123,14 @@ public class AdminService {
 
         Listing listing = listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found"));
+        checkNotClaimedByAnother(listing, admin);
 
+        ListingStatus previousStatus = listing.getStatus();
         listing.setStatus(ListingStatus.REJECTED);
         listing.setRejectionReason(reason);
+        clearClaim(listing);
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, ListingStatus.REJECTED));
 
         // Record rejection action
         ApprovalAction action = new ApprovalAction();
@@ -76,9 +146,11 @@ public class AdminService {
         Listing listing = listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found"));
 
+        ListingStatus previousStatus = listing.getStatus();
         listing.setStatus(ListingStatus.SUSPENDED);
         listing.setRejectionReason(reason);
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, ListingStatus.SUSPENDED));
 
         // Record suspension action
         ApprovalAction action = new ApprovalAction();
@@ -94,9 +166,11 @@ public class AdminService {
         Listing listing = listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found"));
 
+        ListingStatus previousStatus = listing.getStatus();
         listing.setStatus(ListingStatus.APPROVED);
         listing.setRejectionReason(null);
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, ListingStatus.APPROVED));
 
         // Record unsuspension action
         ApprovalAction action = new ApprovalAction();
@@ -107,29 +181,89 @@ public class AdminService {
         approvalActionRepository.save(action);
     }
 
+    // Live and archived history merged newest first. Both sides are read up to the end of the
+    // requested page, so offsets are capped; the keyset audit log goes deeper.
     public Page<ApprovalActionDTO> getApprovalHistory(Pageable pageable) {
-        return approvalActionRepository
-                .findAllByOrderByCreatedAtDesc(pageable)
-                .map(this::convertToDTO);
+        if (pageable.getOffset() >= MAX_HISTORY_OFFSET) {
+            throw new RuntimeException("Page too deep, use /api/admin/audit-log to go further back");
+        }
+        int end = (int) pageable.getOffset() + pageable.getPageSize();
+        PageRequest head = PageRequest.of(0, end, Sort.by(Sort.Direction.DESC, "createdAt", "id"));
+        Page<ApprovalActionDTO> live = approvalActionRepository.findHistory(head);
+        Page<ApprovalActionDTO> archived = approvalActionArchiveRepository.findHistory(head);
+
+        List<ApprovalActionDTO> merged = newestFirst(live.getContent(), archived.getContent(), end);
+        List<ApprovalActionDTO> content = pageable.getOffset() >= merged.size() ? List.of()
+                : merged.subList((int) pageable.getOffset(), merged.size());
+        return new PageImpl<>(content, pageable, live.getTotalElements() + archived.getTotalElements());
     }
 
     public List<ApprovalActionDTO> getListingApprovalHistory(Long listingId) {
-        List<ApprovalAction> actions = approvalActionRepository.findByListingIdOrderByCreatedAtDesc(listingId);
-        return actions.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return newestFirst(approvalActionRepository.findHistoryByListingId(listingId),
+                approvalActionArchiveRepository.findHistoryByListingId(listingId), Integer.MAX_VALUE);
+    }
+
+    public AuditLogPageDTO getAuditLog(Long adminId, ApprovalActionType action,
+                                       LocalDateTime from, LocalDateTime to,
+                                       LocalDateTime beforeCreatedAt, Long beforeId, int size) {
+        if ((beforeCreatedAt == null) != (beforeId == null)) {
+            throw new RuntimeException("beforeCreatedAt and beforeId must be provided together");
+        }
+        int limit = Math.min(Math.max(size, 1), MAX_AUDIT_PAGE);
+
+        // Fetch one extra row to know whether another page exists. Both tables take the same cursor,
+        // so the merged page continues exactly where the previous one stopped.
+        List<ApprovalActionDTO> rows = newestFirst(
+                approvalActionRepository.findAuditLog(
+                        adminId, action, from, to, beforeCreatedAt, beforeId, PageRequest.of(0, limit + 1)),
+                approvalActionArchiveRepository.findAuditLog(
+                        adminId, action, from, to, beforeCreatedAt, beforeId, PageRequest.of(0, limit + 1)),
+                limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<ApprovalActionDTO> items = hasMore ? rows.subList(0, limit) : rows;
+
+        ApprovalActionDTO last = items.isEmpty() ? null : items.get(items.size() - 1);
+        return new AuditLogPageDTO(
+                items,
+                hasMore,
+                hasMore ? last.getCreatedAt() : null,
+                hasMore ? last.getId() : null
+        );
+    }
+
+    // Move one whole month of approval history into approval_actions_archive
+    @Transactional
+    public int archiveApprovalHistory(YearMonth month) {
+        if (!month.isBefore(YearMonth.now())) {
+            throw new RuntimeException("Only past months can be archived");
+        }
+        LocalDateTime from = month.atDay(1).atStartOfDay();
+        LocalDateTime to = month.plusMonths(1).atDay(1).atStartOfDay();
+
+        approvalActionRepository.copyRangeToArchive(from, to);
+        return approvalActionRepository.deleteRange(from, to);
+    }
+
+    private static List<ApprovalActionDTO> newestFirst(List<ApprovalActionDTO> live,
+                                                       List<ApprovalActionDTO> archived, int limit) {
+        List<ApprovalActionDTO> merged = new ArrayList<>(live.size() + archived.size());
+        merged.addAll(live);
+        merged.addAll(archived);
+        merged.sort(NEWEST_FIRST);
+        return merged.size() > limit ? merged.subList(0, limit) : merged;
+    }
+
+    private void checkNotClaimedByAnother(Listing listing, User admin) {
+        if (listing.getClaimedBy() != null
+                && listing.getClaimExpiresAt() != null
+                && listing.getClaimExpiresAt().isAfter(LocalDateTime.now())
+                && !listing.getClaimedBy().getId().equals(admin.getId())) {
+            throw new RuntimeException("Listing is being reviewed by another admin");
+        }
     }
 
-    private ApprovalActionDTO convertToDTO(ApprovalAction action) {
-        ApprovalActionDTO dto = new ApprovalActionDTO();
-        dto.setId(action.getId());
-        dto.setListingId(action.getListing().getId());
-        dto.setListingTitle(action.getListing().getTitle());
-        dto.setAdminId(action.getAdmin().getId());
-        dto.setAdminName(action.getAdmin().getName());
-        dto.setAction(action.getAction());
-        dto.setNote(action.getNote());
-        dto.setCreatedAt(action.getCreatedAt());
-        return dto;
+    private void clearClaim(Listing listing) {
+        listing.setClaimedBy(null);
+        listing.setClaimExpiresAt(null);
     }
 }
@@ -9,15 +9,37 @@ import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
 import com.ceylonhomes.backend.entity.Listing;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class EmailService {
 
     private final JavaMailSender mailSender;
+    private final MeterRegistry meterRegistry;
+
+    // SMTP sends run here instead of on the request thread: they are slow, and Jakarta Mail's
+    // synchronized transport code would pin the carrier thread when requests run on virtual threads.
+    // Message content is built by the caller, inside its transaction, before it is handed over.
+    private final ThreadPoolExecutor mailExecutor = new ThreadPoolExecutor(
+        2, 2, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(500),
+        runnable -> {
+            Thread thread = new Thread(runnable, "mail-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
 
     @Value("${spring.mail.username}")
     private String fromEmail;
@@ -41,29 +63,42 @@ public class EmailService {
                 "CeylonHomes Team"
             );
             
-            mailSender.send(message);
-            log.info("✅ Verification email sent successfully to: {}", toEmail);
+            boolean queued = submit("verification", () -> {
+                try {
+                    timedSend("verification", () -> mailSender.send(message));
+                    log.info("✅ Verification email sent successfully to: {}", toEmail);
+                } catch (Exception e) {
+                    logVerificationCodeFallback(toEmail, code, userName, e.getMessage());
+                }
+            });
+            if (!queued) {
+                logVerificationCodeFallback(toEmail, code, userName, "mail queue is full");
+            }
         } catch (Exception e) {
-            // In development mode, log the code to console if email fails
-            log.error("❌ Failed to send email to: {}. Error: {}", toEmail, e.getMessage());
-            log.warn("🔐 DEVELOPMENT MODE - Verification Code for {}: {}", toEmail, code);
-            log.warn("⚠️ Please configure email settings in application.yml for production use");
-            
-            // Print to console for easy visibility
-            System.out.println("\n" + "=".repeat(60));
-            System.out.println("📧 EMAIL SENDING FAILED - DEVELOPMENT MODE");
-            System.out.println("=".repeat(60));
-            System.out.println("To: " + toEmail);
-            System.out.println("User: " + userName);
-            System.out.println("🔐 Verification Code: " + code);
-            System.out.println("⏰ Valid for: 10 minutes");
-            System.out.println("=".repeat(60) + "\n");
-            
-            // Don't throw exception in development mode - allow the flow to continue
-            // throw new RuntimeException("Failed to send email", e);
+            logVerificationCodeFallback(toEmail, code, userName, e.getMessage());
         }
     }
 
+    private void logVerificationCodeFallback(String toEmail, String code, String userName, String error) {
+        // In development mode, log the code to console if email fails
+        log.error("❌ Failed to send email to: {}. Error: {}", toEmail, error);
+        log.warn("🔐 DEVELOPMENT MODE - Verification Code for {}: {}", toEmail, code);
+        log.warn("⚠️ Please configure email settings in application.yml for production use");
+        
+        // Print to console for easy visibility
+        System.out.println("\n" + "=".repeat(60));
+        System.out.println("📧 EMAIL SENDING FAILED - DEVELOPMENT MODE");
+        System.out.println("=".repeat(60));
+        System.out.println("To: " + toEmail);
+        System.out.println("User: " + userName);
+        System.out.println("🔐 Verification Code: " + code);
+        System.out.println("⏰ Valid for: 10 minutes");
+        System.out.println("=".repeat(60) + "\n");
+        
+        // Don't throw exception in development mode - allow the flow to continue
+        // throw new RuntimeException("Failed to send email", e);
+    }
+
     public void sendNewListingNotification(Listing listing) {
         if (adminEmail == null || adminEmail.isBlank()) {
             log.warn("Admin email not configured; skipping new listing notification.");
@@ -97,8 +132,15 @@ public class EmailService {
                 listing
             );
 
-            sendHtmlEmail(adminEmail, subject, textBody, htmlBody);
-            log.info("New listing notification sent to admin: {}", adminEmail);
+            MimeMessage mimeMessage = buildHtmlEmail(adminEmail, subject, textBody, htmlBody);
+            submit("new-listing", () -> {
+                try {
+                    timedSend("new-listing", () -> mailSender.send(mimeMessage));
+                    log.info("New listing notification sent to admin: {}", adminEmail);
+                } catch (Exception e) {
+                    log.error("Failed to send admin listing notification to: {}. Error: {}", adminEmail, e.getMessage());
+                }
+            });
         } catch (Exception e) {
             log.error("Failed to send admin listing notification to: {}. Error: {}", adminEmail, e.getMessage());
             // Don't fail the listing creation if email fails
@@ -143,15 +185,53 @@ public class EmailService {
                 listing
             );
 
-            sendHtmlEmail(adminEmail, subject, textBody, htmlBody);
-            log.info("Listing update notification sent to admin: {}", adminEmail);
+            MimeMessage mimeMessage = buildHtmlEmail(adminEmail, subject, textBody, htmlBody);
+            submit("listing-updated", () -> {
+                try {
+                    timedSend("listing-updated", () -> mailSender.send(mimeMessage));
+                    log.info("Listing update notification sent to admin: {}", adminEmail);
+                } catch (Exception e) {
+                    log.error("Failed to send listing update notification to: {}. Error: {}", adminEmail, e.getMessage());
+                }
+            });
         } catch (Exception e) {
             log.error("Failed to send listing update notification to: {}. Error: {}", adminEmail, e.getMessage());
             // Don't fail the listing update if email fails
         }
     }
 
-    private void sendHtmlEmail(String toEmail, String subject, String textBody, String htmlBody)
+    // One mail per user per digest run, however many saved searches matched
+    public void sendSavedSearchDigest(String toEmail, String userName, List<String> listingLines) {
+        try {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom(fromEmail);
+            message.setTo(toEmail);
+            message.setSubject(listingLines.size() == 1
+                ? "CeylonHomes - A new listing matches your saved search"
+                : "CeylonHomes - " + listingLines.size() + " new listings match your saved searches");
+            message.setText(
+                "Hello " + userName + ",\n\n" +
+                "These listings were just approved and match your saved searches:\n\n" +
+                String.join("\n", listingLines) + "\n\n" +
+                "Sign in to CeylonHomes to see the details and contact the sellers.\n" +
+                "You can delete a saved search at any time to stop these alerts.\n\n" +
+                "Best regards,\n" +
+                "CeylonHomes Team"
+            );
+
+            submit("saved-search-digest", () -> {
+                try {
+                    timedSend("saved-search-digest", () -> mailSender.send(message));
+                } catch (Exception e) {
+                    log.error("Failed to send saved search digest to: {}. Error: {}", toEmail, e.getMessage());
+                }
+            });
+        } catch (Exception e) {
+            log.error("Failed to send saved search digest to: {}. Error: {}", toEmail, e.getMessage());
+        }
+    }
+
+    private MimeMessage buildHtmlEmail(String toEmail, String subject, String textBody, String htmlBody)
             throws MessagingException {
         MimeMessage mimeMessage = mailSender.createMimeMessage();
         MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, true, "UTF-8");
@@ -159,7 +239,49 @@ public class EmailService {
         helper.setTo(toEmail);
         helper.setSubject(subject);
         helper.setText(textBody, htmlBody);
-        mailSender.send(mimeMessage);
+        return mimeMessage;
+    }
+
+    // Times the SMTP call itself (not the time spent queued), tagged by mail type and outcome
+    private void timedSend(String type, Runnable send) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            send.run();
+            outcome = "success";
+        } finally {
+            sample.stop(meterRegistry.timer("ceylonhomes.email.send", "type", type, "outcome", outcome));
+        }
+    }
+
+    public int getQueueSize() {
+        return mailExecutor.getQueue().size();
+    }
+
+    // Never sends on the calling thread: with the SMTP server stalled that would hold a request
+    // thread (and pin its carrier) for the whole SMTP timeout. A full queue drops the mail instead.
+    private boolean submit(String type, Runnable send) {
+        try {
+            mailExecutor.execute(send);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.warn("Mail queue is full; dropping a {} mail", type);
+            meterRegistry.counter("ceylonhomes.email.dropped", "type", type).increment();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        mailExecutor.shutdown();
+        try {
+            if (!mailExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                mailExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            mailExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 
     private String buildListingEmailHtml(String title, String sellerName, String sellerEmail, Listing listing) {
@@ -1,5 +1,7 @@
 package com.ceylonhomes.backend.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -18,6 +20,19 @@ public class FileStorageService {
     @Value("${upload.dir:uploads}")
     private String uploadDir;
 
+    private final Counter bytesWritten;
+    private final Counter filesWritten;
+
+    public FileStorageService(MeterRegistry meterRegistry) {
+        this.bytesWritten = Counter.builder("ceylonhomes.uploads.bytes")
+                .description("Bytes of uploaded photos written to disk")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.filesWritten = Counter.builder("ceylonhomes.uploads.files")
+                .description("Uploaded photos written to disk")
+                .register(meterRegistry);
+    }
+
     public String storeFile(MultipartFile file) {
         try {
             // Create upload directory if it doesn't exist
@@ -33,7 +48,9 @@ public class FileStorageService {
 
             // Copy file to upload directory
             Path targetLocation = uploadPath.resolve(filename);
-            Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            long bytes = Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+            bytesWritten.increment(bytes);
+            filesWritten.increment();
 
             return "/uploads/listings/" + filename;
         } catch (IOException ex) {
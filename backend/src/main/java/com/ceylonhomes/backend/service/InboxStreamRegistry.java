@@ -0,0 +1,73 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.security.AccessToken;
+import com.ceylonhomes.backend.security.TokenRevocationService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+// Open inbox streams (GET /api/inquiries/stream) per user on this instance
+@Slf4j
+@Service
+public class InboxStreamRegistry {
+
+    private final SseEmitterRegistry streams;
+    private final TokenRevocationService tokenRevocationService;
+
+    public InboxStreamRegistry(
+            TokenRevocationService tokenRevocationService,
+            @Value("${app.inbox.stream-timeout-ms:1800000}") long timeoutMs,
+            @Value("${app.inbox.max-streams-per-user:5}") int maxStreamsPerUser,
+            @Value("${app.inbox.send-threads:4}") int sendThreads,
+            @Value("${app.inbox.send-queue-capacity:50000}") int sendQueueCapacity) {
+        this.tokenRevocationService = tokenRevocationService;
+        this.streams = new SseEmitterRegistry("inbox", timeoutMs, maxStreamsPerUser, sendThreads, sendQueueCapacity);
+    }
+
+    public SseEmitter register(Long userId, AccessToken token) {
+        return streams.register(userId, token);
+    }
+
+    public boolean isConnected(Long userId) {
+        return streams.isConnected(userId);
+    }
+
+    public boolean hasConnections() {
+        return streams.hasConnections();
+    }
+
+    public int getConnectionCount() {
+        return streams.getConnectionCount();
+    }
+
+    public int getSendQueueSize() {
+        return streams.getSendQueueSize();
+    }
+
+    public void send(Long userId, String eventName, Object data) {
+        streams.send(userId, eventName, data);
+    }
+
+    @Scheduled(fixedDelayString = "${app.inbox.heartbeat-ms:25000}")
+    public void heartbeat() {
+        streams.heartbeat();
+    }
+
+    // Revocations made on other instances arrive with TokenRevocationService's sync, so a logged-out
+    // or deactivated user's streams close everywhere within a few seconds
+    @Scheduled(fixedDelayString = "${app.inbox.revocation-check-ms:5000}")
+    public void closeRevokedStreams() {
+        int closed = streams.closeRevoked(tokenRevocationService::isRevoked);
+        if (closed > 0) {
+            log.info("Closed {} inbox streams opened with revoked access tokens", closed);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        streams.shutdown();
+    }
+}
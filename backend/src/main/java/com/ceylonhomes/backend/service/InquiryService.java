@@ -1,24 +1,58 @@
 package com.ceylonhomes.backend.service;
 
+import com.ceylonhomes.backend.dto.ConversationDTO;
+import com.ceylonhomes.backend.dto.InboxEventDTO;
 import com.ceylonhomes.backend.dto.InquiryDTO;
+import com.ceylonhomes.backend.dto.InquiryMessageDTO;
 import com.ceylonhomes.backend.entity.Inquiry;
+import com.ceylonhomes.backend.entity.InquiryMessage;
 import com.ceylonhomes.backend.entity.Listing;
 import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.repository.InquiryMessageRepository;
 import com.ceylonhomes.backend.repository.InquiryRepository;
 import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.security.AccessToken;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class InquiryService {
 
+    private static final int MAX_THREAD_PAGE = 200;
+
     private final InquiryRepository inquiryRepository;
+    private final InquiryMessageRepository inquiryMessageRepository;
     private final ListingRepository listingRepository;
+    private final InboxStreamRegistry inboxStreamRegistry;
+    private final ListingAnalyticsService listingAnalyticsService;
+
+    // Messages already pushed by this instance, keyed by message id (an opening message by minus its
+    // inquiry id), so the sync below does not push them twice. Value is when it was pushed.
+    private final ConcurrentHashMap<Long, Long> pushedMessages = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastPushSync = LocalDateTime.now();
+
+    @Value("${app.inbox.sync-overlap-seconds:30}")
+    private int syncOverlapSeconds;
 
     @Transactional
     public InquiryDTO createInquiry(Long listingId, String message, User buyer) {
@@ -29,11 +63,19 @@ public class InquiryService {
         inquiry.setListing(listing);
         inquiry.setBuyer(buyer);
         inquiry.setMessage(message);
+        inquiry.setLastMessageAt(LocalDateTime.now());
+        inquiry.setSellerUnread(1);
 
         Inquiry savedInquiry = inquiryRepository.save(inquiry);
+        listingAnalyticsService.recordInquiry(listing.getId());
+        InquiryMessageDTO opening = new InquiryMessageDTO(null, savedInquiry.getId(), buyer.getId(), buyer.getName(),
+                message, savedInquiry.getCreatedAt());
+        pushToParticipants(-savedInquiry.getId(), buyer.getId(), listing.getOwner().getId(),
+                new InboxEventDTO(savedInquiry.getId(), listing.getId(), listing.getTitle(), opening, 0));
         return convertToDTO(savedInquiry);
     }
 
+    @Transactional(readOnly = true)
     public List<InquiryDTO> getSellerInquiries(Long sellerId) {
         List<Inquiry> inquiries = inquiryRepository.findByListingOwnerIdOrderByCreatedAtDesc(sellerId);
         return inquiries.stream()
@@ -41,6 +83,7 @@ public class InquiryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public List<InquiryDTO> getListingInquiries(Long listingId, User owner) {
         Listing listing = listingRepository.findById(listingId)
                 .orElseThrow(() -> new RuntimeException("Listing not found"));
@@ -55,6 +98,177 @@ public class InquiryService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
+    public Page<ConversationDTO> getConversations(User user, Pageable pageable) {
+        return inquiryRepository.findConversations(user.getId(), pageable)
+                .map(inquiry -> convertToConversationDTO(inquiry, user.getId()));
+    }
+
+    // The buyer's opening message comes first (only when afterId is not given), then the replies
+    @Transactional(readOnly = true)
+    public List<InquiryMessageDTO> getMessages(Long inquiryId, User user, Long afterId) {
+        Inquiry inquiry = findParticipatingInquiry(inquiryId, user);
+
+        List<InquiryMessageDTO> messages = new ArrayList<>();
+        if (afterId == null) {
+            messages.add(new InquiryMessageDTO(null, inquiry.getId(), inquiry.getBuyer().getId(),
+                    inquiry.getBuyer().getName(), inquiry.getMessage(), inquiry.getCreatedAt()));
+        }
+        inquiryMessageRepository.findThread(inquiryId, afterId != null ? afterId : 0L, PageRequest.of(0, MAX_THREAD_PAGE))
+                .forEach(message -> messages.add(convertToMessageDTO(message)));
+        return messages;
+    }
+
+    @Transactional
+    public InquiryMessageDTO reply(Long inquiryId, String text, User sender) {
+        Inquiry inquiry = findParticipatingInquiry(inquiryId, sender);
+        Long buyerId = inquiry.getBuyer().getId();
+        Long sellerId = inquiry.getListing().getOwner().getId();
+
+        InquiryMessage message = new InquiryMessage();
+        message.setInquiry(inquiry);
+        message.setSender(sender);
+        message.setMessage(text);
+        InquiryMessage saved = inquiryMessageRepository.save(message);
+
+        if (sender.getId().equals(buyerId)) {
+            inquiryRepository.recordBuyerMessage(inquiryId, saved.getCreatedAt());
+        } else {
+            inquiryRepository.recordSellerMessage(inquiryId, saved.getCreatedAt());
+        }
+
+        InquiryMessageDTO dto = convertToMessageDTO(saved);
+        pushToParticipants(saved.getId(), buyerId, sellerId,
+                new InboxEventDTO(inquiryId, inquiry.getListing().getId(), inquiry.getListing().getTitle(), dto, 0));
+        return dto;
+    }
+
+    // Returns the user's new unread total, which is also pushed to their other open streams
+    @Transactional
+    public long markRead(Long inquiryId, User user) {
+        Inquiry inquiry = findParticipatingInquiry(inquiryId, user);
+        if (user.getId().equals(inquiry.getBuyer().getId())) {
+            inquiryRepository.clearBuyerUnread(inquiryId);
+        }
+        if (user.getId().equals(inquiry.getListing().getOwner().getId())) {
+            inquiryRepository.clearSellerUnread(inquiryId);
+        }
+
+        long totalUnread = inquiryRepository.sumUnread(user.getId());
+        afterCommit(() -> inboxStreamRegistry.send(user.getId(), "unread",
+                new InboxEventDTO(inquiryId, null, null, null, totalUnread)));
+        return totalUnread;
+    }
+
+    @Transactional(readOnly = true)
+    public long getUnreadCount(User user) {
+        return inquiryRepository.sumUnread(user.getId());
+    }
+
+    // Opens the user's inbox stream and sends the current unread total as its first event. The stream
+    // is closed once the access token it was opened with is revoked. The transaction, and with
+    // open-in-view off its connection, ends when this returns, not when the stream closes.
+    @Transactional(readOnly = true)
+    public SseEmitter openStream(User user, AccessToken token) {
+        SseEmitter emitter = inboxStreamRegistry.register(user.getId(), token);
+        inboxStreamRegistry.send(user.getId(), "unread",
+                new InboxEventDTO(null, null, null, null, inquiryRepository.sumUnread(user.getId())));
+        return emitter;
+    }
+
+    // Messages written on other instances reach users connected here through this poll. The window
+    // overlaps the previous one to cover slow commits; pushedMessages drops what was already sent.
+    // Each connected user's unread total is read once per poll, after both sets of rows, so it
+    // includes every message pushed to them in this poll.
+    @Scheduled(fixedDelayString = "${app.inbox.sync-ms:2000}")
+    @Transactional
+    public void pushFromOtherInstances() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            if (inboxStreamRegistry.hasConnections()) {
+                LocalDateTime since = lastPushSync.minusSeconds(syncOverlapSeconds);
+                List<Object[]> openings = inquiryRepository.findPushRowsCreatedSince(since);
+                List<Object[]> replies = inquiryMessageRepository.findPushRowsCreatedSince(since);
+                Map<Long, Long> totals = new HashMap<>();
+                for (Object[] row : openings) {
+                    pushRow(-((Long) row[0]), row, totals);
+                }
+                for (Object[] row : replies) {
+                    pushRow((Long) row[0], row, totals);
+                }
+            }
+            lastPushSync = startedAt;
+
+            long cutoff = System.currentTimeMillis() - 2000L * syncOverlapSeconds;
+            pushedMessages.values().removeIf(pushedAt -> pushedAt < cutoff);
+        } catch (Exception e) {
+            log.warn("Could not sync inbox messages: {}", e.getMessage());
+        }
+    }
+
+    private void pushRow(Long key, Object[] row, Map<Long, Long> totals) {
+        Long buyerId = (Long) row[6];
+        Long sellerId = (Long) row[7];
+        if ((!inboxStreamRegistry.isConnected(buyerId) && !inboxStreamRegistry.isConnected(sellerId))
+                || pushedMessages.putIfAbsent(key, System.currentTimeMillis()) != null) {
+            return;
+        }
+        Long inquiryId = (Long) row[1];
+        InquiryMessageDTO message = new InquiryMessageDTO(key > 0 ? key : null, inquiryId, (Long) row[2],
+                (String) row[3], (String) row[4], (LocalDateTime) row[5]);
+        InboxEventDTO event = new InboxEventDTO(inquiryId, (Long) row[8], (String) row[9], message, 0);
+        for (Long userId : List.of(buyerId, sellerId)) {
+            if (inboxStreamRegistry.isConnected(userId)) {
+                long totalUnread = totals.computeIfAbsent(userId, inquiryRepository::sumUnread);
+                inboxStreamRegistry.send(userId, "message", withTotal(event, totalUnread));
+            }
+        }
+    }
+
+    // Both participants get the event: the recipient as a new message, the sender so their other
+    // tabs and devices stay in step. Unread totals are read here, inside the writing transaction,
+    // so they include this message; the push itself waits for the commit.
+    private void pushToParticipants(Long key, Long buyerId, Long sellerId, InboxEventDTO event) {
+        List<Long> recipients = new ArrayList<>(2);
+        List<Long> totals = new ArrayList<>(2);
+        for (Long userId : List.of(buyerId, sellerId)) {
+            if (inboxStreamRegistry.isConnected(userId)) {
+                recipients.add(userId);
+                totals.add(inquiryRepository.sumUnread(userId));
+            }
+        }
+        afterCommit(() -> {
+            pushedMessages.put(key, System.currentTimeMillis());
+            for (int i = 0; i < recipients.size(); i++) {
+                inboxStreamRegistry.send(recipients.get(i), "message", withTotal(event, totals.get(i)));
+            }
+        });
+    }
+
+    private static InboxEventDTO withTotal(InboxEventDTO event, long totalUnread) {
+        return new InboxEventDTO(event.getInquiryId(), event.getListingId(), event.getListingTitle(),
+                event.getMessage(), totalUnread);
+    }
+
+    private Inquiry findParticipatingInquiry(Long inquiryId, User user) {
+        Inquiry inquiry = inquiryRepository.findWithListingById(inquiryId)
+                .orElseThrow(() -> new RuntimeException("Inquiry not found"));
+        if (!user.getId().equals(inquiry.getBuyer().getId())
+                && !user.getId().equals(inquiry.getListing().getOwner().getId())) {
+            throw new RuntimeException("You are not part of this conversation");
+        }
+        return inquiry;
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private InquiryDTO convertToDTO(Inquiry inquiry) {
         InquiryDTO dto = new InquiryDTO();
         dto.setId(inquiry.getId());
@@ -68,4 +282,34 @@ public class InquiryService {
         dto.setCreatedAt(inquiry.getCreatedAt());
         return dto;
     }
+
+    private ConversationDTO convertToConversationDTO(Inquiry inquiry, Long userId) {
+        Listing listing = inquiry.getListing();
+        User buyer = inquiry.getBuyer();
+        User seller = listing.getOwner();
+        int unread = (userId.equals(buyer.getId()) ? inquiry.getBuyerUnread() : 0)
+                + (userId.equals(seller.getId()) ? inquiry.getSellerUnread() : 0);
+        return new ConversationDTO(
+                inquiry.getId(),
+                listing.getId(),
+                listing.getTitle(),
+                buyer.getId(),
+                buyer.getName(),
+                seller.getId(),
+                seller.getName(),
+                inquiry.getMessage(),
+                inquiry.getCreatedAt(),
+                inquiry.getLastMessageAt() != null ? inquiry.getLastMessageAt() : inquiry.getCreatedAt(),
+                unread);
+    }
+
+    private InquiryMessageDTO convertToMessageDTO(InquiryMessage message) {
+        return new InquiryMessageDTO(
+                message.getId(),
+                message.getInquiry().getId(),
+                message.getSender().getId(),
+                message.getSender().getName(),
+                message.getMessage(),
+                message.getCreatedAt());
+    }
 }
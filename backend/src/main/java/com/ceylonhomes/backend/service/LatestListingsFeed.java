@@ -0,0 +1,218 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.ListingCardDTO;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingPhotoRepository;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+// The newest approved listing cards (GET /api/listings/latest), newest first, up to capacity.
+// Readers take the current Snapshot, an immutable array plus the approved total, so a page is
+// always cut from one consistent state without locking; writers build a new snapshot and swap it
+// in with a compare-and-set. Pages that reach past the snapshot go to the database.
+//
+// The snapshot is always the newest N approved listings: a listing that leaves APPROVED is dropped,
+// and one that enters is placed by createdAt only if it falls inside that prefix. Kept current like
+// ListingGeoIndex: ListingChangedEvent after local commits and a delta sync of recently updated rows
+// (changes made on other instances). Once removals shrink it below half of capacity it is reloaded.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LatestListingsFeed {
+
+    // Order of the feed and of the database fallback past it. Listings created in the same second are
+    // ordered by id in both, so a page boundary falls in the same place whichever one serves it.
+    public static final Sort ORDER = Sort.by(Sort.Direction.DESC, "createdAt", "id");
+
+    // ORDER in memory
+    private static final Comparator<ListingCardDTO> NEWEST_FIRST = Comparator
+            .comparing(ListingCardDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ListingCardDTO::getId, Comparator.reverseOrder());
+
+    private record Snapshot(ListingCardDTO[] cards, long total) {
+    }
+
+    private final ListingRepository listingRepository;
+    private final ListingPhotoRepository listingPhotoRepository;
+
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+    // Rows already applied by the sync, keyed by "id:updatedAt". Value is when the row was seen.
+    private final ConcurrentHashMap<String, Long> syncedRows = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync;
+
+    @Value("${app.latest-feed.capacity:240}")
+    private int capacity;
+
+    @Value("${app.latest-feed.sync-overlap-seconds:30}")
+    private long syncOverlapSeconds;
+
+    public int size() {
+        Snapshot current = snapshot.get();
+        return current == null ? 0 : current.cards().length;
+    }
+
+    // The page from memory, or null if it reaches past the cards held here (or while loading)
+    public Page<ListingCardDTO> page(Pageable pageable) {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return null;
+        }
+        ListingCardDTO[] cards = current.cards();
+        long from = pageable.getOffset();
+        long to = from + pageable.getPageSize();
+        if (to > cards.length && cards.length < current.total()) {
+            return null;
+        }
+        List<ListingCardDTO> content = from >= cards.length ? List.of()
+                : List.of(Arrays.copyOfRange(cards, (int) from, (int) Math.min(to, cards.length)));
+        return new PageImpl<>(content, pageable, current.total());
+    }
+
+    // Reads the newest cards from the primary database and swaps them in. Changes committed while
+    // loading are picked up by the next delta sync, which sees their updated_at.
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reload() {
+        long started = System.currentTimeMillis();
+        LocalDateTime syncFrom = LocalDateTime.now();
+        Page<ListingCardDTO> newest = listingRepository.findCardsByStatus(ListingStatus.APPROVED,
+                PageRequest.of(0, capacity, ORDER));
+        List<ListingCardDTO> cards = new ArrayList<>(newest.getContent());
+        withCoverPhotos(cards);
+        cards.sort(NEWEST_FIRST);
+
+        snapshot.set(new Snapshot(cards.toArray(ListingCardDTO[]::new), newest.getTotalElements()));
+        if (lastSync == null) {
+            lastSync = syncFrom;
+        }
+        log.info("Latest listings feed loaded {} cards in {} ms", cards.size(), System.currentTimeMillis() - started);
+    }
+
+    // Re-read the card from the primary once the change has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onListingChanged(ListingChangedEvent event) {
+        boolean wasApproved = event.previousStatus() == ListingStatus.APPROVED;
+        boolean isApproved = event.status() == ListingStatus.APPROVED;
+        if (snapshot.get() == null || (!wasApproved && !isApproved)) {
+            return;
+        }
+        ListingCardDTO card = isApproved ? approvedCards(List.of(event.listingId())).get(event.listingId()) : null;
+        long delta = wasApproved == isApproved ? 0 : isApproved ? 1 : -1;
+        snapshot.updateAndGet(current -> with(current, event.listingId(), card, current.total() + delta));
+    }
+
+    // Pick up listings changed on other instances. Their previous status is unknown here, so the
+    // approved total is counted again rather than adjusted.
+    @Scheduled(fixedDelayString = "${app.latest-feed.sync-ms:10000}")
+    @Transactional
+    public void syncRecentChanges() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> changedIds = new ArrayList<>();
+            for (Object[] row : listingRepository.findVersionsUpdatedSince(lastSync.minusSeconds(syncOverlapSeconds))) {
+                if (syncedRows.putIfAbsent(row[0] + ":" + row[1], System.currentTimeMillis()) == null) {
+                    changedIds.add((Long) row[0]);
+                }
+            }
+
+            if (current.cards().length < capacity / 2 && current.cards().length < current.total()) {
+                reload();
+            } else if (!changedIds.isEmpty()) {
+                Map<Long, ListingCardDTO> approved = approvedCards(changedIds);
+                long total = listingRepository.countByStatus(ListingStatus.APPROVED);
+                snapshot.updateAndGet(latest -> {
+                    Snapshot next = latest;
+                    for (Long id : changedIds) {
+                        next = with(next, id, approved.get(id), total);
+                    }
+                    return next;
+                });
+            }
+            lastSync = now;
+
+            long cutoff = System.currentTimeMillis() - 2000L * syncOverlapSeconds;
+            syncedRows.values().removeIf(seenAt -> seenAt < cutoff);
+        } catch (Exception e) {
+            log.warn("Could not sync latest listings feed: {}", e.getMessage());
+        }
+    }
+
+    // A copy of the snapshot with the listing removed and, if card is not null, placed by createdAt.
+    // A card older than everything held is only appended while the snapshot holds every approved
+    // listing; otherwise it belongs to the part served from the database.
+    private Snapshot with(Snapshot current, Long listingId, ListingCardDTO card, long total) {
+        List<ListingCardDTO> cards = new ArrayList<>(current.cards().length + 1);
+        for (ListingCardDTO existing : current.cards()) {
+            if (!existing.getId().equals(listingId)) {
+                cards.add(existing);
+            }
+        }
+        if (card != null) {
+            int position = 0;
+            while (position < cards.size() && NEWEST_FIRST.compare(cards.get(position), card) < 0) {
+                position++;
+            }
+            if (position < cards.size() || cards.size() + 1 == total) {
+                cards.add(position, card);
+            }
+            if (cards.size() > capacity) {
+                cards.remove(cards.size() - 1);
+            }
+        }
+        return new Snapshot(cards.toArray(ListingCardDTO[]::new), Math.max(total, cards.size()));
+    }
+
+    private Map<Long, ListingCardDTO> approvedCards(Collection<Long> ids) {
+        List<ListingCardDTO> cards = listingRepository.findCardsByIds(ids).stream()
+                .filter(card -> card.getStatus() == ListingStatus.APPROVED)
+                .toList();
+        withCoverPhotos(cards);
+        Map<Long, ListingCardDTO> byId = new HashMap<>();
+        cards.forEach(card -> byId.put(card.getId(), card));
+        return byId;
+    }
+
+    // Cards are filled in before they are published and never changed afterwards
+    private void withCoverPhotos(List<ListingCardDTO> cards) {
+        if (cards.isEmpty()) {
+            return;
+        }
+        Map<Long, String> coverUrls = new HashMap<>();
+        for (Object[] row : listingPhotoRepository.findCoverUrlsByListingIds(cards.stream().map(ListingCardDTO::getId).toList())) {
+            coverUrls.put(((Number) row[0]).longValue(), (String) row[1]);
+        }
+        cards.forEach(card -> card.setCoverPhotoUrl(ListingService.absolutePhotoUrl(coverUrls.get(card.getId()))));
+    }
+}
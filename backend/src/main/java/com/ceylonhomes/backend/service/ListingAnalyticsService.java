@@ -0,0 +1,184 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.DailyStatsDTO;
+import com.ceylonhomes.backend.dto.ListingAnalyticsDTO;
+import com.ceylonhomes.backend.enums.StatGranularity;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.repository.ListingStatBucketRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Per-listing views and inquiries over time for the seller dashboard, kept as rollups so a series
+// never scans inquiries or raw view events. Both feeds add to the bucket of the current hour:
+// inquiries in the transaction that creates them, views in ListingViewCounter's flush. Hourly
+// buckets older than hourly-retention-days are folded into one daily bucket per listing and day,
+// so a 90-day series is at most ~90 rows plus the last days' hours, read in one range scan.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingAnalyticsService {
+
+    private static final String INSERT_BUCKETS =
+            "INSERT INTO listing_stat_buckets (listing_id, bucket_start, granularity, views, inquiries) VALUES ";
+
+    private final ListingStatBucketRepository listingStatBucketRepository;
+    private final ListingRepository listingRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.analytics.series-days:90}")
+    private int seriesDays;
+
+    @Value("${app.analytics.hourly-retention-days:2}")
+    private int hourlyRetentionDays;
+
+    @Value("${app.analytics.daily-retention-days:730}")
+    private int dailyRetentionDays;
+
+    // Runs in the caller's transaction, so the bucket commits or rolls back with the inquiry
+    public void recordInquiry(Long listingId) {
+        jdbcTemplate.update(INSERT_BUCKETS + "(?, ?, 'HOUR', 0, 1) ON DUPLICATE KEY UPDATE inquiries = inquiries + 1",
+                listingId, hourOf(LocalDateTime.now()));
+    }
+
+    // One multi-row upsert; runs in the transaction that adds the same deltas to listing_views
+    void addViews(Map<Long, Long> views, LocalDateTime at) {
+        if (views.isEmpty()) {
+            return;
+        }
+        LocalDateTime hour = hourOf(at);
+        StringBuilder sql = new StringBuilder(INSERT_BUCKETS);
+        List<Object> args = new ArrayList<>(views.size() * 3);
+        views.forEach((listingId, count) -> {
+            sql.append(args.isEmpty() ? "(?, ?, 'HOUR', ?, 0)" : ", (?, ?, 'HOUR', ?, 0)");
+            args.add(listingId);
+            args.add(hour);
+            args.add(count);
+        });
+        sql.append(" ON DUPLICATE KEY UPDATE views = views + VALUES(views)");
+        jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    @Transactional(readOnly = true)
+    public ListingAnalyticsDTO getListingAnalytics(String email, Long listingId) {
+        String ownerEmail = listingRepository.findOwnerEmailById(listingId)
+            .orElseThrow(() -> new RuntimeException("Listing not found"));
+        if (!ownerEmail.equals(email)) {
+            throw new AccessDeniedException("You can only view analytics of your own listings");
+        }
+
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(seriesDays - 1);
+        long[] views = new long[seriesDays];
+        long[] inquiries = new long[seriesDays];
+        // Hourly and daily rows alike are summed into their day
+        for (Object[] row : listingStatBucketRepository.findSeries(listingId, from.atStartOfDay())) {
+            long day = ChronoUnit.DAYS.between(from, ((LocalDateTime) row[0]).toLocalDate());
+            if (day >= 0 && day < seriesDays) {
+                views[(int) day] += (Long) row[1];
+                inquiries[(int) day] += (Long) row[2];
+            }
+        }
+
+        List<DailyStatsDTO> days = new ArrayList<>(seriesDays);
+        long totalViews = 0;
+        long totalInquiries = 0;
+        for (int day = 0; day < seriesDays; day++) {
+            days.add(new DailyStatsDTO(from.plusDays(day), views[day], inquiries[day],
+                    conversionRate(views[day], inquiries[day])));
+            totalViews += views[day];
+            totalInquiries += inquiries[day];
+        }
+        return new ListingAnalyticsDTO(listingId, from, to, totalViews, totalInquiries,
+                conversionRate(totalViews, totalInquiries), days);
+    }
+
+    // Folds one day of hourly buckets per transaction, oldest first. The day's hours are locked
+    // first, so an instance compacting the same day at the same time waits and then finds nothing
+    // left to fold instead of counting the day twice.
+    @Scheduled(cron = "${app.analytics.compact-cron:0 10 * * * *}")
+    public void compact() {
+        LocalDateTime cutoff = LocalDate.now().minusDays(hourlyRetentionDays).atStartOfDay();
+        int folded = 0;
+        try {
+            LocalDateTime oldest;
+            while ((oldest = listingStatBucketRepository.findOldestBucketStart(StatGranularity.HOUR)) != null
+                    && oldest.isBefore(cutoff)) {
+                LocalDateTime day = oldest.toLocalDate().atStartOfDay();
+                // Nothing to fold: the oldest bucket was read from a replica that has not seen the fold yet
+                if (!Boolean.TRUE.equals(transactionTemplate.execute(status -> foldDay(day)))) {
+                    break;
+                }
+                folded++;
+            }
+
+            LocalDateTime expiry = LocalDate.now().minusDays(dailyRetentionDays).atStartOfDay();
+            Integer expired = transactionTemplate.execute(status ->
+                    listingStatBucketRepository.deleteBucketsBefore(StatGranularity.DAY, expiry));
+            if (folded > 0 || (expired != null && expired > 0)) {
+                log.info("Compacted {} days of hourly listing stats, removed {} expired daily buckets", folded, expired);
+            }
+        } catch (Exception e) {
+            log.warn("Could not compact listing stats: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.status() != null) {
+            return;
+        }
+        try {
+            listingStatBucketRepository.deleteByListingId(event.listingId());
+        } catch (Exception e) {
+            log.warn("Could not delete stats of listing {}: {}", event.listingId(), e.getMessage());
+        }
+    }
+
+    private boolean foldDay(LocalDateTime day) {
+        LocalDateTime next = day.plusDays(1);
+        Long hours = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM listing_stat_buckets " +
+                "WHERE granularity = 'HOUR' AND bucket_start >= ? AND bucket_start < ? FOR UPDATE",
+                Long.class, day, next);
+        if (hours == null || hours == 0) {
+            return false;
+        }
+        jdbcTemplate.update(
+                "INSERT INTO listing_stat_buckets (listing_id, bucket_start, granularity, views, inquiries) " +
+                "SELECT * FROM (SELECT listing_id, ? AS day_start, 'DAY' AS day_granularity, " +
+                "SUM(views) AS day_views, SUM(inquiries) AS day_inquiries FROM listing_stat_buckets " +
+                "WHERE granularity = 'HOUR' AND bucket_start >= ? AND bucket_start < ? GROUP BY listing_id) hours " +
+                "ON DUPLICATE KEY UPDATE views = listing_stat_buckets.views + hours.day_views, " +
+                "inquiries = listing_stat_buckets.inquiries + hours.day_inquiries",
+                day, day, next);
+        listingStatBucketRepository.deleteBuckets(StatGranularity.HOUR, day, next);
+        return true;
+    }
+
+    private static LocalDateTime hourOf(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    private static double conversionRate(long views, long inquiries) {
+        return views == 0 ? 0 : (double) inquiries / views;
+    }
+}
@@ -0,0 +1,229 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.ListingDTO;
+import com.ceylonhomes.backend.entity.ListingArchive;
+import com.ceylonhomes.backend.entity.ListingPhotoArchive;
+import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.repository.ListingArchiveRepository;
+import com.ceylonhomes.backend.repository.ListingPhotoArchiveRepository;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingArchivalService {
+
+    private static final Set<ListingStatus> CLOSED_STATUSES =
+            EnumSet.of(ListingStatus.SOLD, ListingStatus.RENTED, ListingStatus.ARCHIVED);
+
+    private final ListingRepository listingRepository;
+    private final ListingArchiveRepository listingArchiveRepository;
+    private final ListingPhotoArchiveRepository listingPhotoArchiveRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    // reports comes from schema.sql only and has no entity, so not every database has it
+    private volatile Boolean reportsTableExists;
+
+    @Value("${app.archival.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archival.closed-days:180}")
+    private int closedDays;
+
+    @Value("${app.archival.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.archival.batch-pause-ms:500}")
+    private long batchPauseMs;
+
+    // Move listings closed for longer than the retention period into the archive tables,
+    // one short transaction per batch with a pause in between so live traffic keeps the locks.
+    @Scheduled(cron = "${app.archival.cron:0 30 3 * * *}")
+    public void archiveClosedListings() {
+        if (!enabled) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(closedDays);
+        int total = archiveAll(page -> listingRepository.findClosedBefore(CLOSED_STATUSES, cutoff, page));
+        total += archiveAll(page -> listingRepository.findUnclosedUpdatedBefore(CLOSED_STATUSES, cutoff, page));
+
+        if (total > 0) {
+            log.info("Archived {} closed listings older than {} days", total, closedDays);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<ListingDTO> getArchivedListings(String email) {
+        User seller = userRepository.findByEmail(email)
+            .orElseThrow(() -> new RuntimeException("Seller not found"));
+
+        List<ListingArchive> listings = listingArchiveRepository.findByOwnerIdOrderByClosedAtDesc(seller.getId());
+        if (listings.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, List<String>> photoUrls = listingPhotoArchiveRepository
+            .findByListingIdInOrderBySortOrderAsc(listings.stream().map(ListingArchive::getId).collect(Collectors.toList()))
+            .stream()
+            .collect(Collectors.groupingBy(
+                ListingPhotoArchive::getListingId,
+                Collectors.mapping(photo -> toPublicUrl(photo.getUrl()), Collectors.toList())
+            ));
+
+        return listings.stream()
+            .map(listing -> convertToDTO(listing, seller, photoUrls.getOrDefault(listing.getId(), List.of())))
+            .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public void restoreListing(String email, Long listingId) {
+        ListingArchive archived = listingArchiveRepository.findById(listingId)
+            .orElseThrow(() -> new RuntimeException("Archived listing not found"));
+
+        User seller = userRepository.findByEmail(email)
+            .orElseThrow(() -> new RuntimeException("Seller not found"));
+        if (!archived.getOwnerId().equals(seller.getId())) {
+            throw new AccessDeniedException("You can only restore your own listings");
+        }
+
+        // Rows whose user was deleted are not restored; the archive deletes only remove restored
+        // rows, so those stay in the archive instead of being lost
+        listingArchiveRepository.restoreListing(listingId);
+        listingArchiveRepository.restorePhotos(listingId);
+        listingArchiveRepository.restoreInquiries(listingId);
+        listingArchiveRepository.restoreInquiryMessages(listingId);
+        listingArchiveRepository.restoreApprovalActions(listingId);
+        if (hasReportsTable()) {
+            listingArchiveRepository.restoreReports(listingId);
+            listingArchiveRepository.deleteArchivedReports(listingId);
+        }
+
+        listingArchiveRepository.deleteArchivedApprovalActions(listingId);
+        listingArchiveRepository.deleteArchivedInquiryMessages(listingId);
+        listingArchiveRepository.deleteArchivedInquiries(listingId);
+        listingArchiveRepository.deleteArchivedPhotos(listingId);
+        listingArchiveRepository.deleteById(listingId);
+    }
+
+    // Archived rows leave the live table, so every batch is read from the start again
+    private int archiveAll(Function<Pageable, List<Long>> nextBatch) {
+        int total = 0;
+        while (true) {
+            List<Long> ids = nextBatch.apply(PageRequest.of(0, batchSize));
+            if (ids.isEmpty()) {
+                break;
+            }
+            transactionTemplate.executeWithoutResult(status -> archiveBatch(ids));
+            total += ids.size();
+
+            if (ids.size() < batchSize || !pause()) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    private boolean hasReportsTable() {
+        if (reportsTableExists == null) {
+            Integer tables = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.tables WHERE table_schema = DATABASE() AND table_name = 'reports'",
+                    Integer.class);
+            reportsTableExists = tables != null && tables > 0;
+        }
+        return reportsTableExists;
+    }
+
+    private void archiveBatch(List<Long> ids) {
+        listingArchiveRepository.copyListingsToArchive(ids);
+        listingArchiveRepository.copyPhotosToArchive(ids);
+        listingArchiveRepository.copyInquiriesToArchive(ids);
+        listingArchiveRepository.copyInquiryMessagesToArchive(ids);
+        listingArchiveRepository.copyApprovalActionsToArchive(ids);
+        boolean reports = hasReportsTable();
+        if (reports) {
+            listingArchiveRepository.copyReportsToArchive(ids);
+        }
+
+        // Children first: the live tables still carry foreign keys to listings
+        if (reports) {
+            listingArchiveRepository.deleteLiveReports(ids);
+        }
+        listingArchiveRepository.deleteLiveApprovalActions(ids);
+        listingArchiveRepository.deleteLiveInquiryMessages(ids);
+        listingArchiveRepository.deleteLiveInquiries(ids);
+        listingArchiveRepository.deleteLivePhotos(ids);
+        listingArchiveRepository.deleteLiveListings(ids);
+    }
+
+    private boolean pause() {
+        try {
+            Thread.sleep(batchPauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private String toPublicUrl(String url) {
+        // If URL doesn't start with http, prepend backend server URL
+        if (url != null && !url.startsWith("http")) {
+            return "http://localhost:8080" + url;
+        }
+        return url;
+    }
+
+    private ListingDTO convertToDTO(ListingArchive listing, User owner, List<String> photoUrls) {
+        ListingDTO dto = new ListingDTO();
+        dto.setId(listing.getId());
+        dto.setOwnerId(owner.getId());
+        dto.setOwnerName(owner.getName());
+        dto.setOwnerEmail(owner.getEmail());
+        dto.setOwnerPhone(owner.getPhone());
+        dto.setTitle(listing.getTitle());
+        dto.setDescription(listing.getDescription());
+        dto.setRentOrSale(listing.getRentOrSale());
+        dto.setPropertyType(listing.getPropertyType());
+        dto.setPrice(listing.getPrice());
+        dto.setDistrict(listing.getDistrict());
+        dto.setCity(listing.getCity());
+        dto.setAddress(listing.getAddress());
+        dto.setBedrooms(listing.getBedrooms());
+        dto.setBathrooms(listing.getBathrooms());
+        dto.setSize(listing.getSize());
+        dto.setContactPhone(listing.getContactPhone());
+        dto.setContactWhatsapp(listing.getContactWhatsapp());
+        dto.setAvailabilityStart(listing.getAvailabilityStart());
+        dto.setAvailabilityEnd(listing.getAvailabilityEnd());
+        dto.setStatus(listing.getStatus());
+        dto.setRejectionReason(listing.getRejectionReason());
+        dto.setClosedAt(listing.getClosedAt());
+        dto.setCreatedAt(listing.getCreatedAt());
+        dto.setUpdatedAt(listing.getUpdatedAt());
+        dto.setPhotoUrls(photoUrls);
+        return dto;
+    }
+}
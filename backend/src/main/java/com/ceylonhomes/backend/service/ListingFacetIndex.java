@@ -0,0 +1,395 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.ListingFacetsDTO;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+// In-memory facet counts over APPROVED listings, returned next to a search page: listings per
+// district, city, property type, rent/sale, bedroom count and price bucket for the current filters.
+// Every listing gets a slot, and every district/city/type/rent-or-sale value keeps a bitmap of its
+// slots, so the filter masks are word-wise ANDs and each facet is one pass over its mask.
+//
+// Kept current like ListingGeoIndex: ListingChangedEvent after local commits, a delta sync of
+// recently updated rows (changes made on other instances) and a nightly full rebuild.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingFacetIndex {
+
+    // Upper bounds (exclusive) of the price histogram buckets in LKR; the last bucket is open-ended.
+    // Rent and sale prices share one scale, so filtering by rentOrSale narrows the histogram.
+    static final long[] PRICE_EDGES = {10_000, 20_000, 30_000, 40_000, 50_000, 75_000, 100_000, 150_000,
+            200_000, 300_000, 500_000, 1_000_000, 2_500_000, 5_000_000, 10_000_000, 15_000_000, 20_000_000,
+            30_000_000, 50_000_000, 75_000_000, 100_000_000};
+
+    private static final int MAX_BEDROOMS_FACET = 5;   // Counted as "5+"
+    private static final int MAX_CITIES = 50;          // Most common first
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final ListingRepository listingRepository;
+
+    private volatile Facets facets = new Facets();
+    private volatile boolean ready;
+    private volatile LocalDateTime lastSync;
+
+    @Value("${app.facet-index.sync-overlap-seconds:30}")
+    private long syncOverlapSeconds;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return facets.size();
+    }
+
+    // Builds fresh facets from the primary database and swaps them in. Changes committed while
+    // loading are picked up by the next delta sync.
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${app.facet-index.rebuild-cron:0 50 4 * * *}")
+    @Transactional
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        LocalDateTime syncFrom = LocalDateTime.now();
+        Facets fresh = new Facets();
+
+        long afterId = 0;
+        List<Object[]> rows;
+        do {
+            rows = listingRepository.findApprovedIndexRows(afterId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            for (Object[] row : rows) {
+                fresh.put(row);
+                afterId = (Long) row[0];
+            }
+        } while (rows.size() == LOAD_BATCH_SIZE);
+
+        facets = fresh;
+        lastSync = syncFrom;
+        ready = true;
+        log.info("Listing facet index loaded {} listings in {} ms", fresh.size(), System.currentTimeMillis() - started);
+    }
+
+    // Pick up listings changed on other instances
+    @Scheduled(fixedDelayString = "${app.facet-index.sync-ms:10000}")
+    @Transactional
+    public void syncRecentChanges() {
+        if (!ready) {
+            return;
+        }
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            for (Object[] row : listingRepository.findIndexRowsUpdatedSince(lastSync.minusSeconds(syncOverlapSeconds))) {
+                apply(row);
+            }
+            lastSync = now;
+        } catch (Exception e) {
+            log.warn("Could not sync listing facet index: {}", e.getMessage());
+        }
+    }
+
+    // Re-read the listing from the primary once the change has committed
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.status() == null) {
+            facets.remove(event.listingId());
+            return;
+        }
+        List<Object[]> rows = listingRepository.findIndexRowById(event.listingId());
+        if (rows.isEmpty()) {
+            facets.remove(event.listingId());
+        } else {
+            apply(rows.get(0));
+        }
+    }
+
+    // Facet counts for the same filters as ListingService.searchListings, or null while loading
+    public ListingFacetsDTO count(String district, String city, RentOrSale rentOrSale, PropertyType propertyType,
+                                  BigDecimal minPrice, BigDecimal maxPrice, Integer bedrooms, Integer bathrooms) {
+        if (!ready) {
+            return null;
+        }
+        return facets.count(district, city, rentOrSale, propertyType, minPrice, maxPrice, bedrooms, bathrooms);
+    }
+
+    private void apply(Object[] row) {
+        if (row[10] == ListingStatus.APPROVED) {
+            facets.put(row);
+        } else {
+            facets.remove((Long) row[0]);
+        }
+    }
+
+    static int priceBucket(double price) {
+        int index = Arrays.binarySearch(PRICE_EDGES, (long) Math.floor(price));
+        // Exact hit on an edge belongs to the bucket above it
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    // One categorical facet: its distinct values (case-insensitive), a bitmap of slots per value and
+    // the value of each slot
+    private static final class Dimension {
+        private final Map<String, Integer> idsByKey = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+        private final List<BitSet> slotsByValue = new ArrayList<>();
+        private int[] valueBySlot = new int[1024];
+
+        void set(int slot, String label) {
+            int id = idsByKey.computeIfAbsent(label.toLowerCase(), key -> {
+                labels.add(label);
+                slotsByValue.add(new BitSet());
+                return labels.size() - 1;
+            });
+            if (slot >= valueBySlot.length) {
+                valueBySlot = Arrays.copyOf(valueBySlot, Math.max(slot + 1, valueBySlot.length * 2));
+            }
+            valueBySlot[slot] = id;
+            slotsByValue.get(id).set(slot);
+        }
+
+        void clear(int slot) {
+            slotsByValue.get(valueBySlot[slot]).clear(slot);
+        }
+
+        BitSet slotsOf(String label) {
+            Integer id = idsByKey.get(label.toLowerCase());
+            return id != null ? slotsByValue.get(id) : new BitSet();
+        }
+
+        // Listings per value among the masked slots, most common first
+        Map<String, Long> count(BitSet mask, int limit) {
+            long[] counts = new long[labels.size()];
+            for (int slot = mask.nextSetBit(0); slot >= 0; slot = mask.nextSetBit(slot + 1)) {
+                counts[valueBySlot[slot]]++;
+            }
+            List<Integer> ids = new ArrayList<>();
+            for (int id = 0; id < counts.length; id++) {
+                if (counts[id] > 0) {
+                    ids.add(id);
+                }
+            }
+            ids.sort((a, b) -> Long.compare(counts[b], counts[a]));
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (Integer id : ids.subList(0, Math.min(limit, ids.size()))) {
+                result.put(labels.get(id), counts[id]);
+            }
+            return result;
+        }
+    }
+
+    // Slots are reused after removals. Writers take the write lock; searches share the read lock.
+    private static final class Facets {
+        private static final int DISTRICT = 0, CITY = 1, RENT_OR_SALE = 2, PROPERTY_TYPE = 3,
+                PRICE = 4, BEDROOMS = 5, BATHROOMS = 6, FILTERS = 7;
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private final Map<Long, Integer> slotsById = new HashMap<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private final BitSet live = new BitSet();
+        private final Dimension districts = new Dimension();
+        private final Dimension cities = new Dimension();
+        private final Dimension rentOrSales = new Dimension();
+        private final Dimension propertyTypes = new Dimension();
+        private double[] priceBySlot = new double[1024];
+        private int[] bedroomsBySlot = new int[1024];
+        private int[] bathroomsBySlot = new int[1024];
+        private int nextSlot;
+
+        int size() {
+            lock.readLock().lock();
+            try {
+                return slotsById.size();
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        // Row layout: ListingRepository.INDEX_COLUMNS
+        void put(Object[] row) {
+            Long id = (Long) row[0];
+            lock.writeLock().lock();
+            try {
+                Integer existing = slotsById.get(id);
+                if (existing != null) {
+                    clear(existing);
+                }
+                int slot = existing != null ? existing : allocate();
+                slotsById.put(id, slot);
+                live.set(slot);
+                districts.set(slot, (String) row[4]);
+                cities.set(slot, (String) row[5]);
+                rentOrSales.set(slot, ((RentOrSale) row[6]).name());
+                propertyTypes.set(slot, ((PropertyType) row[7]).name());
+                priceBySlot[slot] = ((BigDecimal) row[3]).doubleValue();
+                bedroomsBySlot[slot] = row[8] != null ? (Integer) row[8] : 0;
+                bathroomsBySlot[slot] = row[9] != null ? (Integer) row[9] : 0;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void remove(long id) {
+            lock.writeLock().lock();
+            try {
+                Integer slot = slotsById.remove(id);
+                if (slot != null) {
+                    clear(slot);
+                    live.clear(slot);
+                    freeSlots.push(slot);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        private void clear(int slot) {
+            districts.clear(slot);
+            cities.clear(slot);
+            rentOrSales.clear(slot);
+            propertyTypes.clear(slot);
+        }
+
+        private int allocate() {
+            if (!freeSlots.isEmpty()) {
+                return freeSlots.pop();
+            }
+            int slot = nextSlot++;
+            if (slot >= priceBySlot.length) {
+                int capacity = priceBySlot.length * 2;
+                priceBySlot = Arrays.copyOf(priceBySlot, capacity);
+                bedroomsBySlot = Arrays.copyOf(bedroomsBySlot, capacity);
+                bathroomsBySlot = Arrays.copyOf(bathroomsBySlot, capacity);
+            }
+            return slot;
+        }
+
+        ListingFacetsDTO count(String district, String city, RentOrSale rentOrSale, PropertyType propertyType,
+                               BigDecimal minPrice, BigDecimal maxPrice, Integer bedrooms, Integer bathrooms) {
+            lock.readLock().lock();
+            try {
+                // One mask per active filter; null means the filter is not set
+                BitSet[] filters = new BitSet[FILTERS];
+                if (district != null) {
+                    filters[DISTRICT] = districts.slotsOf(district);
+                }
+                if (city != null) {
+                    filters[CITY] = cities.slotsOf(city);
+                }
+                if (rentOrSale != null) {
+                    filters[RENT_OR_SALE] = rentOrSales.slotsOf(rentOrSale.name());
+                }
+                if (propertyType != null) {
+                    filters[PROPERTY_TYPE] = propertyTypes.slotsOf(propertyType.name());
+                }
+                if (minPrice != null || maxPrice != null) {
+                    double min = minPrice != null ? minPrice.doubleValue() : Double.NEGATIVE_INFINITY;
+                    double max = maxPrice != null ? maxPrice.doubleValue() : Double.POSITIVE_INFINITY;
+                    filters[PRICE] = select(slot -> priceBySlot[slot] >= min && priceBySlot[slot] <= max);
+                }
+                if (bedrooms != null) {
+                    filters[BEDROOMS] = select(slot -> bedroomsBySlot[slot] >= bedrooms);
+                }
+                if (bathrooms != null) {
+                    filters[BATHROOMS] = select(slot -> bathroomsBySlot[slot] >= bathrooms);
+                }
+
+                ListingFacetsDTO result = new ListingFacetsDTO();
+                result.setTotal(allExcept(filters, -1).cardinality());
+                result.setDistricts(districts.count(allExcept(filters, DISTRICT), Integer.MAX_VALUE));
+                result.setCities(cities.count(allExcept(filters, CITY), MAX_CITIES));
+                result.setRentOrSale(rentOrSales.count(allExcept(filters, RENT_OR_SALE), Integer.MAX_VALUE));
+                result.setPropertyTypes(propertyTypes.count(allExcept(filters, PROPERTY_TYPE), Integer.MAX_VALUE));
+                result.setBedrooms(countBedrooms(allExcept(filters, BEDROOMS)));
+                result.setPriceHistogram(priceHistogram(allExcept(filters, PRICE)));
+                return result;
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private BitSet select(IntPredicate predicate) {
+            BitSet selected = new BitSet();
+            for (int slot = live.nextSetBit(0); slot >= 0; slot = live.nextSetBit(slot + 1)) {
+                if (predicate.test(slot)) {
+                    selected.set(slot);
+                }
+            }
+            return selected;
+        }
+
+        private BitSet allExcept(BitSet[] filters, int skipped) {
+            BitSet mask = (BitSet) live.clone();
+            for (int i = 0; i < filters.length; i++) {
+                if (i != skipped && filters[i] != null) {
+                    mask.and(filters[i]);
+                }
+            }
+            return mask;
+        }
+
+        private Map<String, Long> countBedrooms(BitSet mask) {
+            long[] counts = new long[MAX_BEDROOMS_FACET + 1];
+            for (int slot = mask.nextSetBit(0); slot >= 0; slot = mask.nextSetBit(slot + 1)) {
+                counts[Math.min(bedroomsBySlot[slot], MAX_BEDROOMS_FACET)]++;
+            }
+            Map<String, Long> result = new LinkedHashMap<>();
+            // 0 is a listing without separate bedrooms, such as a room or a studio annex
+            for (int beds = 0; beds <= MAX_BEDROOMS_FACET; beds++) {
+                result.put(beds == MAX_BEDROOMS_FACET ? beds + "+" : String.valueOf(beds), counts[beds]);
+            }
+            return result;
+        }
+
+        // Buckets from the cheapest to the most expensive non-empty one, so the chart has no gaps
+        private List<ListingFacetsDTO.PriceBucket> priceHistogram(BitSet mask) {
+            long[] counts = new long[PRICE_EDGES.length + 1];
+            for (int slot = mask.nextSetBit(0); slot >= 0; slot = mask.nextSetBit(slot + 1)) {
+                counts[priceBucket(priceBySlot[slot])]++;
+            }
+            int first = 0;
+            int last = counts.length - 1;
+            while (first <= last && counts[first] == 0) {
+                first++;
+            }
+            while (last >= first && counts[last] == 0) {
+                last--;
+            }
+            List<ListingFacetsDTO.PriceBucket> buckets = new ArrayList<>();
+            for (int i = first; i <= last; i++) {
+                buckets.add(new ListingFacetsDTO.PriceBucket(
+                        BigDecimal.valueOf(i == 0 ? 0 : PRICE_EDGES[i - 1]),
+                        i < PRICE_EDGES.length ? BigDecimal.valueOf(PRICE_EDGES[i]) : null,
+                        counts[i]));
+            }
+            return buckets;
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.entity.Listing;
+
+import java.util.Map;
+
+// Sets a listing's coordinates on create/update. Sellers can drop a pin; otherwise the listing is
+// placed at the centre of its district so it still shows up in radius and map searches.
+public final class ListingLocations {
+
+    // District capital coordinates (lat, lng)
+    private static final Map<String, double[]> DISTRICT_CENTRES = Map.ofEntries(
+            Map.entry("colombo", new double[]{6.9271, 79.8612}),
+            Map.entry("gampaha", new double[]{7.0873, 80.0144}),
+            Map.entry("kalutara", new double[]{6.5854, 79.9607}),
+            Map.entry("kandy", new double[]{7.2906, 80.6337}),
+            Map.entry("matale", new double[]{7.4675, 80.6234}),
+            Map.entry("nuwara eliya", new double[]{6.9497, 80.7891}),
+            Map.entry("galle", new double[]{6.0535, 80.2210}),
+            Map.entry("matara", new double[]{5.9549, 80.5550}),
+            Map.entry("hambantota", new double[]{6.1241, 81.1185}),
+            Map.entry("jaffna", new double[]{9.6615, 80.0255}),
+            Map.entry("kilinochchi", new double[]{9.3803, 80.3770}),
+            Map.entry("mannar", new double[]{8.9810, 79.9044}),
+            Map.entry("vavuniya", new double[]{8.7514, 80.4971}),
+            Map.entry("mullaitivu", new double[]{9.2671, 80.8142}),
+            Map.entry("batticaloa", new double[]{7.7310, 81.6747}),
+            Map.entry("ampara", new double[]{7.2975, 81.6820}),
+            Map.entry("trincomalee", new double[]{8.5874, 81.2152}),
+            Map.entry("kurunegala", new double[]{7.4863, 80.3647}),
+            Map.entry("puttalam", new double[]{8.0362, 79.8283}),
+            Map.entry("anuradhapura", new double[]{8.3114, 80.4037}),
+            Map.entry("polonnaruwa", new double[]{7.9403, 81.0188}),
+            Map.entry("badulla", new double[]{6.9934, 81.0550}),
+            Map.entry("moneragala", new double[]{6.8724, 81.3507}),
+            Map.entry("ratnapura", new double[]{6.6828, 80.3992}),
+            Map.entry("kegalle", new double[]{7.2513, 80.3464}));
+
+    private ListingLocations() {
+    }
+
+    public static void apply(Listing listing, Double latitude, Double longitude) {
+        if (latitude != null && longitude != null) {
+            listing.setLatitude(latitude);
+            listing.setLongitude(longitude);
+            return;
+        }
+        double[] centre = districtCentre(listing.getDistrict());
+        listing.setLatitude(centre != null ? centre[0] : null);
+        listing.setLongitude(centre != null ? centre[1] : null);
+    }
+
+    // Lower-case district name to {lat, lng}
+    public static Map<String, double[]> districtCentres() {
+        return DISTRICT_CENTRES;
+    }
+
+    // {lat, lng} of the district capital, or null for an unknown district
+    public static double[] districtCentre(String district) {
+        return district != null ? DISTRICT_CENTRES.get(district.trim().toLowerCase()) : null;
+    }
+}
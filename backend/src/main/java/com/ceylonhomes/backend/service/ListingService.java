@@ -1,17 +1,23 @@
 package com.ceylonhomes.backend.service;
 
+import com.ceylonhomes.backend.dto.FacetedPage;
+import com.ceylonhomes.backend.dto.ListingCardDTO;
 import com.ceylonhomes.backend.dto.ListingDTO;
 import com.ceylonhomes.backend.dto.ListingRequest;
+import com.ceylonhomes.backend.dto.MapClusterDTO;
 import com.ceylonhomes.backend.entity.Listing;
 import com.ceylonhomes.backend.entity.ListingPhoto;
 import com.ceylonhomes.backend.entity.User;
 import com.ceylonhomes.backend.enums.ListingStatus;
 import com.ceylonhomes.backend.enums.PropertyType;
 import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
 import com.ceylonhomes.backend.repository.ListingPhotoRepository;
 import com.ceylonhomes.backend.repository.ListingRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -19,7 +25,10 @@ import org.springframework.web.multipart.MultipartFile;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -29,6 +38,10 @@ public class ListingService {
     private final ListingRepository listingRepository;
     private final ListingPhotoRepository listingPhotoRepository;
     private final FileStorageService fileStorageService;
+    private final ListingGeoIndex listingGeoIndex;
+    private final ListingFacetIndex listingFacetIndex;
+    private final LatestListingsFeed latestListingsFeed;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ListingDTO createListing(ListingRequest request, User owner) {
@@ -49,9 +62,11 @@ public class ListingService {
         listing.setContactWhatsapp(request.getContactWhatsapp());
         listing.setAvailabilityStart(request.getAvailabilityStart());
         listing.setAvailabilityEnd(request.getAvailabilityEnd());
+        ListingLocations.apply(listing, request.getLatitude(), request.getLongitude());
         listing.setStatus(ListingStatus.PENDING);
 
         Listing savedListing = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(savedListing.getId(), null, ListingStatus.PENDING));
         return convertToDTO(savedListing);
     }
 
@@ -70,6 +85,8 @@ public class ListingService {
             throw new RuntimeException("Cannot edit archived listing");
         }
 
+        ListingStatus previousStatus = listing.getStatus();
+
         // If listing was APPROVED and being edited, set back to PENDING
         if (listing.getStatus() == ListingStatus.APPROVED) {
             listing.setStatus(ListingStatus.PENDING);
@@ -90,8 +107,10 @@ public class ListingService {
         listing.setContactWhatsapp(request.getContactWhatsapp());
         listing.setAvailabilityStart(request.getAvailabilityStart());
         listing.setAvailabilityEnd(request.getAvailabilityEnd());
+        ListingLocations.apply(listing, request.getLatitude(), request.getLongitude());
 
         Listing updatedListing = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, updatedListing.getStatus()));
         return convertToDTO(updatedListing);
     }
 
@@ -119,6 +138,7 @@ public class ListingService {
             photo.setSortOrder(currentMaxOrder + i + 1);
             listingPhotoRepository.save(photo);
         }
+        photosChanged(listing);
     }
 
     @Transactional
@@ -132,6 +152,7 @@ public class ListingService {
 
         fileStorageService.deleteFile(photo.getUrl());
         listingPhotoRepository.delete(photo);
+        photosChanged(photo.getListing());
     }
 
     @Transactional
@@ -143,9 +164,11 @@ public class ListingService {
             throw new RuntimeException("You are not authorized to modify this listing");
         }
 
+        ListingStatus previousStatus = listing.getStatus();
         listing.setStatus(ListingStatus.SOLD);
         listing.setClosedAt(LocalDateTime.now());
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, ListingStatus.SOLD));
     }
 
     @Transactional
@@ -157,9 +180,11 @@ public class ListingService {
             throw new RuntimeException("You are not authorized to modify this listing");
         }
 
+        ListingStatus previousStatus = listing.getStatus();
         listing.setStatus(ListingStatus.RENTED);
         listing.setClosedAt(LocalDateTime.now());
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, ListingStatus.RENTED));
     }
 
     @Transactional
@@ -171,10 +196,13 @@ public class ListingService {
             throw new RuntimeException("You are not authorized to archive this listing");
         }
 
+        ListingStatus previousStatus = listing.getStatus();
         listing.setStatus(ListingStatus.ARCHIVED);
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, ListingStatus.ARCHIVED));
     }
 
+    @Transactional(readOnly = true)
     public List<ListingDTO> getSellerListings(Long ownerId) {
         List<Listing> listings = listingRepository.findByOwnerIdOrderByCreatedAtDesc(ownerId);
         return listings.stream()
@@ -182,13 +210,15 @@ public class ListingService {
                 .collect(Collectors.toList());
     }
 
+    @Transactional(readOnly = true)
     public ListingDTO getListingById(Long id) {
         Listing listing = listingRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Listing not found"));
         return convertToDTO(listing);
     }
 
-    public Page<ListingDTO> searchListings(
+    @Transactional(readOnly = true)
+    public Page<ListingCardDTO> searchListings(
             String district,
             String city,
             RentOrSale rentOrSale,
@@ -199,16 +229,79 @@ public class ListingService {
             Integer bathrooms,
             Pageable pageable
     ) {
-        Page<Listing> listings = listingRepository.searchListings(
+        Page<ListingCardDTO> cards = listingRepository.searchListingCards(
                 district, city, rentOrSale, propertyType,
                 minPrice, maxPrice, bedrooms, bathrooms, pageable
         );
-        return listings.map(this::convertToDTO);
+        return withCoverPhotos(cards);
+    }
+
+    // The search page plus facet counts for the same filters; facets are null while the index loads
+    @Transactional(readOnly = true)
+    public FacetedPage<ListingCardDTO> searchListingsWithFacets(
+            String district,
+            String city,
+            RentOrSale rentOrSale,
+            PropertyType propertyType,
+            BigDecimal minPrice,
+            BigDecimal maxPrice,
+            Integer bedrooms,
+            Integer bathrooms,
+            Pageable pageable
+    ) {
+        Page<ListingCardDTO> cards = searchListings(district, city, rentOrSale, propertyType,
+                minPrice, maxPrice, bedrooms, bathrooms, pageable);
+        return new FacetedPage<>(cards, listingFacetIndex.count(district, city, rentOrSale, propertyType,
+                minPrice, maxPrice, bedrooms, bathrooms));
+    }
+
+    // Radius or bounding-box search, nearest first. The in-memory index picks the page of ids;
+    // only those cards are read from the database.
+    @Transactional(readOnly = true)
+    public Page<ListingCardDTO> searchListingsNear(ListingGeoIndex.Area area, ListingGeoIndex.Filter filter, Pageable pageable) {
+        ListingGeoIndex.Result result = listingGeoIndex.search(area, filter, pageable.getPageNumber(), pageable.getPageSize());
+        if (result.hits().isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, result.total());
+        }
+
+        Map<Long, ListingCardDTO> cardsById = new HashMap<>();
+        List<Long> ids = result.hits().stream().map(ListingGeoIndex.Hit::id).toList();
+        for (ListingCardDTO card : listingRepository.findApprovedCardsByIds(ids)) {
+            cardsById.put(card.getId(), card);
+        }
+
+        List<ListingCardDTO> content = new ArrayList<>(ids.size());
+        for (ListingGeoIndex.Hit hit : result.hits()) {
+            ListingCardDTO card = cardsById.get(hit.id());
+            if (card != null) {
+                card.setDistanceKm(Math.round(hit.distanceKm() * 10) / 10.0);
+                content.add(card);
+            }
+        }
+        return withCoverPhotos(new PageImpl<>(content, pageable, result.total()));
+    }
+
+    // Map markers for a viewport; answered entirely from the in-memory index
+    public List<MapClusterDTO> getMapClusters(ListingGeoIndex.Area box, ListingGeoIndex.Filter filter, int zoom) {
+        return listingGeoIndex.clusters(box, filter, zoom).stream()
+                .map(cluster -> new MapClusterDTO(
+                        Math.round(cluster.latitude() * 100_000) / 100_000.0,
+                        Math.round(cluster.longitude() * 100_000) / 100_000.0,
+                        cluster.count(),
+                        BigDecimal.valueOf(Math.round(cluster.minPrice())),
+                        BigDecimal.valueOf(Math.round(cluster.maxPrice())),
+                        cluster.listingId()))
+                .collect(Collectors.toList());
     }
 
-    public Page<ListingDTO> getLatestApprovedListings(Pageable pageable) {
-        Page<Listing> listings = listingRepository.findByStatus(ListingStatus.APPROVED, pageable);
-        return listings.map(this::convertToDTO);
+    // The first pages come from LatestListingsFeed without a query; deeper pages from the database
+    @Transactional(readOnly = true)
+    public Page<ListingCardDTO> getLatestApprovedListings(Pageable pageable) {
+        Page<ListingCardDTO> cached = latestListingsFeed.page(pageable);
+        if (cached != null) {
+            return cached;
+        }
+        return withCoverPhotos(listingRepository.findCardsByStatus(ListingStatus.APPROVED, pageable));
     }
 
     // Admin methods
@@ -216,17 +309,17 @@ public class ListingService {
         return listingRepository.countByStatus(status);
     }
 
+    @Transactional(readOnly = true)
     public Page<ListingDTO> getListingsByStatus(ListingStatus status, Pageable pageable) {
-        Page<Listing> listings = listingRepository.findByStatusOrderByCreatedAtDesc(status, pageable);
-        return listings.map(this::convertToDTO);
+        return convertToDTOs(listingRepository.findByStatusOrderByCreatedAtDesc(status, pageable));
     }
 
+    @Transactional(readOnly = true)
     public Page<ListingDTO> getAllListings(Pageable pageable) {
-        Page<Listing> listings = listingRepository.findAll(pageable);
-        return listings.map(this::convertToDTO);
+        return convertToDTOs(listingRepository.findAll(pageable));
     }
 
-    public Page<ListingDTO> getAdminListings(String status, String title, String owner, Pageable pageable) {
+    public Page<ListingCardDTO> getAdminListings(String status, String title, String owner, Pageable pageable) {
         ListingStatus listingStatus = null;
         if (status != null && !status.isBlank()) {
             listingStatus = ListingStatus.valueOf(status.toUpperCase());
@@ -234,11 +327,53 @@ public class ListingService {
         String titleFilter = (title != null && !title.isBlank()) ? title.trim() : null;
         String ownerFilter = (owner != null && !owner.isBlank()) ? owner.trim() : null;
 
-        Page<Listing> listings = listingRepository.adminSearch(listingStatus, titleFilter, ownerFilter, pageable);
-        return listings.map(this::convertToDTO);
+        return withCoverPhotos(listingRepository.adminSearchCards(listingStatus, titleFilter, ownerFilter, pageable));
+    }
+
+    // Photos are part of the listing's cards and detail view: touch updated_at so other instances'
+    // syncs see the change, and publish it like any other edit
+    private void photosChanged(Listing listing) {
+        listing.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(new ListingChangedEvent(listing.getId(), listing.getStatus(), listing.getStatus()));
+    }
+
+    // One query for the cover photos of the whole page
+    private Page<ListingCardDTO> withCoverPhotos(Page<ListingCardDTO> cards) {
+        if (cards.isEmpty()) {
+            return cards;
+        }
+        List<Long> ids = cards.getContent().stream().map(ListingCardDTO::getId).toList();
+        Map<Long, String> coverUrls = new HashMap<>();
+        for (Object[] row : listingPhotoRepository.findCoverUrlsByListingIds(ids)) {
+            coverUrls.put(((Number) row[0]).longValue(), (String) row[1]);
+        }
+        cards.forEach(card -> card.setCoverPhotoUrl(absolutePhotoUrl(coverUrls.get(card.getId()))));
+        return cards;
+    }
+
+    // A page of listings with all their photos read in one query, for listings whose photos were not fetched
+    Page<ListingDTO> convertToDTOs(Page<Listing> listings) {
+        if (listings.isEmpty()) {
+            return listings.map(this::convertToDTO);
+        }
+        List<Long> ids = listings.getContent().stream().map(Listing::getId).toList();
+        Map<Long, List<String>> photoUrls = new HashMap<>();
+        for (Object[] row : listingPhotoRepository.findUrlsByListingIds(ids)) {
+            photoUrls.computeIfAbsent(((Number) row[0]).longValue(), id -> new ArrayList<>())
+                    .add(absolutePhotoUrl((String) row[1]));
+        }
+        return listings.map(listing -> convertToDTO(listing, photoUrls.getOrDefault(listing.getId(), List.of())));
     }
 
-    private ListingDTO convertToDTO(Listing listing) {
+    ListingDTO convertToDTO(Listing listing) {
+        List<String> photoUrls = listing.getPhotos().stream()
+                .sorted((p1, p2) -> p1.getSortOrder().compareTo(p2.getSortOrder()))
+                .map(photo -> absolutePhotoUrl(photo.getUrl()))
+                .collect(Collectors.toList());
+        return convertToDTO(listing, photoUrls);
+    }
+
+    private ListingDTO convertToDTO(Listing listing, List<String> photoUrls) {
         ListingDTO dto = new ListingDTO();
         dto.setId(listing.getId());
         dto.setOwnerId(listing.getOwner().getId());
@@ -260,25 +395,26 @@ public class ListingService {
         dto.setContactWhatsapp(listing.getContactWhatsapp());
         dto.setAvailabilityStart(listing.getAvailabilityStart());
         dto.setAvailabilityEnd(listing.getAvailabilityEnd());
+        dto.setLatitude(listing.getLatitude());
+        dto.setLongitude(listing.getLongitude());
         dto.setStatus(listing.getStatus());
         dto.setRejectionReason(listing.getRejectionReason());
         dto.setClosedAt(listing.getClosedAt());
+        dto.setClaimedById(listing.getClaimedBy() != null ? listing.getClaimedBy().getId() : null);
+        dto.setClaimExpiresAt(listing.getClaimExpiresAt());
         dto.setCreatedAt(listing.getCreatedAt());
         dto.setUpdatedAt(listing.getUpdatedAt());
-
-        List<String> photoUrls = listing.getPhotos().stream()
-                .sorted((p1, p2) -> p1.getSortOrder().compareTo(p2.getSortOrder()))
-                .map(photo -> {
-                    String url = photo.getUrl();
-                    // If URL doesn't start with http, prepend backend server URL
-                    if (url != null && !url.startsWith("http")) {
-                        return "http://localhost:8080" + url;
-                    }
-                    return url;
-                })
-                .collect(Collectors.toList());
+        dto.setViewCount(listing.getViewCount() != null ? listing.getViewCount() : 0);
         dto.setPhotoUrls(photoUrls);
 
         return dto;
     }
+
+    static String absolutePhotoUrl(String url) {
+        // If URL doesn't start with http, prepend backend server URL
+        if (url != null && !url.startsWith("http")) {
+            return "http://localhost:8080" + url;
+        }
+        return url;
+    }
 }
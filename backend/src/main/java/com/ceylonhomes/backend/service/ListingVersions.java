@@ -0,0 +1,128 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Strong ETags for the public listing endpoints, decided without touching the database so a
+// matching If-None-Match is answered with 304 before anything is read. /api/listings/{id} is
+// tagged with a per-listing version; /latest and /search with a generation of the approved set,
+// which moves whenever an approved listing (or one entering or leaving APPROVED) changes.
+//
+// Versions are handed out in memory and dropped on ListingChangedEvent after local commits and on
+// a delta sync of updated rows (changes made on other instances). Each instance tags with its own
+// id, so a tag is never mistaken for another instance's. Tags also expire after max-age, which
+// bounds how long anything the events do not cover (a seller renaming themselves, a replica read
+// that lagged a commit) can be served as unchanged.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ListingVersions {
+
+    private record Version(long number, long issuedAt) {
+    }
+
+    private final ListingRepository listingRepository;
+
+    private final String instanceId = Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, 36);
+    private final AtomicLong nextVersion = new AtomicLong();
+    private final ConcurrentHashMap<Long, Version> listingVersions = new ConcurrentHashMap<>();
+    private volatile Version approvedGeneration = new Version(0, System.currentTimeMillis());
+
+    // Rows already seen by the sync, keyed by "id:updatedAt", so the overlap window does not move
+    // the generation again on every run. Value is when the row was seen.
+    private final ConcurrentHashMap<String, Long> syncedRows = new ConcurrentHashMap<>();
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    @Value("${app.etag.max-age-seconds:600}")
+    private long maxAgeSeconds;
+
+    @Value("${app.etag.max-tracked-listings:100000}")
+    private int maxTrackedListings;
+
+    @Value("${app.etag.sync-overlap-seconds:30}")
+    private long syncOverlapSeconds;
+
+    // Read before the listing is loaded: a change committing during the load drops this version,
+    // so the next request gets a new tag rather than keeping the one issued for older data
+    public String listingTag(Long listingId) {
+        long now = System.currentTimeMillis();
+        Version version = listingVersions.get(listingId);
+        if (version == null || expired(version, now)) {
+            if (listingVersions.size() >= maxTrackedListings) {
+                listingVersions.clear();
+            }
+            version = new Version(nextVersion.incrementAndGet(), now);
+            listingVersions.put(listingId, version);
+        }
+        return "\"l" + listingId + "-" + instanceId + "-" + version.number() + "\"";
+    }
+
+    public String approvedSetTag() {
+        Version generation = approvedGeneration;
+        if (expired(generation, System.currentTimeMillis())) {
+            generation = nextGeneration();
+        }
+        return "\"a-" + instanceId + "-" + generation.number() + "\"";
+    }
+
+    public int getTrackedListingCount() {
+        return listingVersions.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        listingVersions.remove(event.listingId());
+        if (event.previousStatus() == ListingStatus.APPROVED || event.status() == ListingStatus.APPROVED) {
+            nextGeneration();
+        }
+    }
+
+    // Listings changed on other instances. The previous status is unknown here, so any change moves
+    // the generation; a local change is seen once more by this sync and moves it one extra time.
+    @Scheduled(fixedDelayString = "${app.etag.sync-ms:5000}")
+    @Transactional
+    public void syncRecentChanges() {
+        LocalDateTime startedAt = LocalDateTime.now();
+        try {
+            boolean changed = false;
+            for (Object[] row : listingRepository.findVersionsUpdatedSince(lastSync.minusSeconds(syncOverlapSeconds))) {
+                if (syncedRows.putIfAbsent(row[0] + ":" + row[1], System.currentTimeMillis()) == null) {
+                    listingVersions.remove((Long) row[0]);
+                    changed = true;
+                }
+            }
+            if (changed) {
+                nextGeneration();
+            }
+            lastSync = startedAt;
+
+            long cutoff = System.currentTimeMillis() - 2000L * syncOverlapSeconds;
+            syncedRows.values().removeIf(seenAt -> seenAt < cutoff);
+        } catch (Exception e) {
+            log.warn("Could not sync listing versions: {}", e.getMessage());
+        }
+    }
+
+    private Version nextGeneration() {
+        Version generation = new Version(nextVersion.incrementAndGet(), System.currentTimeMillis());
+        approvedGeneration = generation;
+        return generation;
+    }
+
+    private boolean expired(Version version, long now) {
+        return now - version.issuedAt() > maxAgeSeconds * 1000;
+    }
+}
@@ -0,0 +1,255 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.security.RateLimitFilter;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.Principal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Distinct-viewer counts for GET /api/listings/{id}. A view only touches memory: a LongAdder per
+// listing, which spreads concurrent increments over cells so a hot listing does not serialize its
+// viewers. flush() writes the deltas to listing_views in multi-row upserts, so the database sees
+// one statement per few hundred listings per flush instead of one UPDATE per view. The same deltas
+// go to the current hour's analytics buckets (ListingAnalyticsService) in the same transaction.
+//
+// Repeat views are dropped with two Bloom filters over (viewer, listing): views go into the current
+// one and are checked against both, and every dedupe window the older one is discarded, so a repeat
+// is ignored for between one and two windows. A false positive drops a first view, so counts can
+// read slightly low; they never count a viewer twice within the window. Viewers are the signed-in
+// user, or else client IP plus User-Agent.
+@Slf4j
+@Service
+public class ListingViewCounter {
+
+    private static final int HASHES = 3;
+    private static final int FLUSH_CHUNK = 500;
+
+    private static final class Counter {
+        private final LongAdder views = new LongAdder();
+        private long flushed;           // Only read and written under flushLock
+    }
+
+    private record Pending(Counter counter, long total) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ListingAnalyticsService listingAnalyticsService;
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    // A lock rather than synchronized: flush() holds it across JDBC calls, which would pin a virtual thread's carrier
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final int dedupeBitsLog2;
+    private final int maxTrackedListings;
+    private final boolean trustForwardedFor;
+
+    private volatile ViewerFilter current;
+    private volatile ViewerFilter previous;
+
+    public ListingViewCounter(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ListingAnalyticsService listingAnalyticsService,
+            @Value("${app.views.dedupe-bits-log2:23}") int dedupeBitsLog2,
+            @Value("${app.views.max-tracked-listings:100000}") int maxTrackedListings,
+            @Value("${app.rate-limit.trust-forwarded-for:false}") boolean trustForwardedFor) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.listingAnalyticsService = listingAnalyticsService;
+        this.dedupeBitsLog2 = dedupeBitsLog2;
+        this.maxTrackedListings = maxTrackedListings;
+        this.trustForwardedFor = trustForwardedFor;
+        this.current = new ViewerFilter(dedupeBitsLog2);
+        this.previous = new ViewerFilter(dedupeBitsLog2);
+    }
+
+    public void recordView(Long listingId, HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        String viewer = principal != null ? "u:" + principal.getName()
+                : "ip:" + RateLimitFilter.clientIp(request, trustForwardedFor) + "|" + request.getHeader("User-Agent");
+        long hash = hash(listingId, viewer);
+        if (previous.mightContain(hash)) {
+            current.add(hash);
+            return;
+        }
+        if (!current.add(hash)) {
+            return;
+        }
+
+        Counter counter = counters.get(listingId);
+        if (counter == null) {
+            // Bounded between flushes; a flood of distinct ids loses views rather than memory
+            if (counters.size() >= maxTrackedListings) {
+                return;
+            }
+            counter = counters.computeIfAbsent(listingId, id -> new Counter());
+        }
+        counter.views.increment();
+    }
+
+    public int size() {
+        return counters.size();
+    }
+
+    @Scheduled(fixedDelayString = "${app.views.dedupe-window-ms:1800000}",
+               initialDelayString = "${app.views.dedupe-window-ms:1800000}")
+    public void rotateDedupeWindow() {
+        previous = current;
+        current = new ViewerFilter(dedupeBitsLog2);
+    }
+
+    // A flush that starts while another is still running is skipped; the running one, or the next
+    // scheduled one, writes its deltas.
+    @Scheduled(fixedDelayString = "${app.views.flush-ms:10000}")
+    public void flush() {
+        if (!flushLock.tryLock()) {
+            return;
+        }
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Waits for a running flush so the views counted after its snapshot are still written
+    @PreDestroy
+    public void shutdown() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Rows are written in listing id order so two instances flushing at once take row locks in the
+    // same order. Each chunk commits on its own; a failed chunk leaves its deltas in memory for the next flush.
+    private void writePending() {
+        Map<Long, Pending> pending = new TreeMap<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            long total = counter.views.sum();
+            if (total == counter.flushed) {
+                // Idle since the last flush. A view racing this removal is lost, which the counts tolerate.
+                counters.remove(entry.getKey(), counter);
+            } else {
+                pending.put(entry.getKey(), new Pending(counter, total));
+            }
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(pending.keySet());
+        try {
+            for (int from = 0; from < ids.size(); from += FLUSH_CHUNK) {
+                List<Long> chunk = ids.subList(from, Math.min(from + FLUSH_CHUNK, ids.size()));
+                StringBuilder sql = new StringBuilder("INSERT INTO listing_views (listing_id, views, updated_at) VALUES ");
+                List<Object> args = new ArrayList<>(chunk.size() * 3);
+                Map<Long, Long> deltas = new HashMap<>();
+                for (Long id : chunk) {
+                    Pending views = pending.get(id);
+                    sql.append(args.isEmpty() ? "(?, ?, ?)" : ", (?, ?, ?)");
+                    args.add(id);
+                    args.add(views.total() - views.counter().flushed);
+                    args.add(now);
+                    deltas.put(id, views.total() - views.counter().flushed);
+                }
+                sql.append(" ON DUPLICATE KEY UPDATE views = views + VALUES(views), updated_at = VALUES(updated_at)");
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.update(sql.toString(), args.toArray());
+                    listingAnalyticsService.addViews(deltas, now);
+                });
+                chunk.forEach(id -> pending.get(id).counter().flushed = pending.get(id).total());
+            }
+        } catch (Exception e) {
+            log.warn("Could not flush listing view counts: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.status() != null) {
+            return;
+        }
+        counters.remove(event.listingId());
+        try {
+            jdbcTemplate.update("DELETE FROM listing_views WHERE listing_id = ?", event.listingId());
+        } catch (Exception e) {
+            log.warn("Could not delete view count of listing {}: {}", event.listingId(), e.getMessage());
+        }
+    }
+
+    // FNV-1a over the viewer, mixed with the listing id and finished with the MurmurHash3 64-bit mix
+    private static long hash(Long listingId, String viewer) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < viewer.length(); i++) {
+            hash ^= viewer.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= listingId * 0x9e3779b97f4a7c15L;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    // Fixed-size Bloom filter; bit positions come from the two halves of one 64-bit hash
+    private static final class ViewerFilter {
+        private final AtomicLongArray words;
+        private final long mask;
+
+        private ViewerFilter(int bitsLog2) {
+            this.words = new AtomicLongArray(1 << (bitsLog2 - 6));
+            this.mask = (1L << bitsLog2) - 1;
+        }
+
+        private boolean mightContain(long hash) {
+            for (int i = 0; i < HASHES; i++) {
+                long bit = bit(hash, i);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // True if any bit was newly set, i.e. the pair was not (probably) seen before
+        private boolean add(long hash) {
+            boolean added = false;
+            for (int i = 0; i < HASHES; i++) {
+                long bit = bit(hash, i);
+                long bitMask = 1L << bit;
+                if ((words.getAndAccumulate((int) (bit >>> 6), bitMask, (word, m) -> word | m) & bitMask) == 0) {
+                    added = true;
+                }
+            }
+            return added;
+        }
+
+        private long bit(long hash, int i) {
+            return ((hash & 0xffffffffL) + (long) i * (hash >>> 32)) & mask;
+        }
+    }
+}
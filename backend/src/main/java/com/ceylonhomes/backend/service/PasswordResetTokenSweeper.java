@@ -0,0 +1,41 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.repository.PasswordResetTokenRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PasswordResetTokenSweeper {
+
+    private final PasswordResetTokenRepository resetTokenRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.password-reset.sweep-batch-size:500}")
+    private int batchSize;
+
+    // Delete expired and used reset tokens in small batches, each in its own short transaction
+    @Scheduled(fixedDelayString = "${app.password-reset.sweep-interval-ms:600000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int total = 0;
+        int deleted;
+        do {
+            Integer batch = transactionTemplate.execute(status ->
+                    resetTokenRepository.deleteExpiredOrUsed(now, batchSize));
+            deleted = batch != null ? batch : 0;
+            total += deleted;
+        } while (deleted == batchSize);
+
+        if (total > 0) {
+            log.info("Removed {} expired or used password reset tokens", total);
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.SavedSearchDTO;
+import com.ceylonhomes.backend.dto.SavedSearchRequest;
+import com.ceylonhomes.backend.entity.SavedSearch;
+import com.ceylonhomes.backend.entity.SavedSearchMatch;
+import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.repository.SavedSearchMatchRepository;
+import com.ceylonhomes.backend.repository.SavedSearchRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+// Saved searches and their alerts. When a listing goes from PENDING to APPROVED, SavedSearchIndex
+// finds the matching searches in memory and the matches are written in bulk off the request
+// thread. A scheduled job then mails each user one digest of their pending matches.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SavedSearchService {
+
+    private static final int MATCH_BATCH_SIZE = 1000;
+    private static final int MAX_DIGEST_LINES = 20;
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final SavedSearchMatchRepository savedSearchMatchRepository;
+    private final ListingRepository listingRepository;
+    private final SavedSearchIndex savedSearchIndex;
+    private final EmailService emailService;
+    private final JdbcTemplate jdbcTemplate;
+
+    // Writing matches can mean thousands of rows for a popular listing, so it runs here rather than
+    // delaying the admin's approve request
+    private final ThreadPoolExecutor matchExecutor = new ThreadPoolExecutor(
+        1, 1, 0L, TimeUnit.MILLISECONDS,
+        new ArrayBlockingQueue<>(1000),
+        runnable -> {
+            Thread thread = new Thread(runnable, "saved-search-matcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+    @Value("${app.saved-searches.max-per-user:20}")
+    private int maxPerUser;
+
+    @Value("${app.saved-searches.digest-batch:5000}")
+    private int digestBatch;
+
+    @Transactional(readOnly = true)
+    public List<SavedSearchDTO> getSavedSearches(User user) {
+        return savedSearchRepository.findByUserIdOrderByCreatedAtDesc(user.getId())
+                .stream()
+                .map(this::convertToDTO)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional
+    public SavedSearchDTO createSavedSearch(User user, SavedSearchRequest request) {
+        if (request.getMinPrice() != null && request.getMaxPrice() != null
+                && request.getMinPrice().compareTo(request.getMaxPrice()) > 0) {
+            throw new RuntimeException("Minimum price cannot be above maximum price");
+        }
+        if (savedSearchRepository.countByUserId(user.getId()) >= maxPerUser) {
+            throw new RuntimeException("You can save up to " + maxPerUser + " searches");
+        }
+
+        SavedSearch search = new SavedSearch();
+        search.setUser(user);
+        search.setName(blankToNull(request.getName()));
+        search.setDistrict(blankToNull(request.getDistrict()));
+        search.setCity(blankToNull(request.getCity()));
+        search.setRentOrSale(request.getRentOrSale());
+        search.setPropertyType(request.getPropertyType());
+        search.setMinPrice(request.getMinPrice());
+        search.setMaxPrice(request.getMaxPrice());
+        search.setBedrooms(request.getBedrooms());
+        search.setBathrooms(request.getBathrooms());
+        SavedSearch saved = savedSearchRepository.save(search);
+
+        afterCommit(() -> savedSearchIndex.put(saved));
+        return convertToDTO(saved);
+    }
+
+    @Transactional
+    public void deleteSavedSearch(User user, Long id) {
+        SavedSearch search = savedSearchRepository.findByIdAndUserId(id, user.getId())
+                .orElseThrow(() -> new RuntimeException("Saved search not found"));
+        savedSearchMatchRepository.deleteBySavedSearchId(id);
+        savedSearchRepository.delete(search);
+
+        afterCommit(() -> savedSearchIndex.remove(id));
+    }
+
+    // Newly approved listings only; re-approvals after an edit are skipped by the unique
+    // (search, listing) pair when the matches are written
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onListingChanged(ListingChangedEvent event) {
+        if (event.status() != ListingStatus.APPROVED || event.previousStatus() != ListingStatus.PENDING
+                || !savedSearchIndex.isReady()) {
+            return;
+        }
+        List<Object[]> rows = listingRepository.findIndexRowById(event.listingId());
+        if (rows.isEmpty() || rows.get(0)[10] != ListingStatus.APPROVED) {
+            return;
+        }
+        List<Long> matched = savedSearchIndex.match(rows.get(0));
+        if (matched.isEmpty()) {
+            return;
+        }
+        try {
+            matchExecutor.execute(() -> recordMatches(event.listingId(), matched));
+        } catch (RejectedExecutionException e) {
+            log.warn("Saved search match queue is full; recording {} matches on the calling thread", matched.size());
+            recordMatches(event.listingId(), matched);
+        }
+    }
+
+    // One multi-row INSERT IGNORE per chunk. The unique (search, listing) key skips searches that
+    // already matched this listing (re-approvals, a retried event), and the foreign key skips searches
+    // deleted on another instance but still in this instance's index. A failing chunk is logged and
+    // the remaining chunks are still written.
+    private void recordMatches(Long listingId, List<Long> savedSearchIds) {
+        LocalDateTime now = LocalDateTime.now();
+        int recorded = 0;
+        int failed = 0;
+        for (int from = 0; from < savedSearchIds.size(); from += MATCH_BATCH_SIZE) {
+            List<Long> chunk = savedSearchIds.subList(from, Math.min(from + MATCH_BATCH_SIZE, savedSearchIds.size()));
+            StringBuilder sql = new StringBuilder(
+                    "INSERT IGNORE INTO saved_search_matches (saved_search_id, listing_id, created_at) VALUES ");
+            List<Object> args = new ArrayList<>(chunk.size() * 3);
+            for (Long savedSearchId : chunk) {
+                sql.append(args.isEmpty() ? "(?, ?, ?)" : ", (?, ?, ?)");
+                args.add(savedSearchId);
+                args.add(listingId);
+                args.add(now);
+            }
+            try {
+                recorded += jdbcTemplate.update(sql.toString(), args.toArray());
+            } catch (Exception e) {
+                failed += chunk.size();
+                log.error("Failed to record {} saved search matches for listing {}: {}", chunk.size(), listingId, e.getMessage());
+            }
+        }
+        log.info("Listing {} matched {} saved searches ({} new, {} failed)", listingId, savedSearchIds.size(), recorded, failed);
+    }
+
+    // Mails each user one digest of their pending matches. Rows are claimed with SKIP LOCKED so
+    // several instances can run this at once without sending the same match twice.
+    @Scheduled(fixedDelayString = "${app.saved-searches.digest-ms:600000}")
+    @Transactional
+    public void sendDigests() {
+        List<SavedSearchMatch> pending = savedSearchMatchRepository.findPendingForUpdate(PageRequest.of(0, digestBatch));
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        // Group by user, one line per listing even when several of their searches matched it
+        Map<Long, Digest> digests = new LinkedHashMap<>();
+        List<Long> ids = pending.stream().map(SavedSearchMatch::getId).toList();
+        for (Object[] row : savedSearchMatchRepository.findDigestRows(ids)) {
+            if (row[10] != ListingStatus.APPROVED) {
+                continue;
+            }
+            Digest digest = digests.computeIfAbsent((Long) row[1], userId -> new Digest((String) row[2], (String) row[3]));
+            digest.lines().putIfAbsent((Long) row[5], digestLine((String) row[4], (String) row[6],
+                    (BigDecimal) row[7], (String) row[8], (String) row[9]));
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        pending.forEach(match -> match.setNotifiedAt(now));
+
+        // Queue the mails only once the rows are marked as sent
+        afterCommit(() -> digests.values().forEach(digest -> {
+            List<String> lines = new ArrayList<>(digest.lines().values());
+            if (lines.size() > MAX_DIGEST_LINES) {
+                int more = lines.size() - MAX_DIGEST_LINES;
+                lines = new ArrayList<>(lines.subList(0, MAX_DIGEST_LINES));
+                lines.add("...and " + more + " more");
+            }
+            emailService.sendSavedSearchDigest(digest.email(), digest.name(), lines);
+        }));
+        log.info("Saved search digest: {} matches, {} users", pending.size(), digests.size());
+    }
+
+    public int getMatchQueueSize() {
+        return matchExecutor.getQueue().size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        matchExecutor.shutdown();
+        try {
+            if (!matchExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+                matchExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            matchExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String digestLine(String searchName, String title, BigDecimal price, String city, String district) {
+        String formattedPrice = NumberFormat.getIntegerInstance(Locale.US).format(price);
+        return "- " + title + " - LKR " + formattedPrice + " (" + city + ", " + district + ")"
+                + (searchName != null ? " [" + searchName + "]" : "");
+    }
+
+    private static void afterCommit(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private SavedSearchDTO convertToDTO(SavedSearch search) {
+        return new SavedSearchDTO(
+                search.getId(),
+                search.getName(),
+                search.getDistrict(),
+                search.getCity(),
+                search.getRentOrSale(),
+                search.getPropertyType(),
+                search.getMinPrice(),
+                search.getMaxPrice(),
+                search.getBedrooms(),
+                search.getBathrooms(),
+                search.getCreatedAt());
+    }
+
+    private record Digest(String email, String name, Map<Long, String> lines) {
+        Digest(String email, String name) {
+            this(email, name, new LinkedHashMap<>());
+        }
+    }
+}
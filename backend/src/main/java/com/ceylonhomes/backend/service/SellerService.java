@@ -6,11 +6,13 @@ import com.ceylonhomes.backend.entity.Listing;
 import com.ceylonhomes.backend.entity.ListingPhoto;
 import com.ceylonhomes.backend.entity.User;
 import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
 import com.ceylonhomes.backend.repository.InquiryRepository;
 import com.ceylonhomes.backend.repository.ListingPhotoRepository;
 import com.ceylonhomes.backend.repository.ListingRepository;
 import com.ceylonhomes.backend.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -40,6 +42,7 @@ public class SellerService {
     private final UserRepository userRepository;
     private final FileStorageService fileStorageService;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
 
     private static final String UPLOAD_DIR = "uploads/listings/";
 
@@ -100,7 +103,9 @@ public class SellerService {
         long rented = allListings.stream().filter(l -> l.getStatus() == ListingStatus.RENTED).count();
         long archived = allListings.stream().filter(l -> l.getStatus() == ListingStatus.ARCHIVED).count();
 
-        return new ListingSummaryDTO(pending, approved, rejected, sold, rented, archived);
+        long views = allListings.stream().mapToLong(l -> l.getViewCount() != null ? l.getViewCount() : 0).sum();
+
+        return new ListingSummaryDTO(pending, approved, rejected, sold, rented, archived, views);
     }
 
     @Transactional
@@ -125,9 +130,11 @@ public class SellerService {
         listing.setContactWhatsapp(request.getContactWhatsapp());
         listing.setAvailabilityStart(request.getAvailabilityStart());
         listing.setAvailabilityEnd(request.getAvailabilityEnd());
+        ListingLocations.apply(listing, request.getLatitude(), request.getLongitude());
         listing.setStatus(ListingStatus.PENDING);
 
         Listing savedListing = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(savedListing.getId(), null, ListingStatus.PENDING));
 
         // Save photos
         if (photos != null && !photos.isEmpty()) {
@@ -166,6 +173,7 @@ public class SellerService {
         listing.setContactWhatsapp(request.getContactWhatsapp());
         listing.setAvailabilityStart(request.getAvailabilityStart());
         listing.setAvailabilityEnd(request.getAvailabilityEnd());
+        ListingLocations.apply(listing, request.getLatitude(), request.getLongitude());
 
         // If listing was APPROVED and seller edits it, set back to PENDING
         if (oldStatus == ListingStatus.APPROVED) {
@@ -173,6 +181,7 @@ public class SellerService {
         }
 
         Listing updatedListing = listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, oldStatus, updatedListing.getStatus()));
 
         emailService.sendListingUpdatedNotification(updatedListing);
 
@@ -200,6 +209,7 @@ public class SellerService {
         listing.setStatus(ListingStatus.SOLD);
         listing.setClosedAt(LocalDateTime.now());
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, ListingStatus.APPROVED, ListingStatus.SOLD));
     }
 
     @Transactional
@@ -218,6 +228,7 @@ public class SellerService {
         listing.setStatus(ListingStatus.RENTED);
         listing.setClosedAt(LocalDateTime.now());
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, ListingStatus.APPROVED, ListingStatus.RENTED));
     }
 
     @Transactional
@@ -229,8 +240,10 @@ public class SellerService {
             throw new AccessDeniedException("You can only archive your own listings");
         }
 
+        ListingStatus previousStatus = listing.getStatus();
         listing.setStatus(ListingStatus.ARCHIVED);
         listingRepository.save(listing);
+        eventPublisher.publishEvent(new ListingChangedEvent(listingId, previousStatus, ListingStatus.ARCHIVED));
     }
 
     @Transactional
@@ -249,6 +262,7 @@ public class SellerService {
 
         // Delete the listing (this will cascade delete photos and inquiries)
         listingRepository.delete(listing);
+        eventPublisher.publishEvent(ListingChangedEvent.deleted(listingId, listing.getStatus()));
     }
 
     @Transactional
@@ -266,6 +280,9 @@ public class SellerService {
         Files.deleteIfExists(filePath);
 
         listingPhotoRepository.delete(photo);
+        // Touch updated_at so other instances' syncs see the change
+        listing.setUpdatedAt(LocalDateTime.now());
+        eventPublisher.publishEvent(new ListingChangedEvent(listing.getId(), listing.getStatus(), listing.getStatus()));
     }
 
     @Transactional(readOnly = true)
@@ -280,11 +297,15 @@ public class SellerService {
             .collect(Collectors.toList());
     }
 
+    // Only the newest few rows are read; new ones arrive on the inbox stream (GET /api/inquiries/stream)
     @Transactional(readOnly = true)
     public List<SellerInquiryDTO> getRecentInquiries(String email, int limit) {
-        List<SellerInquiryDTO> allInquiries = getSellerInquiries(email);
-        return allInquiries.stream()
-            .limit(limit)
+        User seller = userRepository.findByEmail(email)
+            .orElseThrow(() -> new RuntimeException("Seller not found"));
+
+        return inquiryRepository.findRecentByOwnerId(seller.getId(), PageRequest.of(0, Math.max(1, Math.min(limit, 50))))
+            .stream()
+            .map(this::convertInquiryToDTO)
             .collect(Collectors.toList());
     }
 
@@ -326,11 +347,14 @@ public class SellerService {
         dto.setContactWhatsapp(listing.getContactWhatsapp());
         dto.setAvailabilityStart(listing.getAvailabilityStart());
         dto.setAvailabilityEnd(listing.getAvailabilityEnd());
+        dto.setLatitude(listing.getLatitude());
+        dto.setLongitude(listing.getLongitude());
         dto.setStatus(listing.getStatus());
         dto.setRejectionReason(listing.getRejectionReason());
         dto.setClosedAt(listing.getClosedAt());
         dto.setCreatedAt(listing.getCreatedAt());
         dto.setUpdatedAt(listing.getUpdatedAt());
+        dto.setViewCount(listing.getViewCount() != null ? listing.getViewCount() : 0);
 
         List<String> photoUrls = listing.getPhotos().stream()
             .map(photo -> {
@@ -0,0 +1,162 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.security.AccessToken;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+// Open server-sent event streams per user. An SseEmitter runs in servlet async mode, so an idle
+// connection holds a socket and a few hundred bytes here but no request thread. Writes go through a
+// small pool so a slow client never blocks the request that produced the event. Owners call
+// heartbeat() on a schedule to keep proxies from closing idle streams and to find dead ones, and
+// closeRevoked() so a stream does not outlive the access token it was opened with.
+@Slf4j
+final class SseEmitterRegistry {
+
+    private final String name;
+    // Per user, each open stream and the access token that opened it
+    private final ConcurrentHashMap<Long, Map<SseEmitter, AccessToken>> emitters = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final ThreadPoolExecutor sendExecutor;
+    private final long timeoutMs;
+    private final int maxStreamsPerUser;
+
+    SseEmitterRegistry(String name, long timeoutMs, int maxStreamsPerUser, int sendThreads, int sendQueueCapacity) {
+        this.name = name;
+        this.timeoutMs = timeoutMs;
+        this.maxStreamsPerUser = maxStreamsPerUser;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.sendExecutor = new ThreadPoolExecutor(
+            sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(sendQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, name + "-push-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    SseEmitter register(Long userId, AccessToken token) {
+        SseEmitter emitter = new SseEmitter(timeoutMs);
+        List<SseEmitter> evicted = new ArrayList<>();
+        emitters.compute(userId, (id, userEmitters) -> {
+            Map<SseEmitter, AccessToken> streams = userEmitters != null ? userEmitters : new ConcurrentHashMap<>();
+            // Too many tabs or leaked connections: drop the extra ones rather than grow without bound
+            for (SseEmitter existing : streams.keySet()) {
+                if (streams.size() - evicted.size() < maxStreamsPerUser) {
+                    break;
+                }
+                evicted.add(existing);
+            }
+            evicted.forEach(streams::remove);
+            streams.put(emitter, token);
+            return streams;
+        });
+        connectionCount.addAndGet(1 - evicted.size());
+        evicted.forEach(SseEmitter::complete);
+
+        emitter.onCompletion(() -> remove(userId, emitter));
+        emitter.onTimeout(() -> remove(userId, emitter));
+        emitter.onError(error -> remove(userId, emitter));
+        return emitter;
+    }
+
+    boolean isConnected(Long userId) {
+        return emitters.containsKey(userId);
+    }
+
+    boolean hasConnections() {
+        return !emitters.isEmpty();
+    }
+
+    int getConnectionCount() {
+        return connectionCount.get();
+    }
+
+    int getSendQueueSize() {
+        return sendExecutor.getQueue().size();
+    }
+
+    void send(Long userId, String eventName, Object data) {
+        Map<SseEmitter, AccessToken> userEmitters = emitters.get(userId);
+        if (userEmitters == null) {
+            return;
+        }
+        for (SseEmitter emitter : userEmitters.keySet()) {
+            dispatch(userId, emitter, () -> SseEmitter.event().name(eventName).data(data, MediaType.APPLICATION_JSON));
+        }
+    }
+
+    void sendToAll(String eventName, Object data) {
+        emitters.keySet().forEach(userId -> send(userId, eventName, data));
+    }
+
+    void heartbeat() {
+        emitters.forEach((userId, userEmitters) -> userEmitters.keySet().forEach(
+            emitter -> dispatch(userId, emitter, () -> SseEmitter.event().comment("ping"))));
+    }
+
+    // Completes the streams whose access token has been revoked (logout, "log out everywhere",
+    // deactivation). The client's reconnect then fails authentication like any other request.
+    int closeRevoked(Predicate<AccessToken> revoked) {
+        List<SseEmitter> closed = new ArrayList<>();
+        emitters.forEach((userId, userEmitters) -> userEmitters.forEach((emitter, token) -> {
+            if (revoked.test(token)) {
+                remove(userId, emitter);
+                closed.add(emitter);
+            }
+        }));
+        closed.forEach(SseEmitter::complete);
+        return closed.size();
+    }
+
+    void shutdown() {
+        emitters.values().forEach(userEmitters -> userEmitters.keySet().forEach(SseEmitter::complete));
+        emitters.clear();
+        sendExecutor.shutdown();
+    }
+
+    // A builder is made per emitter: SseEventBuilder.build() is not safe to call twice
+    private void dispatch(Long userId, SseEmitter emitter, EventFactory event) {
+        try {
+            sendExecutor.execute(() -> {
+                try {
+                    emitter.send(event.create());
+                } catch (IOException | IllegalStateException e) {
+                    // Client went away or the emitter already completed
+                    remove(userId, emitter);
+                    emitter.completeWithError(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Clients reload on reconnect, so dropping one push is recoverable
+            log.warn("{} push queue is full; dropping an event for user {}", name, userId);
+        }
+    }
+
+    private void remove(Long userId, SseEmitter emitter) {
+        emitters.computeIfPresent(userId, (id, userEmitters) -> {
+            if (userEmitters.remove(emitter) != null) {
+                connectionCount.decrementAndGet();
+            }
+            return userEmitters.isEmpty() ? null : userEmitters;
+        });
+    }
+
+    @FunctionalInterface
+    private interface EventFactory {
+        SseEmitter.SseEventBuilder create();
+    }
+}
@@ -7,16 +7,29 @@ import com.ceylonhomes.backend.enums.Role;
 import com.ceylonhomes.backend.repository.PasswordResetTokenRepository;
 import com.ceylonhomes.backend.repository.UserRepository;
 import com.ceylonhomes.backend.security.JwtTokenProvider;
+import com.ceylonhomes.backend.security.PasswordHashingExecutor;
+import com.ceylonhomes.backend.security.PasswordHashingExecutor.PasswordHashingBusyException;
+import com.ceylonhomes.backend.security.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import jakarta.persistence.EntityManagerFactory;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 @RequiredArgsConstructor
@@ -28,8 +41,25 @@ public class UserService {
     private final AuthenticationManager authenticationManager;
     private final PasswordResetTokenRepository resetTokenRepository;
     private final EmailService emailService;
+    private final PasswordHashingExecutor passwordHashingExecutor;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
+    private final EntityManagerFactory entityManagerFactory;
+    private final TransactionTemplate transactionTemplate;
 
-    @Transactional
+    // Last time a reset code was issued per email; lets repeat requests fail before touching the DB or SMTP.
+    // Bounded: entries past their cooldown are swept, and a new email is refused while the map is full.
+    private final Map<String, Long> resetCodeIssuedAt = new ConcurrentHashMap<>();
+    private volatile long lastThrottlePurge;
+
+    @Value("${app.password-reset.cooldown-seconds:60}")
+    private long resetCooldownSeconds;
+
+    @Value("${app.password-reset.max-throttled-emails:50000}")
+    private int maxThrottledEmails;
+
+    // Not @Transactional: the password is hashed before the transaction opens, so a request queued
+    // on the hashing pool does not hold a database connection while it waits
     public AuthResponse register(RegisterRequest request) {
         // Validate passwords match
         if (!request.getPassword().equals(request.getConfirmPassword())) {
@@ -46,12 +76,19 @@ public class UserService {
             throw new RuntimeException("Phone number already exists");
         }
 
+        String passwordHash = passwordHashingExecutor.execute(() -> passwordEncoder.encode(request.getPassword()));
+
+        // The unique keys on email and phone still reject a duplicate registered since the checks above
+        return transactionTemplate.execute(status -> createUser(request, passwordHash));
+    }
+
+    private AuthResponse createUser(RegisterRequest request, String passwordHash) {
         // Create new user
         User user = new User();
         user.setName(request.getName());
         user.setEmail(request.getEmail());
         user.setPhone(request.getPhone());
-        user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
+        user.setPasswordHash(passwordHash);
         user.setRole(Role.SELLER); // Default role for registration
         user.setIsActive(true);
 
@@ -73,7 +110,7 @@ public class UserService {
                 savedUser.getRole()
         );
 
-        return new AuthResponse(token, userDTO);
+        return new AuthResponse(token, refreshTokenService.issue(savedUser), userDTO);
     }
 
     public AuthResponse login(LoginRequest request) {
@@ -81,11 +118,14 @@ public class UserService {
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("Email not registered"));
 
-        // Authenticate user - this will throw if password is wrong
+        // Authenticate user on the hashing pool - this will throw if password is wrong.
+        // A successful login also upgrades a weaker stored hash (see SecurityConfig.passwordEncoder).
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            Authentication authentication = passwordHashingExecutor.execute(() -> authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getEmail(), request.getPassword())
-            );
+            ));
+        } catch (PasswordHashingBusyException e) {
+            throw e;
         } catch (Exception e) {
             throw new RuntimeException("Wrong password");
         }
@@ -106,7 +146,62 @@ public class UserService {
                 user.getRole()
         );
 
-        return new AuthResponse(token, userDTO);
+        return new AuthResponse(token, refreshTokenService.issue(user), userDTO);
+    }
+
+    // Rotate the refresh token and issue a fresh short-lived access token
+    public AuthResponse refresh(RefreshTokenRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.user();
+
+        String token = jwtTokenProvider.generateToken(
+                user.getEmail(),
+                user.getId(),
+                user.getRole().name()
+        );
+
+        UserDTO userDTO = new UserDTO(
+                user.getId(),
+                user.getName(),
+                user.getEmail(),
+                user.getPhone(),
+                user.getRole()
+        );
+
+        return new AuthResponse(token, rotation.refreshToken(), userDTO);
+    }
+
+    // Revoke the presented access token and the refresh token family it belongs to
+    public void logout(String accessToken, String refreshToken) {
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (accessToken != null && !accessToken.isBlank()) {
+            try {
+                Claims claims = jwtTokenProvider.parseClaims(accessToken);
+                tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration().getTime());
+            } catch (Exception e) {
+                // Expired or invalid access tokens are already unusable
+            }
+        }
+    }
+
+    // Cut off every session of a user: refresh tokens stop rotating, access tokens are rejected within seconds
+    @Transactional
+    public void revokeAllSessions(Long userId) {
+        refreshTokenService.revokeAllForUser(userId);
+        tokenRevocationService.revokeAllForUser(userId);
+    }
+
+    @Transactional
+    public void setUserActive(Long userId, boolean active) {
+        User user = getUserById(userId);
+        user.setIsActive(active);
+        userRepository.save(user);
+
+        if (!active) {
+            revokeAllSessions(userId);
+        }
     }
 
     public User getUserByEmail(String email) {
@@ -145,6 +240,7 @@ public class UserService {
         user.setPhone(request.getPhone());
 
         User savedUser = userRepository.save(user);
+        evictCachedUserAfterCommit(savedUser.getId());
 
         return new UserDTO(
                 savedUser.getId(),
@@ -155,6 +251,22 @@ public class UserService {
         );
     }
 
+    // Owner names and phones are read from the User cache by every listing view. READ_WRITE caching
+    // already refreshes the entry on commit; evicting afterwards also drops a stale copy that a
+    // concurrent read-only transaction loaded from a lagging replica.
+    private void evictCachedUserAfterCommit(Long userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(User.class, userId);
+            }
+        });
+    }
+
+    public int getResetCodeThrottleSize() {
+        return resetCodeIssuedAt.size();
+    }
+
     public User getUserById(Long id) {
         return userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found"));
@@ -162,6 +274,8 @@ public class UserService {
 
     @Transactional
     public void sendPasswordResetCode(ForgotPasswordRequest request) {
+        acquireResetCodeSlot(request.getEmail());
+
         // Check if user exists
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("No account found with this email address"));
@@ -189,28 +303,81 @@ public class UserService {
         }
     }
 
-    @Transactional
+    // Not @Transactional, like register: the code is checked, the new password hashed outside any
+    // transaction, and the code checked again in the transaction that uses it
     public void resetPassword(ResetPasswordRequest request) {
-        // Verify code
-        PasswordResetToken token = resetTokenRepository
+        findResetToken(request);
+        String passwordHash = passwordHashingExecutor.execute(() -> passwordEncoder.encode(request.getNewPassword()));
+        transactionTemplate.executeWithoutResult(status -> applyPasswordReset(request, passwordHash));
+    }
+
+    private PasswordResetToken findResetToken(ResetPasswordRequest request) {
+        return resetTokenRepository
                 .findByEmailAndCodeAndUsedFalseAndExpiryTimeAfter(
                         request.getEmail(),
                         request.getCode(),
                         LocalDateTime.now()
                 )
                 .orElseThrow(() -> new RuntimeException("Invalid or expired verification code"));
+    }
+
+    private void applyPasswordReset(ResetPasswordRequest request, String passwordHash) {
+        // Verify code
+        PasswordResetToken token = findResetToken(request);
 
         // Get user
         User user = userRepository.findByEmail(request.getEmail())
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         // Update password
-        user.setPasswordHash(passwordEncoder.encode(request.getNewPassword()));
+        user.setPasswordHash(passwordHash);
         userRepository.save(user);
 
         // Mark token as used
         token.setUsed(true);
         resetTokenRepository.save(token);
+
+        // Sessions opened with the old password must not survive the reset
+        revokeAllSessions(user.getId());
+    }
+
+    // Evict throttle entries whose cooldown has passed so the map stays small
+    @Scheduled(fixedDelayString = "${app.password-reset.throttle-sweep-ms:60000}")
+    public void purgeResetCodeThrottle() {
+        lastThrottlePurge = System.currentTimeMillis();
+        long cutoff = lastThrottlePurge - resetCooldownSeconds * 1000;
+        resetCodeIssuedAt.values().removeIf(issuedAt -> issuedAt < cutoff);
+    }
+
+    private void acquireResetCodeSlot(String email) {
+        long now = System.currentTimeMillis();
+        long cooldownMillis = resetCooldownSeconds * 1000;
+        boolean[] throttled = {false};
+        String key = email.trim().toLowerCase(Locale.ROOT);
+
+        // A flood of random emails fills the map; refusing new ones keeps it bounded without dropping
+        // the cooldown of an email already in it
+        if (resetCodeIssuedAt.size() >= maxThrottledEmails && !resetCodeIssuedAt.containsKey(key)) {
+            // At most one inline sweep per second, so a flood does not scan the map on every request
+            if (now - lastThrottlePurge >= 1000) {
+                purgeResetCodeThrottle();
+            }
+            if (resetCodeIssuedAt.size() >= maxThrottledEmails) {
+                throw new RuntimeException("Too many password reset requests right now. Please try again in a minute.");
+            }
+        }
+
+        resetCodeIssuedAt.compute(key, (k, issuedAt) -> {
+            if (issuedAt != null && now - issuedAt < cooldownMillis) {
+                throttled[0] = true;
+                return issuedAt;
+            }
+            return now;
+        });
+
+        if (throttled[0]) {
+            throw new RuntimeException("A verification code was sent recently. Please wait before requesting another.");
+        }
     }
 
     private String generateSixDigitCode() {
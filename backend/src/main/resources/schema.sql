@@ -31,6 +31,8 @@ CREATE TABLE IF NOT EXISTS listings (
     bedrooms INT DEFAULT 0,
     bathrooms INT DEFAULT 0,
     size VARCHAR(50) NULL,
+    latitude DOUBLE NULL,   -- Rows from before coordinates existed are set to the district centre
+    longitude DOUBLE NULL,  -- at startup by ListingLocationBackfill
     contact_phone VARCHAR(30) NOT NULL,
     contact_whatsapp VARCHAR(30) NULL,
     availability_start DATE NULL,
@@ -38,16 +40,22 @@ CREATE TABLE IF NOT EXISTS listings (
     status ENUM('PENDING', 'APPROVED', 'REJECTED', 'SUSPENDED', 'SOLD', 'RENTED', 'ARCHIVED') NOT NULL DEFAULT 'PENDING',
     rejection_reason VARCHAR(255) NULL,
     closed_at DATETIME NULL,
+    claimed_by BIGINT NULL,
+    claim_expires_at DATETIME NULL,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     updated_at DATETIME DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     FOREIGN KEY (owner_id) REFERENCES users(id) ON DELETE CASCADE,
+    FOREIGN KEY (claimed_by) REFERENCES users(id) ON DELETE SET NULL,
     INDEX idx_status (status),
     INDEX idx_owner (owner_id),
     INDEX idx_district (district),
     INDEX idx_city (city),
     INDEX idx_rent_or_sale (rent_or_sale),
     INDEX idx_property_type (property_type),
-    INDEX idx_price (price)
+    INDEX idx_price (price),
+    INDEX idx_moderation_queue (status, claim_expires_at, created_at),
+    INDEX idx_status_closed (status, closed_at, updated_at),  -- Archival cutoff, with and without closed_at
+    INDEX idx_updated (updated_at)  -- Delta sync of the in-memory listing indexes
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Listing photos: Multiple photos per listing
@@ -58,20 +66,40 @@ CREATE TABLE IF NOT EXISTS listing_photos (
     sort_order INT DEFAULT 0,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (listing_id) REFERENCES listings(id) ON DELETE CASCADE,
-    INDEX idx_listing (listing_id)
+    INDEX idx_listing (listing_id),
+    INDEX idx_photo_listing_sort (listing_id, sort_order, id)  -- Cover photo: first row per listing
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
--- Inquiries: Buyer messages to sellers
+-- Inquiries: Buyer-seller conversations. message is the buyer's opening message; replies are in
+-- inquiry_messages. The unread counters are per side and reset when that side reads the thread.
 CREATE TABLE IF NOT EXISTS inquiries (
     id BIGINT AUTO_INCREMENT PRIMARY KEY,
     listing_id BIGINT NOT NULL,
     buyer_id BIGINT NOT NULL,
     message TEXT NOT NULL,
     created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    last_message_at DATETIME NULL,
+    buyer_unread INT NOT NULL DEFAULT 0,
+    seller_unread INT NOT NULL DEFAULT 0,
     FOREIGN KEY (listing_id) REFERENCES listings(id) ON DELETE CASCADE,
     FOREIGN KEY (buyer_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_listing (listing_id),
-    INDEX idx_buyer (buyer_id)
+    INDEX idx_buyer (buyer_id),
+    INDEX idx_inquiry_created (created_at)  -- Inbox push to users connected to other instances
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+-- Rows from before last_message_at existed are set at startup by InquiryLastMessageBackfill
+
+-- Inquiry messages: replies in a buyer-seller conversation
+CREATE TABLE IF NOT EXISTS inquiry_messages (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    inquiry_id BIGINT NOT NULL,
+    sender_id BIGINT NOT NULL,
+    message TEXT NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (inquiry_id) REFERENCES inquiries(id) ON DELETE CASCADE,
+    FOREIGN KEY (sender_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_inquiry_message_thread (inquiry_id, id),
+    INDEX idx_inquiry_message_created (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
 
 -- Reports: User reports about listings
@@ -100,5 +128,187 @@ CREATE TABLE IF NOT EXISTS approval_actions (
     FOREIGN KEY (listing_id) REFERENCES listings(id) ON DELETE CASCADE,
     FOREIGN KEY (admin_id) REFERENCES users(id) ON DELETE CASCADE,
     INDEX idx_listing (listing_id),
-    INDEX idx_admin (admin_id)
+    INDEX idx_admin (admin_id),
+    INDEX idx_created_id (created_at, id),
+    INDEX idx_admin_created (admin_id, created_at),
+    INDEX idx_action_created (action, created_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Approval actions archive: months moved out of approval_actions. No foreign keys, so archived
+-- rows outlive their listing and admin. Plain table: the admin history views read it together with
+-- approval_actions. Databases created from the earlier partitioned definition keep working as is;
+-- ALTER TABLE approval_actions_archive REMOVE PARTITIONING brings them in line.
+CREATE TABLE IF NOT EXISTS approval_actions_archive (
+    id BIGINT NOT NULL,
+    listing_id BIGINT NOT NULL,
+    admin_id BIGINT NOT NULL,
+    action ENUM('APPROVED', 'REJECTED', 'SUSPENDED', 'UNSUSPENDED') NOT NULL,
+    note VARCHAR(255) NULL,
+    created_at DATETIME NOT NULL,
+    archived_at DATETIME NULL,
+    archive_reason ENUM('MONTHLY', 'LISTING') NULL,  -- Only LISTING rows go back when the listing is restored
+    PRIMARY KEY (id),
+    INDEX idx_archive_created (created_at),
+    INDEX idx_archive_listing (listing_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Password reset tokens: short-lived email verification codes
+CREATE TABLE IF NOT EXISTS password_reset_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    email VARCHAR(255) NOT NULL,
+    code VARCHAR(255) NOT NULL,
+    expiry_time DATETIME NOT NULL,
+    used BOOLEAN NOT NULL,
+    INDEX idx_reset_lookup (email, code, used, expiry_time),
+    INDEX idx_reset_expiry (expiry_time)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Refresh tokens: only the SHA-256 of each token is stored; rotation keeps the family id
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    token_hash VARCHAR(64) NOT NULL,
+    family_id VARCHAR(36) NOT NULL,
+    expires_at DATETIME NOT NULL,
+    revoked BOOLEAN NOT NULL DEFAULT FALSE,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    UNIQUE INDEX idx_refresh_token_hash (token_hash),
+    INDEX idx_refresh_family (family_id),
+    INDEX idx_refresh_user (user_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Revoked access tokens (by jti) and per-user cutoffs, synced into memory by every instance
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    jti VARCHAR(36) NULL,
+    user_id BIGINT NULL,
+    cutoff_millis BIGINT NULL,
+    expires_at DATETIME NOT NULL,
+    INDEX idx_revoked_expires (expires_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Archive tables: closed listings older than app.archival.closed-days and their dependent rows.
+-- Same columns as the live tables, original ids kept, no foreign keys.
+CREATE TABLE IF NOT EXISTS listings_archive (
+    id BIGINT PRIMARY KEY,
+    owner_id BIGINT NOT NULL,
+    title VARCHAR(150) NOT NULL,
+    description TEXT NOT NULL,
+    rent_or_sale ENUM('RENT', 'SALE') NOT NULL,
+    property_type ENUM('HOUSE', 'ROOM', 'ANNEX', 'BOARDING') NOT NULL,
+    price DECIMAL(12, 2) NOT NULL,
+    district VARCHAR(80) NOT NULL,
+    city VARCHAR(80) NOT NULL,
+    address VARCHAR(255) NOT NULL,
+    bedrooms INT DEFAULT 0,
+    bathrooms INT DEFAULT 0,
+    size VARCHAR(50) NULL,
+    latitude DOUBLE NULL,
+    longitude DOUBLE NULL,
+    contact_phone VARCHAR(30) NOT NULL,
+    contact_whatsapp VARCHAR(30) NULL,
+    availability_start DATE NULL,
+    availability_end DATE NULL,
+    status ENUM('PENDING', 'APPROVED', 'REJECTED', 'SUSPENDED', 'SOLD', 'RENTED', 'ARCHIVED') NOT NULL,
+    rejection_reason VARCHAR(255) NULL,
+    closed_at DATETIME NULL,
+    created_at DATETIME NULL,
+    updated_at DATETIME NULL,
+    archived_at DATETIME NULL,
+    INDEX idx_listings_archive_owner (owner_id, closed_at)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS listing_photos_archive (
+    id BIGINT PRIMARY KEY,
+    listing_id BIGINT NOT NULL,
+    url VARCHAR(255) NOT NULL,
+    sort_order INT DEFAULT 0,
+    created_at DATETIME NULL,
+    INDEX idx_photos_archive_listing (listing_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS inquiries_archive (
+    id BIGINT PRIMARY KEY,
+    listing_id BIGINT NOT NULL,
+    buyer_id BIGINT NOT NULL,
+    message TEXT NOT NULL,
+    created_at DATETIME NULL,
+    last_message_at DATETIME NULL,
+    INDEX idx_inquiries_archive_listing (listing_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS inquiry_messages_archive (
+    id BIGINT PRIMARY KEY,
+    inquiry_id BIGINT NOT NULL,
+    listing_id BIGINT NOT NULL,
+    sender_id BIGINT NOT NULL,
+    message TEXT NOT NULL,
+    created_at DATETIME NULL,
+    INDEX idx_inquiry_messages_archive_listing (listing_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+CREATE TABLE IF NOT EXISTS reports_archive (
+    id BIGINT PRIMARY KEY,
+    listing_id BIGINT NOT NULL,
+    reporter_id BIGINT NOT NULL,
+    reason VARCHAR(120) NOT NULL,
+    details TEXT NULL,
+    status VARCHAR(10) NULL,
+    created_at DATETIME NULL,
+    INDEX idx_reports_archive_listing (listing_id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Saved searches: buyer filters alerted when a matching listing is approved (NULL = any)
+CREATE TABLE IF NOT EXISTS saved_searches (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    name VARCHAR(100) NULL,
+    district VARCHAR(80) NULL,
+    city VARCHAR(80) NULL,
+    rent_or_sale ENUM('RENT', 'SALE') NULL,
+    property_type ENUM('HOUSE', 'ROOM', 'ANNEX', 'BOARDING') NULL,
+    min_price DECIMAL(12, 2) NULL,
+    max_price DECIMAL(12, 2) NULL,
+    bedrooms INT NULL,
+    bathrooms INT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+    INDEX idx_saved_search_user (user_id),
+    INDEX idx_saved_search_created (created_at)  -- Delta sync of the in-memory saved search index
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Listings matched by saved searches, pending until mailed in a digest (no FK on listing_id so
+-- listings can still be deleted or archived)
+CREATE TABLE IF NOT EXISTS saved_search_matches (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    saved_search_id BIGINT NOT NULL,
+    listing_id BIGINT NOT NULL,
+    created_at DATETIME DEFAULT CURRENT_TIMESTAMP,
+    notified_at DATETIME NULL,
+    FOREIGN KEY (saved_search_id) REFERENCES saved_searches(id) ON DELETE CASCADE,
+    UNIQUE KEY uk_saved_search_listing (saved_search_id, listing_id),
+    INDEX idx_saved_search_match_listing (listing_id),
+    INDEX idx_saved_search_match_pending (notified_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Distinct-viewer counts per listing, flushed in batches by ListingViewCounter (no FK on listing_id
+-- so counts survive archiving and restoring a listing)
+CREATE TABLE IF NOT EXISTS listing_views (
+    listing_id BIGINT PRIMARY KEY,
+    views BIGINT NOT NULL DEFAULT 0,
+    updated_at DATETIME NULL
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
+
+-- Views and inquiries per listing and hour or day, written by ListingAnalyticsService. Hourly
+-- buckets are folded into daily ones after a couple of days (no FK on listing_id, like listing_views)
+CREATE TABLE IF NOT EXISTS listing_stat_buckets (
+    listing_id BIGINT NOT NULL,
+    bucket_start DATETIME NOT NULL,
+    granularity VARCHAR(8) NOT NULL,
+    views BIGINT NOT NULL DEFAULT 0,
+    inquiries BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (listing_id, bucket_start, granularity),
+    INDEX idx_stat_series (listing_id, bucket_start),
+    INDEX idx_stat_compaction (granularity, bucket_start)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci;
@@ -0,0 +1,153 @@
+package com.ceylonhomes.backend;
+
+import com.ceylonhomes.backend.entity.Inquiry;
+import com.ceylonhomes.backend.entity.Listing;
+import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.enums.Role;
+import com.ceylonhomes.backend.repository.ListingArchiveRepository;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.repository.UserRepository;
+import com.ceylonhomes.backend.service.ListingArchivalService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Archiving a closed listing and restoring it against the test profile's own schema. Archived
+// rows that cannot go back, because their user was deleted meanwhile, must stay in the archive.
+@SpringBootTest
+@ActiveProfiles("test")
+class ListingArchivalTests {
+
+    private static final String SELLER_EMAIL = "archival-seller@test.ceylonhomes.lk";
+
+    @Autowired
+    private ListingArchivalService listingArchivalService;
+
+    @Autowired
+    private ListingArchiveRepository listingArchiveRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> users = new ArrayList<>();
+    private Long listingId;
+
+    @AfterEach
+    void deleteFixture() {
+        if (listingId != null) {
+            jdbcTemplate.update("DELETE FROM inquiries_archive WHERE listing_id = ?", listingId);
+            jdbcTemplate.update("DELETE FROM listing_photos_archive WHERE listing_id = ?", listingId);
+            jdbcTemplate.update("DELETE FROM listings_archive WHERE id = ?", listingId);
+            listingRepository.findById(listingId).ifPresent(listingRepository::delete);
+        }
+        users.stream().filter(user -> userRepository.existsById(user.getId())).forEach(userRepository::delete);
+    }
+
+    @Test
+    void inquiryOfADeletedBuyerStaysInTheArchiveWhenTheListingIsRestored() {
+        User seller = save(newUser("Archival Seller", SELLER_EMAIL, "+94770000011", Role.SELLER));
+        User buyer = save(newUser("Archival Buyer", "archival-buyer@test.ceylonhomes.lk", "+94770000012", Role.USER));
+        User goneBuyer = save(newUser("Archival Gone Buyer", "archival-gone@test.ceylonhomes.lk", "+94770000013", Role.USER));
+
+        Listing listing = newListing(seller);
+        listing.getInquiries().add(newInquiry(listing, buyer));
+        listing.getInquiries().add(newInquiry(listing, goneBuyer));
+        listingId = listingRepository.save(listing).getId();
+
+        archive(listingId);
+        userRepository.delete(goneBuyer);
+
+        listingArchivalService.restoreListing(SELLER_EMAIL, listingId);
+
+        assertThat(count("SELECT COUNT(*) FROM listings WHERE id = ?")).isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT buyer_id FROM inquiries WHERE listing_id = ?", Long.class, listingId))
+                .containsExactly(buyer.getId());
+        assertThat(jdbcTemplate.queryForList("SELECT buyer_id FROM inquiries_archive WHERE listing_id = ?", Long.class, listingId))
+                .containsExactly(goneBuyer.getId());
+        assertThat(count("SELECT COUNT(*) FROM listings_archive WHERE id = ?")).isZero();
+    }
+
+    // The same statements as one batch of ListingArchivalService.archiveClosedListings, for one listing
+    private void archive(Long id) {
+        List<Long> ids = List.of(id);
+        transactionTemplate.executeWithoutResult(status -> {
+            listingArchiveRepository.copyListingsToArchive(ids);
+            listingArchiveRepository.copyPhotosToArchive(ids);
+            listingArchiveRepository.copyInquiriesToArchive(ids);
+            listingArchiveRepository.copyInquiryMessagesToArchive(ids);
+            listingArchiveRepository.copyApprovalActionsToArchive(ids);
+            listingArchiveRepository.deleteLiveApprovalActions(ids);
+            listingArchiveRepository.deleteLiveInquiryMessages(ids);
+            listingArchiveRepository.deleteLiveInquiries(ids);
+            listingArchiveRepository.deleteLivePhotos(ids);
+            listingArchiveRepository.deleteLiveListings(ids);
+        });
+    }
+
+    private long count(String sql) {
+        Long count = jdbcTemplate.queryForObject(sql, Long.class, listingId);
+        return count != null ? count : 0;
+    }
+
+    private User save(User user) {
+        User saved = userRepository.save(user);
+        users.add(saved);
+        return saved;
+    }
+
+    private static Listing newListing(User seller) {
+        Listing listing = new Listing();
+        listing.setOwner(seller);
+        listing.setTitle("Archival listing");
+        listing.setDescription("Archival fixture");
+        listing.setRentOrSale(RentOrSale.SALE);
+        listing.setPropertyType(PropertyType.HOUSE);
+        listing.setPrice(BigDecimal.valueOf(25_000_000));
+        listing.setDistrict("Colombo");
+        listing.setCity("Dehiwala");
+        listing.setAddress("1 Galle Road");
+        listing.setContactPhone("+94770000011");
+        listing.setStatus(ListingStatus.SOLD);
+        return listing;
+    }
+
+    private static Inquiry newInquiry(Listing listing, User buyer) {
+        Inquiry inquiry = new Inquiry();
+        inquiry.setListing(listing);
+        inquiry.setBuyer(buyer);
+        inquiry.setMessage("Is this still available?");
+        return inquiry;
+    }
+
+    private static User newUser(String name, String email, String phone, Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setPasswordHash("{bcrypt}not-used");
+        user.setRole(role);
+        return user;
+    }
+}
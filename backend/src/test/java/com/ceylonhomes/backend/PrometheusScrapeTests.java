@@ -0,0 +1,59 @@
+package com.ceylonhomes.backend;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Scrapes /actuator/prometheus the way Prometheus would and checks the app's own series are there,
+// and that the public application port does not serve it anonymously.
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class PrometheusScrapeTests {
+
+    @LocalServerPort
+    private int port;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    void exposesRequestTimersPoolAndApplicationMetrics() {
+        restTemplate.getForEntity("http://localhost:" + port + "/api/listings/latest", String.class);
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(scrape.getBody())
+                .contains("http_server_requests_seconds_bucket")
+                .contains("uri=\"/api/listings/latest\"")
+                .contains("hikaricp_connections_acquire_seconds")
+                .contains("ceylonhomes_sql_statements")
+                .contains("ceylonhomes_queue_size{")
+                .contains("queue=\"mail\"")
+                .contains("ceylonhomes_cache_size{")
+                .contains("ceylonhomes_uploads_bytes_total")
+                .contains("ceylonhomes_requests_in_flight");
+    }
+
+    @Test
+    void refusesAnonymousScrapeOnTheApplicationPort() {
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + port + "/actuator/prometheus", String.class);
+
+        assertThat(scrape.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+}
@@ -0,0 +1,294 @@
+package com.ceylonhomes.backend;
+
+import com.ceylonhomes.backend.config.StatementCounter;
+import com.ceylonhomes.backend.entity.Inquiry;
+import com.ceylonhomes.backend.entity.Listing;
+import com.ceylonhomes.backend.entity.ListingPhoto;
+import com.ceylonhomes.backend.entity.User;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.enums.Role;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.repository.UserRepository;
+import com.ceylonhomes.backend.service.ListingVersions;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// SQL statement budgets for the read endpoints of ListingController, SellerController,
+// InquiryController and AdminController, and for their create, update, approve, reject and delete
+// endpoints. The fixture has LISTING_COUNT listings with photos and inquiries, so a per-row lazy
+// load (N+1) pushes an endpoint well past its budget. Conditional GETs on the public listing
+// endpoints must answer 304 without any statement. Runs on the test profile's own schema.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryBudgetTests {
+
+    private static final int LISTING_COUNT = 12;
+    private static final String SELLER_EMAIL = "query-budget-seller@test.ceylonhomes.lk";
+    private static final String BUYER_EMAIL = "query-budget-buyer@test.ceylonhomes.lk";
+    private static final String ADMIN_EMAIL = "query-budget-admin@test.ceylonhomes.lk";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ListingRepository listingRepository;
+
+    @Autowired
+    private ListingVersions listingVersions;
+
+    private final List<User> users = new ArrayList<>();
+    private Long listingId;
+    // One pending listing per write endpoint, so the rows do not depend on each other's order
+    private final Map<String, Long> writeTargets = new HashMap<>();
+
+    @BeforeAll
+    void createFixture() {
+        User seller = userRepository.save(newUser("Budget Seller", SELLER_EMAIL, "+94770000001", Role.SELLER));
+        User buyer = userRepository.save(newUser("Budget Buyer", BUYER_EMAIL, "+94770000002", Role.USER));
+        users.add(seller);
+        users.add(buyer);
+        users.add(userRepository.save(newUser("Budget Admin", ADMIN_EMAIL, "+94770000003", Role.ADMIN)));
+
+        for (int i = 0; i < LISTING_COUNT; i++) {
+            ListingStatus status = i < LISTING_COUNT - 2 ? ListingStatus.APPROVED : ListingStatus.PENDING;
+            listingId = listingRepository.save(newListing(seller, buyer, i, status)).getId();
+        }
+
+        int i = LISTING_COUNT;
+        for (String target : List.of("update", "seller-update", "approve", "reject", "delete")) {
+            writeTargets.put(target, listingRepository.save(newListing(seller, buyer, i++, ListingStatus.PENDING)).getId());
+        }
+    }
+
+    @AfterAll
+    void deleteFixture() {
+        users.stream()
+                .filter(user -> user.getRole() == Role.SELLER)
+                .forEach(seller -> listingRepository.deleteAll(
+                        listingRepository.findByOwnerIdOrderByCreatedAtDesc(seller.getId())));
+        userRepository.deleteAll(users);
+    }
+
+    Stream<Arguments> endpoints() {
+        return Stream.of(
+                // ListingController (public)
+                Arguments.of("/api/listings/latest?size=" + LISTING_COUNT, null, null, 6),
+                Arguments.of("/api/listings/search?district=Colombo&size=" + LISTING_COUNT, null, null, 6),
+                Arguments.of("/api/listings/search?district=Colombo&facets=true&size=" + LISTING_COUNT, null, null, 6),
+                Arguments.of("/api/listings/search?lat=6.9271&lng=79.8612&radiusKm=10", null, null, 2),
+                Arguments.of("/api/listings/map?minLat=5.9&maxLat=9.9&minLng=79.5&maxLng=81.9&zoom=8", null, null, 0),
+                Arguments.of("/api/listings/" + listingId, null, null, 4),
+                // SellerController
+                Arguments.of("/api/seller/listings", SELLER_EMAIL, "SELLER", 6),
+                Arguments.of("/api/seller/listings/" + listingId, SELLER_EMAIL, "SELLER", 6),
+                Arguments.of("/api/seller/listings/archived", SELLER_EMAIL, "SELLER", 4),
+                Arguments.of("/api/seller/listings/summary", SELLER_EMAIL, "SELLER", 6),
+                Arguments.of("/api/seller/listings/" + listingId + "/analytics", SELLER_EMAIL, "SELLER", 3),
+                Arguments.of("/api/seller/profile", SELLER_EMAIL, "SELLER", 2),
+                Arguments.of("/api/seller/inquiries", SELLER_EMAIL, "SELLER", 6),
+                Arguments.of("/api/seller/inquiries/recent", SELLER_EMAIL, "SELLER", 6),
+                // InquiryController
+                Arguments.of("/api/inquiries/conversations", SELLER_EMAIL, "SELLER", 4),
+                Arguments.of("/api/inquiries/conversations", BUYER_EMAIL, "USER", 4),
+                Arguments.of("/api/inquiries/unread-count", SELLER_EMAIL, "SELLER", 3),
+                // AdminController
+                Arguments.of("/api/admin/stats", ADMIN_EMAIL, "ADMIN", 4),
+                Arguments.of("/api/admin/listings?size=" + LISTING_COUNT, ADMIN_EMAIL, "ADMIN", 6),
+                Arguments.of("/api/admin/listings?status=PENDING", ADMIN_EMAIL, "ADMIN", 6),
+                Arguments.of("/api/admin/listings/" + listingId, ADMIN_EMAIL, "ADMIN", 4),
+                Arguments.of("/api/admin/moderation-queue", ADMIN_EMAIL, "ADMIN", 3),
+                Arguments.of("/api/admin/approval-actions", ADMIN_EMAIL, "ADMIN", 5),
+                Arguments.of("/api/admin/approval-actions/listing/" + listingId, ADMIN_EMAIL, "ADMIN", 3),
+                Arguments.of("/api/admin/audit-log", ADMIN_EMAIL, "ADMIN", 3),
+                Arguments.of("/api/admin/datasource-pools", ADMIN_EMAIL, "ADMIN", 0),
+                Arguments.of("/api/admin/query-stats", ADMIN_EMAIL, "ADMIN", 0));
+    }
+
+    @ParameterizedTest(name = "{0} <= {3} statements")
+    @MethodSource("endpoints")
+    void staysWithinStatementBudget(String url, String email, String role, int budget) throws Exception {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            MvcResult result = email == null
+                    ? mockMvc.perform(get(url)).andReturn()
+                    : mockMvc.perform(get(url).with(user(email).roles(role))).andReturn();
+
+            assertThat(result.getResponse().getStatus()).isEqualTo(200);
+            assertThat(scope.getStatementCount())
+                    .as("SQL statements issued by GET %s", url)
+                    .isLessThanOrEqualTo(budget);
+        }
+    }
+
+    Stream<String> conditionalEndpoints() {
+        return Stream.of(
+                "/api/listings/latest?size=" + LISTING_COUNT,
+                "/api/listings/search?district=Colombo&size=" + LISTING_COUNT,
+                "/api/listings/search?district=Colombo&facets=true&size=" + LISTING_COUNT,
+                "/api/listings/search?lat=6.9271&lng=79.8612&radiusKm=10",
+                "/api/listings/" + listingId);
+    }
+
+    @ParameterizedTest(name = "{0} answers 304 without SQL")
+    @MethodSource("conditionalEndpoints")
+    void notModifiedIssuesNoStatements(String url) throws Exception {
+        // Let the version sync see the fixture now, so it cannot move the tags between the two requests
+        listingVersions.syncRecentChanges();
+        String etag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader("ETag");
+        assertThat(etag).as("ETag of GET %s", url).isNotNull();
+
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            MvcResult result = mockMvc.perform(get(url).header("If-None-Match", etag)).andReturn();
+
+            assertThat(result.getResponse().getStatus()).isEqualTo(304);
+            assertThat(scope.getStatementCount())
+                    .as("SQL statements issued by a conditional GET %s", url)
+                    .isZero();
+        }
+    }
+
+    Stream<Arguments> writeEndpoints() {
+        return Stream.of(
+                // ListingController
+                Arguments.of("POST /api/listings",
+                        post("/api/listings").contentType(MediaType.APPLICATION_JSON).content(listingJson("Created")),
+                        SELLER_EMAIL, "SELLER", 8),
+                Arguments.of("PUT /api/listings/{id}",
+                        put("/api/listings/" + writeTargets.get("update"))
+                                .contentType(MediaType.APPLICATION_JSON).content(listingJson("Updated")),
+                        SELLER_EMAIL, "SELLER", 10),
+                // SellerController
+                Arguments.of("POST /api/seller/listings",
+                        listingForm(multipart("/api/seller/listings"), "Created"),
+                        SELLER_EMAIL, "SELLER", 8),
+                Arguments.of("PUT /api/seller/listings/{id}",
+                        listingForm(multipart(HttpMethod.PUT, "/api/seller/listings/" + writeTargets.get("seller-update")), "Updated"),
+                        SELLER_EMAIL, "SELLER", 10),
+                Arguments.of("DELETE /api/seller/listings/{id}",
+                        delete("/api/seller/listings/" + writeTargets.get("delete")),
+                        SELLER_EMAIL, "SELLER", 14),
+                // AdminController
+                Arguments.of("POST /api/admin/listings/{id}/approve",
+                        post("/api/admin/listings/" + writeTargets.get("approve") + "/approve")
+                                .contentType(MediaType.APPLICATION_JSON).content("{\"action\": \"APPROVE\"}"),
+                        ADMIN_EMAIL, "ADMIN", 12),
+                Arguments.of("POST /api/admin/listings/{id}/reject",
+                        post("/api/admin/listings/" + writeTargets.get("reject") + "/reject")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content("{\"action\": \"REJECT\", \"note\": \"Photos are missing\"}"),
+                        ADMIN_EMAIL, "ADMIN", 10));
+    }
+
+    // Event listeners that run after commit on the request thread are part of the budget
+    @ParameterizedTest(name = "{0} <= {4} statements")
+    @MethodSource("writeEndpoints")
+    void writeStaysWithinStatementBudget(String name, MockHttpServletRequestBuilder request, String email, String role,
+                                         int budget) throws Exception {
+        try (StatementCounter.Scope scope = StatementCounter.open()) {
+            MvcResult result = mockMvc.perform(request.with(user(email).roles(role))).andReturn();
+
+            assertThat(HttpStatus.valueOf(result.getResponse().getStatus()).is2xxSuccessful())
+                    .as("%s answered %d: %s", name, result.getResponse().getStatus(),
+                            result.getResponse().getContentAsString())
+                    .isTrue();
+            assertThat(scope.getStatementCount())
+                    .as("SQL statements issued by %s", name)
+                    .isLessThanOrEqualTo(budget);
+        }
+    }
+
+    private static Listing newListing(User seller, User buyer, int i, ListingStatus status) {
+        Listing listing = new Listing();
+        listing.setOwner(seller);
+        listing.setTitle("Budget listing " + i);
+        listing.setDescription("Query budget fixture");
+        listing.setRentOrSale(i % 2 == 0 ? RentOrSale.RENT : RentOrSale.SALE);
+        listing.setPropertyType(PropertyType.HOUSE);
+        listing.setPrice(BigDecimal.valueOf(50_000L + i));
+        listing.setDistrict("Colombo");
+        listing.setCity("Dehiwala");
+        listing.setAddress(i + " Galle Road");
+        listing.setContactPhone("+94770000001");
+        listing.setStatus(status);
+
+        for (int p = 0; p < 2; p++) {
+            ListingPhoto photo = new ListingPhoto();
+            photo.setListing(listing);
+            photo.setUrl("/uploads/listings/budget-" + i + "-" + p + ".jpg");
+            photo.setSortOrder(p);
+            listing.getPhotos().add(photo);
+        }
+
+        Inquiry inquiry = new Inquiry();
+        inquiry.setListing(listing);
+        inquiry.setBuyer(buyer);
+        inquiry.setMessage("Is this still available?");
+        listing.getInquiries().add(inquiry);
+        return listing;
+    }
+
+    private static String listingJson(String title) {
+        return """
+                {"title": "Budget listing %s", "description": "Query budget fixture", "rentOrSale": "RENT",
+                 "propertyType": "HOUSE", "price": 75000, "district": "Colombo", "city": "Dehiwala",
+                 "address": "1 Galle Road", "contactPhone": "+94770000001"}""".formatted(title);
+    }
+
+    private static MockHttpServletRequestBuilder listingForm(MockHttpServletRequestBuilder request, String title) {
+        return request
+                .param("title", "Budget listing " + title)
+                .param("description", "Query budget fixture")
+                .param("rentOrSale", "RENT")
+                .param("propertyType", "HOUSE")
+                .param("price", "75000")
+                .param("district", "Colombo")
+                .param("city", "Dehiwala")
+                .param("address", "1 Galle Road")
+                .param("contactPhone", "+94770000001");
+    }
+
+    private static User newUser(String name, String email, String phone, Role role) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        user.setPhone(phone);
+        user.setPasswordHash("{bcrypt}not-used");
+        user.setRole(role);
+        return user;
+    }
+}
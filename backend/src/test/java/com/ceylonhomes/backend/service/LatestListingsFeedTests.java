@@ -0,0 +1,149 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.ListingCardDTO;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingPhotoRepository;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// LatestListingsFeed with a capacity of four cards, loaded and updated through mocked repositories
+class LatestListingsFeedTests {
+
+    private static final int CAPACITY = 4;
+    private static final LocalDateTime NOW = LocalDateTime.of(2026, 3, 1, 12, 0);
+
+    private ListingRepository listingRepository;
+    private LatestListingsFeed feed;
+
+    @BeforeEach
+    void createFeed() {
+        listingRepository = mock(ListingRepository.class);
+        feed = new LatestListingsFeed(listingRepository, mock(ListingPhotoRepository.class));
+        ReflectionTestUtils.setField(feed, "capacity", CAPACITY);
+    }
+
+    @Test
+    void approvedListingIsPlacedByCreatedAtAndTheOldestCardIsTrimmed() {
+        load(10, card(1, 1), card(2, 3), card(3, 5), card(4, 7));
+
+        approve(card(5, 4));
+
+        Page<ListingCardDTO> page = feed.page(PageRequest.of(0, CAPACITY));
+        assertThat(page.getContent()).extracting(ListingCardDTO::getId).containsExactly(1L, 2L, 5L, 3L);
+        assertThat(page.getTotalElements()).isEqualTo(11);
+        assertThat(feed.size()).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void listingsCreatedInTheSameSecondAreOrderedByIdLikeTheDatabase() {
+        load(10, card(1, 1), card(2, 3), card(3, 5), card(4, 7));
+
+        approve(card(6, 3));
+
+        assertThat(feed.page(PageRequest.of(0, CAPACITY)).getContent())
+                .extracting(ListingCardDTO::getId).containsExactly(1L, 6L, 2L, 3L);
+        assertThat(LatestListingsFeed.ORDER).containsExactly(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+    }
+
+    @Test
+    void olderListingIsAppendedWhileTheFeedHoldsEveryApprovedListing() {
+        load(2, card(1, 1), card(2, 3));
+
+        // cards.size() + 1 == total: nothing approved is missing between the last card and this one
+        approve(card(3, 60));
+
+        Page<ListingCardDTO> page = feed.page(PageRequest.of(0, CAPACITY));
+        assertThat(page.getContent()).extracting(ListingCardDTO::getId).containsExactly(1L, 2L, 3L);
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void olderListingIsLeftToTheDatabaseWhenTheFeedIsAPrefix() {
+        load(10, card(1, 1), card(2, 3), card(3, 5), card(4, 7));
+
+        approve(card(5, 60));
+
+        assertThat(feed.page(PageRequest.of(0, CAPACITY)).getContent())
+                .extracting(ListingCardDTO::getId).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(feed.page(PageRequest.of(0, CAPACITY)).getTotalElements()).isEqualTo(11);
+        // The next page starts past the cards held here
+        assertThat(feed.page(PageRequest.of(1, CAPACITY))).isNull();
+    }
+
+    @Test
+    void feedIsReloadedOnceRemovalsLeaveItBelowHalfCapacity() {
+        load(10, card(1, 1), card(2, 3), card(3, 5), card(4, 7));
+
+        feed.onListingChanged(new ListingChangedEvent(1L, ListingStatus.APPROVED, ListingStatus.SOLD));
+        feed.onListingChanged(ListingChangedEvent.deleted(2L, ListingStatus.APPROVED));
+        assertThat(feed.size()).isEqualTo(2);
+        feed.onListingChanged(new ListingChangedEvent(3L, ListingStatus.APPROVED, ListingStatus.RENTED));
+        assertThat(feed.size()).isEqualTo(1);
+        assertThat(feed.page(PageRequest.of(0, CAPACITY))).isNull();
+
+        when(listingRepository.findVersionsUpdatedSince(any())).thenReturn(List.of());
+        newest(7, card(4, 7), card(7, 8), card(8, 9), card(9, 10));
+        feed.syncRecentChanges();
+
+        verify(listingRepository, times(2)).findCardsByStatus(eq(ListingStatus.APPROVED), any());
+        Page<ListingCardDTO> page = feed.page(PageRequest.of(0, CAPACITY));
+        assertThat(page.getContent()).extracting(ListingCardDTO::getId).containsExactly(4L, 7L, 8L, 9L);
+        assertThat(page.getTotalElements()).isEqualTo(7);
+    }
+
+    @Test
+    void feedAtHalfCapacityIsNotReloaded() {
+        load(10, card(1, 1), card(2, 3), card(3, 5), card(4, 7));
+        feed.onListingChanged(new ListingChangedEvent(1L, ListingStatus.APPROVED, ListingStatus.SOLD));
+        feed.onListingChanged(new ListingChangedEvent(2L, ListingStatus.APPROVED, ListingStatus.SOLD));
+
+        when(listingRepository.findVersionsUpdatedSince(any())).thenReturn(List.of());
+        feed.syncRecentChanges();
+
+        verify(listingRepository, times(1)).findCardsByStatus(eq(ListingStatus.APPROVED), any());
+        assertThat(feed.size()).isEqualTo(2);
+    }
+
+    private void load(long total, ListingCardDTO... cards) {
+        newest(total, cards);
+        feed.reload();
+    }
+
+    // What the next reload reads from the database
+    private void newest(long total, ListingCardDTO... cards) {
+        when(listingRepository.findCardsByStatus(eq(ListingStatus.APPROVED), any()))
+                .thenReturn(new PageImpl<>(List.of(cards), PageRequest.of(0, CAPACITY, LatestListingsFeed.ORDER), total));
+    }
+
+    private void approve(ListingCardDTO card) {
+        when(listingRepository.findCardsByIds(List.of(card.getId()))).thenReturn(List.of(card));
+        feed.onListingChanged(new ListingChangedEvent(card.getId(), ListingStatus.PENDING, ListingStatus.APPROVED));
+    }
+
+    private static ListingCardDTO card(long id, int minutesAgo) {
+        ListingCardDTO card = new ListingCardDTO();
+        card.setId(id);
+        card.setTitle("Listing " + id);
+        card.setStatus(ListingStatus.APPROVED);
+        card.setCreatedAt(NOW.minusMinutes(minutesAgo));
+        return card;
+    }
+}
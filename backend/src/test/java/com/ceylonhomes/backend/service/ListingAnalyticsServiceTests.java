@@ -0,0 +1,199 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.DailyStatsDTO;
+import com.ceylonhomes.backend.dto.ListingAnalyticsDTO;
+import com.ceylonhomes.backend.enums.StatGranularity;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import com.ceylonhomes.backend.repository.ListingStatBucketRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+// ListingAnalyticsService over mocked repositories and JDBC; transactions run their callback in place
+class ListingAnalyticsServiceTests {
+
+    private static final String COUNT_HOURS = "SELECT COUNT(*) FROM listing_stat_buckets";
+    private static final String FOLD_HOURS = "INSERT INTO listing_stat_buckets (listing_id, bucket_start, granularity, views, inquiries) SELECT";
+
+    private ListingStatBucketRepository listingStatBucketRepository;
+    private ListingRepository listingRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void createMocks() {
+        listingStatBucketRepository = mock(ListingStatBucketRepository.class);
+        listingRepository = mock(ListingRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void hoursPastTheRetentionAreFoldedIntoOneDayEachAndExpiredDaysRemoved() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime fifthDay = today.minusDays(5).atStartOfDay();
+        LocalDateTime fourthDay = today.minusDays(4).atStartOfDay();
+        // Yesterday is inside the two days of hourly retention, so the loop stops there
+        when(listingStatBucketRepository.findOldestBucketStart(StatGranularity.HOUR))
+                .thenReturn(fifthDay.plusHours(13), fourthDay.plusHours(2), today.minusDays(1).atTime(1, 0));
+        when(jdbcTemplate.queryForObject(startsWith(COUNT_HOURS), eq(Long.class), any(), any())).thenReturn(24L);
+
+        service().compact();
+
+        verify(jdbcTemplate).queryForObject(startsWith(COUNT_HOURS), eq(Long.class), eq(fifthDay), eq(fourthDay));
+        verify(jdbcTemplate).update(startsWith(FOLD_HOURS), eq(fifthDay), eq(fifthDay), eq(fourthDay));
+        verify(listingStatBucketRepository).deleteBuckets(StatGranularity.HOUR, fifthDay, fourthDay);
+        verify(jdbcTemplate).update(startsWith(FOLD_HOURS), eq(fourthDay), eq(fourthDay), eq(fourthDay.plusDays(1)));
+        verify(listingStatBucketRepository).deleteBuckets(StatGranularity.HOUR, fourthDay, fourthDay.plusDays(1));
+        verify(jdbcTemplate, times(2)).update(startsWith(FOLD_HOURS), any(), any(), any());
+        verify(listingStatBucketRepository).deleteBucketsBefore(StatGranularity.DAY, today.minusDays(730).atStartOfDay());
+    }
+
+    @Test
+    void foldLocksTheHoursBeforeSummingThemAndDeletesThemAfter() {
+        LocalDateTime day = LocalDate.now().minusDays(3).atStartOfDay();
+        when(listingStatBucketRepository.findOldestBucketStart(StatGranularity.HOUR)).thenReturn(day, (LocalDateTime) null);
+        when(jdbcTemplate.queryForObject(startsWith(COUNT_HOURS), eq(Long.class), any(), any())).thenReturn(5L);
+
+        service().compact();
+
+        InOrder order = inOrder(jdbcTemplate, listingStatBucketRepository);
+        order.verify(jdbcTemplate).queryForObject(
+                eq(COUNT_HOURS + " WHERE granularity = 'HOUR' AND bucket_start >= ? AND bucket_start < ? FOR UPDATE"),
+                eq(Long.class), eq(day), eq(day.plusDays(1)));
+        order.verify(jdbcTemplate).update(startsWith(FOLD_HOURS), eq(day), eq(day), eq(day.plusDays(1)));
+        order.verify(listingStatBucketRepository).deleteBuckets(StatGranularity.HOUR, day, day.plusDays(1));
+    }
+
+    @Test
+    void secondInstanceFoldingTheSameDayFindsNothingLeftAndDoesNotCountItAgain() {
+        LocalDateTime day = LocalDate.now().minusDays(3).atStartOfDay();
+        // The second instance still reads the folded day as oldest, as from a replica that lags behind
+        when(listingStatBucketRepository.findOldestBucketStart(StatGranularity.HOUR)).thenReturn(day, null, day);
+        // Its COUNT waits on the first instance's row locks and then sees the hours already deleted
+        when(jdbcTemplate.queryForObject(startsWith(COUNT_HOURS), eq(Long.class), eq(day), eq(day.plusDays(1))))
+                .thenReturn(24L, 0L);
+
+        service().compact();
+        service().compact();
+
+        verify(jdbcTemplate, times(2)).queryForObject(startsWith(COUNT_HOURS), eq(Long.class), any(), any());
+        verify(jdbcTemplate, times(1)).update(startsWith(FOLD_HOURS), any(), any(), any());
+        verify(listingStatBucketRepository, times(1)).deleteBuckets(any(), any(), any());
+        verify(listingStatBucketRepository, times(3)).findOldestBucketStart(StatGranularity.HOUR);
+    }
+
+    @Test
+    void nothingIsFoldedWhileTheOldestHourIsInsideTheRetention() {
+        when(listingStatBucketRepository.findOldestBucketStart(StatGranularity.HOUR))
+                .thenReturn(LocalDateTime.now().minusHours(1));
+
+        service().compact();
+
+        verify(jdbcTemplate, never()).queryForObject(anyString(), eq(Long.class), any(), any());
+        verify(listingStatBucketRepository).deleteBucketsBefore(eq(StatGranularity.DAY), any());
+    }
+
+    @Test
+    void seriesSumsHourlyAndDailyBucketsIntoDenseDays() {
+        ListingAnalyticsService service = service();
+        ReflectionTestUtils.setField(service, "seriesDays", 7);
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(6);
+        when(listingRepository.findOwnerEmailById(9L)).thenReturn(Optional.of("owner@example.com"));
+        when(listingStatBucketRepository.findSeries(9L, from.atStartOfDay())).thenReturn(List.of(
+                bucket(from.atStartOfDay(), 40, 2),                 // Folded day
+                bucket(from.plusDays(2).atStartOfDay(), 10, 0),     // Folded day
+                bucket(to.atTime(8, 0), 6, 1),                      // Today's hours
+                bucket(to.atTime(9, 0), 4, 0)));
+
+        ListingAnalyticsDTO analytics = service.getListingAnalytics("owner@example.com", 9L);
+
+        assertThat(analytics.getFrom()).isEqualTo(from);
+        assertThat(analytics.getTo()).isEqualTo(to);
+        assertThat(analytics.getDays()).extracting(DailyStatsDTO::getDate)
+                .containsExactly(from, from.plusDays(1), from.plusDays(2), from.plusDays(3), from.plusDays(4),
+                        from.plusDays(5), to);
+        assertThat(analytics.getDays()).extracting(DailyStatsDTO::getViews).containsExactly(40L, 0L, 10L, 0L, 0L, 0L, 10L);
+        assertThat(analytics.getDays()).extracting(DailyStatsDTO::getInquiries).containsExactly(2L, 0L, 0L, 0L, 0L, 0L, 1L);
+        assertThat(analytics.getDays().get(0).getConversionRate()).isCloseTo(0.05, within(1e-9));
+        assertThat(analytics.getDays().get(1).getConversionRate()).isZero();
+        assertThat(analytics.getViews()).isEqualTo(60);
+        assertThat(analytics.getInquiries()).isEqualTo(3);
+        assertThat(analytics.getConversionRate()).isCloseTo(0.05, within(1e-9));
+    }
+
+    @Test
+    void analyticsOfAnotherOwnersListingAreRefused() {
+        when(listingRepository.findOwnerEmailById(9L)).thenReturn(Optional.of("owner@example.com"));
+
+        assertThatThrownBy(() -> service().getListingAnalytics("other@example.com", 9L))
+                .isInstanceOf(AccessDeniedException.class);
+        verifyNoInteractions(listingStatBucketRepository);
+    }
+
+    @Test
+    void viewsAreAddedToTheirHourInOneUpsert() {
+        Map<Long, Long> views = new LinkedHashMap<>();
+        views.put(7L, 3L);
+        views.put(9L, 5L);
+        LocalDateTime hour = LocalDateTime.of(2026, 3, 1, 14, 0);
+
+        service().addViews(views, hour.plusMinutes(37).plusSeconds(12));
+
+        verify(jdbcTemplate).update(
+                "INSERT INTO listing_stat_buckets (listing_id, bucket_start, granularity, views, inquiries) VALUES " +
+                "(?, ?, 'HOUR', ?, 0), (?, ?, 'HOUR', ?, 0) ON DUPLICATE KEY UPDATE views = views + VALUES(views)",
+                7L, hour, 3L, 9L, hour, 5L);
+    }
+
+    @Test
+    void noViewsWriteNothing() {
+        service().addViews(Map.of(), LocalDateTime.now());
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    private ListingAnalyticsService service() {
+        ListingAnalyticsService service = new ListingAnalyticsService(
+                listingStatBucketRepository, listingRepository, jdbcTemplate, transactionTemplate);
+        ReflectionTestUtils.setField(service, "seriesDays", 90);
+        ReflectionTestUtils.setField(service, "hourlyRetentionDays", 2);
+        ReflectionTestUtils.setField(service, "dailyRetentionDays", 730);
+        return service;
+    }
+
+    // Row layout of ListingStatBucketRepository.findSeries: bucket start, views, inquiries
+    private static Object[] bucket(LocalDateTime start, long views, long inquiries) {
+        return new Object[]{start, views, inquiries};
+    }
+}
@@ -0,0 +1,136 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.dto.ListingFacetsDTO;
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// ListingFacetIndex over a handful of listings, loaded through a mocked repository
+class ListingFacetIndexTests {
+
+    private ListingRepository listingRepository;
+    private ListingFacetIndex index;
+
+    @BeforeEach
+    void loadIndex() {
+        List<Object[]> rows = List.of(
+                row(1, 25_000, "Colombo", "Dehiwala", RentOrSale.RENT, PropertyType.ROOM, 0),
+                row(2, 60_000, "Colombo", "Dehiwala", RentOrSale.RENT, PropertyType.HOUSE, 2),
+                row(3, 85_000, "Colombo", "Nugegoda", RentOrSale.RENT, PropertyType.HOUSE, 3),
+                row(4, 45_000_000, "Colombo", "Nugegoda", RentOrSale.SALE, PropertyType.HOUSE, 4),
+                row(5, 30_000, "Kandy", "Peradeniya", RentOrSale.RENT, PropertyType.ANNEX, 1),
+                row(6, 18_000_000, "Kandy", "Kandy", RentOrSale.SALE, PropertyType.HOUSE, 7));
+
+        listingRepository = mock(ListingRepository.class);
+        when(listingRepository.findApprovedIndexRows(anyLong(), any())).thenReturn(rows);
+        index = new ListingFacetIndex(listingRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void countsEveryFacetWithoutFilters() {
+        ListingFacetsDTO facets = index.count(null, null, null, null, null, null, null, null);
+
+        assertThat(facets.getTotal()).isEqualTo(6);
+        assertThat(facets.getDistricts()).containsExactly(entry("Colombo", 4L), entry("Kandy", 2L));
+        assertThat(facets.getRentOrSale()).containsOnly(entry("RENT", 4L), entry("SALE", 2L));
+        assertThat(facets.getPropertyTypes()).containsOnly(entry("HOUSE", 4L), entry("ROOM", 1L), entry("ANNEX", 1L));
+        assertThat(index.size()).isEqualTo(6);
+    }
+
+    @Test
+    void bedroomsStartAtZeroAndTopOutAtFivePlus() {
+        ListingFacetsDTO facets = index.count(null, null, null, null, null, null, null, null);
+
+        assertThat(facets.getBedrooms()).containsExactly(entry("0", 1L), entry("1", 1L), entry("2", 1L),
+                entry("3", 1L), entry("4", 1L), entry("5+", 1L));
+    }
+
+    @Test
+    void eachFacetIgnoresItsOwnFilter() {
+        ListingFacetsDTO facets = index.count("colombo", null, RentOrSale.RENT, null, null, null, null, null);
+
+        assertThat(facets.getTotal()).isEqualTo(3);
+        // Other districts are still counted for the rent filter, so the user can switch district
+        assertThat(facets.getDistricts()).containsExactly(entry("Colombo", 3L), entry("Kandy", 1L));
+        assertThat(facets.getRentOrSale()).containsOnly(entry("RENT", 3L), entry("SALE", 1L));
+        assertThat(facets.getCities()).containsOnly(entry("Dehiwala", 2L), entry("Nugegoda", 1L));
+    }
+
+    @Test
+    void minimumBedroomsAndPriceRangeNarrowTheOtherFacets() {
+        ListingFacetsDTO facets = index.count(null, null, null, null,
+                BigDecimal.valueOf(20_000), BigDecimal.valueOf(100_000), 2, null);
+
+        assertThat(facets.getTotal()).isEqualTo(2);
+        assertThat(facets.getPropertyTypes()).containsOnly(entry("HOUSE", 2L));
+        // The bedroom facet ignores the bedroom filter but keeps the price range
+        assertThat(facets.getBedrooms()).containsExactly(entry("0", 1L), entry("1", 1L), entry("2", 1L),
+                entry("3", 1L), entry("4", 0L), entry("5+", 0L));
+    }
+
+    @Test
+    void priceHistogramSpansTheCheapestToTheDearestBucket() {
+        ListingFacetsDTO facets = index.count(null, null, RentOrSale.RENT, null, null, null, null, null);
+
+        List<ListingFacetsDTO.PriceBucket> histogram = facets.getPriceHistogram();
+        assertThat(histogram.get(0).getFrom()).isEqualByComparingTo("20000");
+        assertThat(histogram.get(histogram.size() - 1).getTo()).isEqualByComparingTo("100000");
+        assertThat(histogram.stream().mapToLong(ListingFacetsDTO.PriceBucket::getCount).sum()).isEqualTo(4);
+    }
+
+    @Test
+    void pricesOnAnEdgeBelongToTheBucketAboveIt() {
+        assertThat(ListingFacetIndex.priceBucket(0)).isEqualTo(0);
+        assertThat(ListingFacetIndex.priceBucket(9_999.99)).isEqualTo(0);
+        assertThat(ListingFacetIndex.priceBucket(10_000)).isEqualTo(1);
+        assertThat(ListingFacetIndex.priceBucket(100_000_000)).isEqualTo(ListingFacetIndex.PRICE_EDGES.length);
+    }
+
+    @Test
+    void listingChangesUpdateTheCounts() {
+        when(listingRepository.findIndexRowById(2L)).thenReturn(List.<Object[]>of(
+                row(2, 60_000, "Kandy", "Peradeniya", RentOrSale.RENT, PropertyType.HOUSE, 2)));
+        when(listingRepository.findIndexRowById(3L)).thenReturn(List.<Object[]>of(
+                row(3, 85_000, "Colombo", "Nugegoda", RentOrSale.RENT, PropertyType.HOUSE, 3, ListingStatus.SOLD)));
+
+        index.onListingChanged(new ListingChangedEvent(2L, ListingStatus.APPROVED, ListingStatus.APPROVED));
+        index.onListingChanged(new ListingChangedEvent(3L, ListingStatus.APPROVED, ListingStatus.SOLD));
+        index.onListingChanged(ListingChangedEvent.deleted(4L, ListingStatus.APPROVED));
+
+        ListingFacetsDTO facets = index.count(null, null, null, null, null, null, null, null);
+        assertThat(facets.getTotal()).isEqualTo(4);
+        assertThat(facets.getDistricts()).containsExactly(entry("Kandy", 3L), entry("Colombo", 1L));
+    }
+
+    @Test
+    void countsAreUnavailableBeforeTheFirstLoad() {
+        assertThat(new ListingFacetIndex(listingRepository).count(null, null, null, null, null, null, null, null)).isNull();
+    }
+
+    private static Object[] row(long id, long price, String district, String city, RentOrSale rentOrSale,
+                                PropertyType propertyType, int bedrooms) {
+        return row(id, price, district, city, rentOrSale, propertyType, bedrooms, ListingStatus.APPROVED);
+    }
+
+    // Row layout: ListingRepository.INDEX_COLUMNS
+    private static Object[] row(long id, long price, String district, String city, RentOrSale rentOrSale,
+                                PropertyType propertyType, int bedrooms, ListingStatus status) {
+        return new Object[]{id, 6.9, 79.9, BigDecimal.valueOf(price), district, city, rentOrSale, propertyType,
+                bedrooms, 1, status};
+    }
+}
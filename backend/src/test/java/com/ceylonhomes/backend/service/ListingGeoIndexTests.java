@@ -0,0 +1,148 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.enums.ListingStatus;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.event.ListingChangedEvent;
+import com.ceylonhomes.backend.repository.ListingRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+// ListingGeoIndex over a handful of listings around Colombo, loaded through a mocked repository
+class ListingGeoIndexTests {
+
+    private static final double COLOMBO_LAT = 6.9271;
+    private static final double COLOMBO_LNG = 79.8612;
+    private static final ListingGeoIndex.Filter ANY = new ListingGeoIndex.Filter(null, null, null, null, null, null, null, null);
+
+    private ListingRepository listingRepository;
+    private ListingGeoIndex index;
+
+    @BeforeEach
+    void loadIndex() {
+        List<Object[]> rows = new ArrayList<>();
+        // Due north of the centre, 1, 2, 3 ... 10 km away
+        for (int km = 1; km <= 10; km++) {
+            rows.add(row(km, COLOMBO_LAT + km / 111.32, COLOMBO_LNG, 50_000 + km, km % 2 == 0 ? RentOrSale.RENT : RentOrSale.SALE,
+                    ListingStatus.APPROVED));
+        }
+        rows.add(row(100, 7.2906, 80.6337, 90_000, RentOrSale.SALE, ListingStatus.APPROVED));   // Kandy
+        rows.add(row(101, null, null, 40_000, RentOrSale.RENT, ListingStatus.APPROVED));         // No coordinates
+
+        listingRepository = mock(ListingRepository.class);
+        when(listingRepository.findApprovedIndexRows(anyLong(), any())).thenReturn(rows);
+        index = new ListingGeoIndex(listingRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void radiusSearchReturnsNearestFirstWithinTheRadius() {
+        ListingGeoIndex.Result result = index.search(ListingGeoIndex.Area.radius(COLOMBO_LAT, COLOMBO_LNG, 5.5), ANY, 0, 10);
+
+        assertThat(result.total()).isEqualTo(5);
+        assertThat(result.hits()).extracting(ListingGeoIndex.Hit::id).containsExactly(1L, 2L, 3L, 4L, 5L);
+        assertThat(result.hits().get(0).distanceKm()).isCloseTo(1.0, within(0.05));
+        assertThat(index.size()).isEqualTo(11);
+    }
+
+    @Test
+    void filtersCombineWithTheArea() {
+        ListingGeoIndex.Filter rentOnly = new ListingGeoIndex.Filter(null, null, RentOrSale.RENT, null, null, null, null, null);
+
+        ListingGeoIndex.Result result = index.search(ListingGeoIndex.Area.radius(COLOMBO_LAT, COLOMBO_LNG, 5.5), rentOnly, 0, 10);
+
+        assertThat(result.hits()).extracting(ListingGeoIndex.Hit::id).containsExactly(2L, 4L);
+        assertThat(result.total()).isEqualTo(2);
+    }
+
+    @Test
+    void laterPagesContinueWhereThePreviousOneEnded() {
+        ListingGeoIndex.Area area = ListingGeoIndex.Area.radius(COLOMBO_LAT, COLOMBO_LNG, 20);
+
+        ListingGeoIndex.Result second = index.search(area, ANY, 1, 4);
+        ListingGeoIndex.Result past = index.search(area, ANY, 3, 4);
+
+        assertThat(second.hits()).extracting(ListingGeoIndex.Hit::id).containsExactly(5L, 6L, 7L, 8L);
+        assertThat(second.total()).isEqualTo(10);
+        assertThat(past.hits()).isEmpty();
+        assertThat(past.total()).isEqualTo(10);
+    }
+
+    @Test
+    void boxSearchCoversListingsFarFromEachOther() {
+        ListingGeoIndex.Result result = index.search(ListingGeoIndex.Area.box(6.5, 7.5, 79.5, 81.0), ANY, 0, 20);
+
+        assertThat(result.total()).isEqualTo(11);
+        assertThat(result.hits()).extracting(ListingGeoIndex.Hit::id).contains(100L);
+    }
+
+    @Test
+    void pagesBeyondTheResultWindowAreRejectedWithoutOverflow() {
+        ListingGeoIndex.Area area = ListingGeoIndex.Area.radius(COLOMBO_LAT, COLOMBO_LNG, 5);
+
+        assertThat(index.search(area, ANY, ListingGeoIndex.MAX_RESULT_WINDOW / 100 - 1, 100).hits()).isEmpty();
+        assertThatThrownBy(() -> index.search(area, ANY, ListingGeoIndex.MAX_RESULT_WINDOW / 100, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        // (page + 1) * size overflows int here
+        assertThatThrownBy(() -> index.search(area, ANY, Integer.MAX_VALUE / 2, 100))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.search(area, ANY, Integer.MAX_VALUE, Integer.MAX_VALUE))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void listingChangesUpdateTheIndex() {
+        when(listingRepository.findIndexRowById(1L)).thenReturn(List.<Object[]>of(
+                row(1, COLOMBO_LAT + 1 / 111.32, COLOMBO_LNG, 50_001, RentOrSale.SALE, ListingStatus.SOLD)));
+        when(listingRepository.findIndexRowById(50L)).thenReturn(List.<Object[]>of(
+                row(50, COLOMBO_LAT, COLOMBO_LNG + 0.001, 60_000, RentOrSale.RENT, ListingStatus.APPROVED)));
+
+        index.onListingChanged(new ListingChangedEvent(1L, ListingStatus.APPROVED, ListingStatus.SOLD));
+        index.onListingChanged(ListingChangedEvent.deleted(2L, ListingStatus.APPROVED));
+        index.onListingChanged(new ListingChangedEvent(50L, ListingStatus.PENDING, ListingStatus.APPROVED));
+
+        ListingGeoIndex.Result result = index.search(ListingGeoIndex.Area.radius(COLOMBO_LAT, COLOMBO_LNG, 3.5), ANY, 0, 10);
+        assertThat(result.hits()).extracting(ListingGeoIndex.Hit::id).containsExactly(50L, 3L);
+    }
+
+    @Test
+    void unfilteredClustersCountEveryListingInTheViewport() {
+        List<ListingGeoIndex.Cluster> clusters = index.clusters(ListingGeoIndex.Area.box(5.9, 9.9, 79.5, 81.9), ANY, 8);
+
+        assertThat(clusters.stream().mapToInt(ListingGeoIndex.Cluster::count).sum()).isEqualTo(11);
+        assertThat(clusters).anySatisfy(cluster -> assertThat(cluster.listingId()).isEqualTo(100L));
+    }
+
+    @Test
+    void searchBeforeTheFirstLoadIsRefused() {
+        ListingGeoIndex empty = new ListingGeoIndex(listingRepository);
+
+        assertThatThrownBy(() -> empty.search(ListingGeoIndex.Area.radius(COLOMBO_LAT, COLOMBO_LNG, 5), ANY, 0, 10))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void distanceIsTheGreatCircleDistance() {
+        // Colombo to Kandy is about 94 km in a straight line
+        assertThat(ListingGeoIndex.distanceKm(COLOMBO_LAT, COLOMBO_LNG, 7.2906, 80.6337))
+                .isBetween(93.0, 96.0);
+    }
+
+    // Row layout: ListingRepository.INDEX_COLUMNS
+    private static Object[] row(long id, Double lat, Double lng, long price, RentOrSale rentOrSale, ListingStatus status) {
+        return new Object[]{id, lat, lng, BigDecimal.valueOf(price), "Colombo", "Dehiwala", rentOrSale,
+                PropertyType.HOUSE, 2, 1, status};
+    }
+}
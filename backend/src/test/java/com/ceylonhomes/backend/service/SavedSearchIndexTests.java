@@ -0,0 +1,173 @@
+package com.ceylonhomes.backend.service;
+
+import com.ceylonhomes.backend.entity.SavedSearch;
+import com.ceylonhomes.backend.enums.PropertyType;
+import com.ceylonhomes.backend.enums.RentOrSale;
+import com.ceylonhomes.backend.repository.SavedSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+// SavedSearchIndex matching, plus its primitive collections
+class SavedSearchIndexTests {
+
+    private SavedSearchIndex index;
+
+    @BeforeEach
+    void createIndex() {
+        index = new SavedSearchIndex(mock(SavedSearchRepository.class));
+    }
+
+    @Test
+    void priceBoundsAreInclusiveAcrossBandEdges() {
+        // 50,000 and 100,000 are both band edges, so each bound sits in the band above it
+        index.put(search(1, null, 50_000L, 100_000L));
+
+        assertThat(index.match(listing(49_999))).isEmpty();
+        assertThat(index.match(listing(50_000))).containsExactly(1L);
+        assertThat(index.match(listing(75_000))).containsExactly(1L);
+        assertThat(index.match(listing(100_000))).containsExactly(1L);
+        assertThat(index.match(listing(100_001))).isEmpty();
+    }
+
+    @Test
+    void openEndedRangesReachTheLowestAndHighestBands() {
+        index.put(search(1, null, 20_000_000L, null));
+        index.put(search(2, null, null, 10_000L));
+        index.put(search(3, null, null, null));
+
+        assertThat(index.match(listing(250_000_000))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.match(listing(20_000_000))).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(index.match(listing(10_000))).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.match(listing(500))).containsExactlyInAnyOrder(2L, 3L);
+    }
+
+    @Test
+    void aRangeInsideOneBandMatchesOnlyThatRange() {
+        index.put(search(1, null, 60_000L, 70_000L));
+
+        // 55,000 and 74,999 share the 50,000-75,000 band but are outside the range
+        assertThat(index.match(listing(55_000))).isEmpty();
+        assertThat(index.match(listing(60_000))).containsExactly(1L);
+        assertThat(index.match(listing(74_999))).isEmpty();
+    }
+
+    @Test
+    void districtsAreMatchedCaseInsensitivelyAndUpdatesRefile() {
+        index.put(search(1, " Colombo ", 50_000L, 100_000L));
+        assertThat(index.match(listing(60_000))).containsExactly(1L);
+
+        index.put(search(1, "Kandy", 200_000L, null));
+        assertThat(index.match(listing(60_000))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+
+        index.remove(1);
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void longIntMapPutsReplacesAndRemoves() {
+        SavedSearchIndex.LongIntMap map = new SavedSearchIndex.LongIntMap();
+        map.put(7, 1);
+        map.put(8, 2);
+        map.put(7, 3);
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get(7)).isEqualTo(3);
+        assertThat(map.remove(7)).isEqualTo(3);
+        assertThat(map.remove(7)).isEqualTo(-1);
+        assertThat(map.get(7)).isEqualTo(-1);
+        assertThat(map.get(8)).isEqualTo(2);
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void longIntMapKeepsProbeChainsThatWrapAroundAfterARemoval() {
+        int mask = SavedSearchIndex.LongIntMap.INITIAL_CAPACITY - 1;
+        // Three keys homed in the last bucket take the last bucket and wrap to buckets 0 and 1; a key
+        // homed in bucket 0 is pushed to bucket 2
+        List<Long> lastBucket = keysHomedAt(mask, mask, 3);
+        long firstBucket = keysHomedAt(0, mask, 1).get(0);
+
+        SavedSearchIndex.LongIntMap map = new SavedSearchIndex.LongIntMap();
+        for (int i = 0; i < lastBucket.size(); i++) {
+            map.put(lastBucket.get(i), i);
+        }
+        map.put(firstBucket, 99);
+
+        // Backward-shift deletion has to pull every later entry back across the wrap
+        assertThat(map.remove(lastBucket.get(0))).isEqualTo(0);
+        assertThat(map.get(lastBucket.get(1))).isEqualTo(1);
+        assertThat(map.get(lastBucket.get(2))).isEqualTo(2);
+        assertThat(map.get(firstBucket)).isEqualTo(99);
+
+        assertThat(map.remove(lastBucket.get(2))).isEqualTo(2);
+        assertThat(map.get(lastBucket.get(1))).isEqualTo(1);
+        assertThat(map.get(firstBucket)).isEqualTo(99);
+        assertThat(map.get(lastBucket.get(0))).isEqualTo(-1);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void longIntMapSurvivesResizingAndManyRemovals() {
+        SavedSearchIndex.LongIntMap map = new SavedSearchIndex.LongIntMap();
+        for (int id = 1; id <= 10_000; id++) {
+            map.put(id, id * 2);
+        }
+        for (int id = 1; id <= 10_000; id += 2) {
+            assertThat(map.remove(id)).isEqualTo(id * 2);
+        }
+
+        assertThat(map.size()).isEqualTo(5_000);
+        for (int id = 1; id <= 10_000; id++) {
+            assertThat(map.get(id)).isEqualTo(id % 2 == 0 ? id * 2 : -1);
+        }
+    }
+
+    @Test
+    void intListGrowsAndRemovesBySwappingInTheLastValue() {
+        SavedSearchIndex.IntList list = new SavedSearchIndex.IntList();
+        for (int i = 0; i < 20; i++) {
+            list.add(i);
+        }
+
+        list.removeValue(3);
+        list.removeValue(42);
+
+        assertThat(list.size()).isEqualTo(19);
+        assertThat(list.get(3)).isEqualTo(19);
+        assertThat(list.removeLast()).isEqualTo(18);
+        assertThat(list.size()).isEqualTo(18);
+    }
+
+    private static List<Long> keysHomedAt(int bucket, int mask, int count) {
+        List<Long> keys = new ArrayList<>();
+        for (long key = 1; keys.size() < count; key++) {
+            if ((SavedSearchIndex.LongIntMap.hash(key) & mask) == bucket) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private static SavedSearch search(long id, String district, Long minPrice, Long maxPrice) {
+        SavedSearch search = new SavedSearch();
+        search.setId(id);
+        search.setDistrict(district);
+        search.setMinPrice(minPrice != null ? BigDecimal.valueOf(minPrice) : null);
+        search.setMaxPrice(maxPrice != null ? BigDecimal.valueOf(maxPrice) : null);
+        return search;
+    }
+
+    // Row layout: ListingRepository.INDEX_COLUMNS
+    private static Object[] listing(long price) {
+        return new Object[]{1L, 6.9, 79.9, BigDecimal.valueOf(price), "Colombo", "Dehiwala", RentOrSale.RENT,
+                PropertyType.HOUSE, 2, 1, null};
+    }
+}
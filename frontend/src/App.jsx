@@ -7,6 +7,7 @@ import { Home } from './pages/Home';
 import { Login } from './pages/Login';
 import { Register } from './pages/Register';
 import { Listings } from './pages/Listings';
+import { Messages } from './pages/Messages';
 import { SellerDashboard } from './pages/seller/SellerDashboard';
 import { Overview } from './pages/seller/Overview';
 import { MyListings } from './pages/seller/MyListings';
@@ -35,6 +36,11 @@ function App() {
             <Route path="/register" element={<><Navbar /><div className="pt-16"><Register /></div></>} />
             <Route path="/listings" element={<><Navbar /><div className="pt-16"><Listings /></div></>} />
             <Route path="/debug-auth" element={<><Navbar /><div className="pt-16"><DebugAuth /></div></>} />
+            <Route path="/messages" element={
+              <ProtectedRoute roles={['USER', 'SELLER']}>
+                <Navbar /><div className="pt-16"><Messages /></div>
+              </ProtectedRoute>
+            } />
 
             {/* Admin dashboard routes (no navbar, has own layout) */}
             <Route path="/admin" element={
@@ -7,12 +7,24 @@ export const adminAPI = {
   //  Listings Management
   getListings: (params) => api.get('/admin/listings', { params }),
   getPendingListings: (params) => api.get('/admin/listings', { params: { ...params, status: 'PENDING' } }),
+  getListing: (id) => api.get(`/admin/listings/${id}`),
   approveListing: (id, note) => api.post(`/admin/listings/${id}/approve`, { action: 'APPROVE', note }),
   rejectListing: (id, reason) => api.post(`/admin/listings/${id}/reject`, { action: 'REJECT', note: reason }),
   suspendListing: (id, reason) => api.post(`/admin/listings/${id}/suspend`, { reason }),
   unsuspendListing: (id, note) => api.post(`/admin/listings/${id}/unsuspend`, { note }),
 
+  // Moderation Queue
+  claimPendingListings: (size = 10) => api.post('/admin/moderation-queue/claim', null, { params: { size } }),
+  getClaimedListings: () => api.get('/admin/moderation-queue'),
+  releaseClaim: (id) => api.post(`/admin/moderation-queue/${id}/release`),
+
   // Audit Log
   getApprovalHistory: (params) => api.get('/admin/approval-actions', { params }),
   getListingApprovalHistory: (listingId) => api.get(`/admin/approval-actions/listing/${listingId}`),
+  getAuditLog: (params) => api.get('/admin/audit-log', { params }),
+  archiveApprovalHistory: (month) => api.post('/admin/approval-actions/archive', null, { params: { month } }),
+
+  // System
+  getDataSourcePools: () => api.get('/admin/datasource-pools'),
+  getQueryStats: () => api.get('/admin/query-stats'),
 };
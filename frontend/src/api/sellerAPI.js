@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { retryWithRefresh } from '../services/tokenRefresh';
 
 const API_BASE_URL = import.meta.env.VITE_API_BASE_URL || 'http://localhost:8080/api';
 
@@ -18,17 +19,19 @@ axiosInstance.interceptors.request.use(
   (error) => Promise.reject(error)
 );
 
-// Handle 401 responses
+// Handle 401 responses: refresh the access token once, log out if that fails
 axiosInstance.interceptors.response.use(
   (response) => response,
-  (error) => {
-    if (error.response?.status === 401) {
-      localStorage.removeItem('token');
-      localStorage.removeItem('user');
-      window.location.href = '/login';
-    }
-    return Promise.reject(error);
-  }
+  (error) =>
+    retryWithRefresh(axiosInstance)(error).catch((finalError) => {
+      if (finalError.response?.status === 401) {
+        localStorage.removeItem('token');
+        localStorage.removeItem('refreshToken');
+        localStorage.removeItem('user');
+        window.location.href = '/login';
+      }
+      return Promise.reject(finalError);
+    })
 );
 
 export const sellerAPI = {
@@ -38,11 +41,26 @@ export const sellerAPI = {
     return axiosInstance.get('/seller/listings', { params });
   },
 
+  // Get listings moved to cold storage
+  getArchivedListings: () => {
+    return axiosInstance.get('/seller/listings/archived');
+  },
+
+  // Restore a listing from cold storage
+  restoreArchivedListing: (id) => {
+    return axiosInstance.post(`/seller/listings/archived/${id}/restore`);
+  },
+
   // Get listing summary (counts by status)
   getListingSummary: () => {
     return axiosInstance.get('/seller/listings/summary');
   },
 
+  // Get daily views, inquiries and conversion of a listing (last 90 days)
+  getListingAnalytics: (id) => {
+    return axiosInstance.get(`/seller/listings/${id}/analytics`);
+  },
+
   // Get seller profile
   getProfile: () => {
     return axiosInstance.get('/seller/profile');
@@ -1,4 +1,4 @@
-export const FiltersSidebar = ({ filters, setFilters, onSearch, onClearFilters }) => {
+export const FiltersSidebar = ({ filters, facets, setFilters, onSearch, onClearFilters }) => {
   const districts = [
     'Colombo', 'Gampaha', 'Kalutara', 'Kandy', 'Matale', 'Nuwara Eliya',
     'Galle', 'Matara', 'Hambantota', 'Jaffna', 'Kilinochchi', 'Mannar',
@@ -11,10 +11,40 @@ export const FiltersSidebar = ({ filters, setFilters, onSearch, onClearFilters }
   const inputClass =
     'w-full rounded-xl border border-slate-200 bg-white px-3 py-2.5 text-sm text-slate-700 shadow-sm focus:border-primary-400 focus:ring-2 focus:ring-primary-200 focus:outline-none';
 
+  // "Colombo (1,203)" when the search returned facet counts
+  const withCount = (label, counts, key) => {
+    if (!facets || !counts) return label;
+    return `${label} (${(counts[key] || 0).toLocaleString()})`;
+  };
+
+  const histogram = facets?.priceHistogram || [];
+  const histogramMax = Math.max(1, ...histogram.map(bucket => bucket.count));
+
   const handleChange = (field, value) => {
     setFilters(prev => ({ ...prev, [field]: value }));
   };
 
+  // Radius search around the browser's location; results come back nearest first
+  const handleNearMe = (radiusKm) => {
+    if (!radiusKm) {
+      setFilters(prev => ({ ...prev, radiusKm: '', lat: '', lng: '' }));
+      return;
+    }
+    if (!navigator.geolocation) {
+      alert('Location is not available in this browser');
+      return;
+    }
+    navigator.geolocation.getCurrentPosition(
+      (position) => setFilters(prev => ({
+        ...prev,
+        radiusKm,
+        lat: position.coords.latitude.toFixed(5),
+        lng: position.coords.longitude.toFixed(5),
+      })),
+      () => alert('Allow location access to search near you')
+    );
+  };
+
   return (
     <div className="rounded-2xl border border-primary-100 bg-white shadow-sm overflow-hidden">
       <div className="bg-primary-50/80 px-5 py-4 border-b border-primary-100">
@@ -33,7 +63,7 @@ export const FiltersSidebar = ({ filters, setFilters, onSearch, onClearFilters }
           >
             <option value="">All Districts</option>
             {districts.map(district => (
-              <option key={district} value={district}>{district}</option>
+              <option key={district} value={district}>{withCount(district, facets?.districts, district)}</option>
             ))}
           </select>
         </div>
@@ -59,8 +89,8 @@ export const FiltersSidebar = ({ filters, setFilters, onSearch, onClearFilters }
             className={inputClass}
           >
             <option value="">All</option>
-            <option value="RENT">For Rent</option>
-            <option value="SALE">For Sale</option>
+            <option value="RENT">{withCount('For Rent', facets?.rentOrSale, 'RENT')}</option>
+            <option value="SALE">{withCount('For Sale', facets?.rentOrSale, 'SALE')}</option>
           </select>
         </div>
 
@@ -73,16 +103,28 @@ export const FiltersSidebar = ({ filters, setFilters, onSearch, onClearFilters }
             className={inputClass}
           >
             <option value="">All Types</option>
-            <option value="HOUSE">House</option>
-            <option value="ROOM">Room</option>
-            <option value="ANNEX">Annex</option>
-            <option value="BOARDING">Boarding</option>
+            <option value="HOUSE">{withCount('House', facets?.propertyTypes, 'HOUSE')}</option>
+            <option value="ROOM">{withCount('Room', facets?.propertyTypes, 'ROOM')}</option>
+            <option value="ANNEX">{withCount('Annex', facets?.propertyTypes, 'ANNEX')}</option>
+            <option value="BOARDING">{withCount('Boarding', facets?.propertyTypes, 'BOARDING')}</option>
           </select>
         </div>
 
         {/* Price Range */}
         <div>
           <label className={labelClass}>Price Range (LKR)</label>
+          {histogram.length > 1 && (
+            <div className="mb-2 flex h-10 items-end gap-px" aria-hidden="true">
+              {histogram.map(bucket => (
+                <div
+                  key={bucket.from}
+                  title={`${Number(bucket.from).toLocaleString()}${bucket.to ? ` - ${Number(bucket.to).toLocaleString()}` : '+'}: ${bucket.count}`}
+                  className="flex-1 rounded-t bg-primary-200"
+                  style={{ height: `${Math.max(4, (bucket.count / histogramMax) * 100)}%` }}
+                />
+              ))}
+            </div>
+          )}
           <div className="grid grid-cols-2 gap-2">
             <input
               type="number"
@@ -134,6 +176,22 @@ export const FiltersSidebar = ({ filters, setFilters, onSearch, onClearFilters }
           </select>
         </div>
 
+        {/* Near me */}
+        <div>
+          <label className={labelClass}>Near Me</label>
+          <select
+            value={filters.radiusKm || ''}
+            onChange={(e) => handleNearMe(e.target.value)}
+            className={inputClass}
+          >
+            <option value="">Anywhere</option>
+            <option value="2">Within 2 km</option>
+            <option value="5">Within 5 km</option>
+            <option value="10">Within 10 km</option>
+            <option value="25">Within 25 km</option>
+          </select>
+        </div>
+
         <button
           onClick={onSearch}
           className="w-full rounded-full bg-primary-600 hover:bg-primary-700 text-white font-semibold py-2.5 px-4 transition-colors"
@@ -1,5 +1,5 @@
 export const ListingCard = ({ listing }) => {
-  const firstPhoto = listing.photoUrls?.[0] || 'https://via.placeholder.com/400x300?text=No+Image';
+  const firstPhoto = listing.coverPhotoUrl || 'https://via.placeholder.com/400x300?text=No+Image';
   const statusColors = {
     PENDING: 'bg-yellow-50 text-yellow-700 ring-yellow-200',
     APPROVED: 'bg-emerald-50 text-emerald-700 ring-emerald-200',
@@ -48,10 +48,13 @@ export const ListingCard = ({ listing }) => {
             <path strokeLinecap="round" strokeLinejoin="round" strokeWidth={2} d="M15 11a3 3 0 11-6 0 3 3 0 016 0z" />
           </svg>
           {listing.city}, {listing.district}
+          {listing.distanceKm != null && (
+            <span className="ml-2 text-xs text-slate-400">· {listing.distanceKm} km away</span>
+          )}
         </div>
 
         <p className="text-sm text-slate-600 mb-4 line-clamp-2">
-          {listing.description}
+          {listing.summary}
         </p>
 
         <div className="flex items-center justify-between">
@@ -53,6 +53,12 @@ export const Navbar = () => {
               Browse Listings
             </Link>
 
+            {isAuthenticated() && (user?.role === 'USER' || user?.role === 'SELLER') && (
+              <Link to="/messages" className={getLinkClass('/messages')}>
+                Messages
+              </Link>
+            )}
+
             {isAuthenticated() && user?.role === 'SELLER' && (
               <Link to="/seller" className={getLinkClass('/seller')}>
                 Seller Dashboard
@@ -131,6 +137,12 @@ export const Navbar = () => {
               Browse Listings
             </Link>
 
+            {isAuthenticated() && (user?.role === 'USER' || user?.role === 'SELLER') && (
+              <Link to="/messages" className={getMobileLinkClass('/messages')} onClick={() => setMobileMenuOpen(false)}>
+                Messages
+              </Link>
+            )}
+
             {isAuthenticated() && user?.role === 'SELLER' && (
               <Link to="/seller" className={getMobileLinkClass('/seller')} onClick={() => setMobileMenuOpen(false)}>
                 Seller Dashboard
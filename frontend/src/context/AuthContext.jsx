@@ -1,5 +1,6 @@
 import { createContext, useState, useContext, useEffect } from 'react';
 import axios from 'axios';
+import { authAPI } from '../services/api';
 
 const AuthContext = createContext(null);
 
@@ -24,6 +25,7 @@ export const AuthProvider = ({ children }) => {
     setToken(authResponse.token);
     localStorage.setItem('user', JSON.stringify(authResponse.user));
     localStorage.setItem('token', authResponse.token);
+    localStorage.setItem('refreshToken', authResponse.refreshToken);
   };
 
   const updateUser = (updatedUser) => {
@@ -32,10 +34,15 @@ export const AuthProvider = ({ children }) => {
   };
 
   const logout = () => {
+    // Revoke the session server-side; local state is cleared regardless of the outcome
+    authAPI
+      .logout({ refreshToken: localStorage.getItem('refreshToken') }, localStorage.getItem('token'))
+      .catch(() => {});
     setUser(null);
     setToken(null);
     localStorage.removeItem('user');
     localStorage.removeItem('token');
+    localStorage.removeItem('refreshToken');
   };
 
   const isAuthenticated = () => !!token;
@@ -25,9 +25,18 @@ export const Home = () => {
     }
   };
 
-  const openViewModal = (listing) => {
+  const openViewModal = async (listing) => {
+    // Search results are compact cards; show the card right away and load the full listing
     setViewModal({ show: true, listing });
     setCurrentPhotoIndex(0);
+    try {
+      const response = await listingAPI.getById(listing.id);
+      setViewModal((current) =>
+        current.show && current.listing?.id === listing.id ? { show: true, listing: response.data } : current
+      );
+    } catch (error) {
+      console.error('Error fetching listing details:', error);
+    }
   };
 
   const closeViewModal = () => {
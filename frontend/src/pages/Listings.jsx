@@ -1,6 +1,7 @@
 import { useState, useEffect } from 'react';
 import { useSearchParams } from 'react-router-dom';
-import { listingAPI } from '../services/api';
+import { listingAPI, savedSearchAPI } from '../services/api';
+import { useAuth } from '../context/AuthContext';
 import { ListingCard } from '../components/ListingCard';
 import { FiltersSidebar } from '../components/FiltersSidebar';
 import { Pagination } from '../components/Pagination';
@@ -8,6 +9,7 @@ import { Pagination } from '../components/Pagination';
 export const Listings = () => {
   const [searchParams] = useSearchParams();
   const [listings, setListings] = useState([]);
+  const [facets, setFacets] = useState(null);
   const [loading, setLoading] = useState(true);
   const [filters, setFilters] = useState({
     district: searchParams.get('district') || '',
@@ -18,6 +20,9 @@ export const Listings = () => {
   const [viewModal, setViewModal] = useState({ show: false, listing: null });
   const [currentPhotoIndex, setCurrentPhotoIndex] = useState(0);
   const [showFilters, setShowFilters] = useState(false);
+  const [saveMessage, setSaveMessage] = useState('');
+  const { user, isAuthenticated } = useAuth();
+  const canSaveSearch = isAuthenticated() && (user?.role === 'USER' || user?.role === 'SELLER');
 
   useEffect(() => {
     fetchListings();
@@ -40,10 +45,18 @@ export const Listings = () => {
       if (filters.maxPrice) params.maxPrice = filters.maxPrice;
       if (filters.bedrooms) params.bedrooms = filters.bedrooms;
       if (filters.bathrooms) params.bathrooms = filters.bathrooms;
+      if (filters.radiusKm && filters.lat && filters.lng) {
+        params.lat = filters.lat;
+        params.lng = filters.lng;
+        params.radiusKm = filters.radiusKm;
+      } else {
+        params.facets = true;
+      }
       
       const response = await listingAPI.search(params);
       setListings(response.data.content);
       setTotalPages(response.data.totalPages);
+      setFacets(response.data.facets || null);
     } catch (error) {
       console.error('Error fetching listings:', error);
     } finally {
@@ -57,6 +70,24 @@ export const Listings = () => {
     setShowFilters(false); // Close filters on mobile after search
   };
 
+  const handleSaveSearch = async () => {
+    const { district, city, rentOrSale, propertyType, minPrice, maxPrice, bedrooms, bathrooms } = filters;
+    try {
+      await savedSearchAPI.create({
+        district, city,
+        rentOrSale: rentOrSale || null,
+        propertyType: propertyType || null,
+        minPrice: minPrice || null,
+        maxPrice: maxPrice || null,
+        bedrooms: bedrooms || null,
+        bathrooms: bathrooms || null,
+      });
+      setSaveMessage("Search saved. We'll email you when new listings match.");
+    } catch (error) {
+      setSaveMessage(error.response?.data?.message || 'Could not save this search');
+    }
+  };
+
   const handleClearFilters = () => {
     setFilters({});
     setCurrentPage(1);
@@ -64,9 +95,18 @@ export const Listings = () => {
     setShowFilters(false); // Close filters on mobile after clear
   };
 
-  const openViewModal = (listing) => {
+  const openViewModal = async (listing) => {
+    // Search results are compact cards; show the card right away and load the full listing
     setViewModal({ show: true, listing });
     setCurrentPhotoIndex(0);
+    try {
+      const response = await listingAPI.getById(listing.id);
+      setViewModal((current) =>
+        current.show && current.listing?.id === listing.id ? { show: true, listing: response.data } : current
+      );
+    } catch (error) {
+      console.error('Error fetching listing details:', error);
+    }
   };
 
   const closeViewModal = () => {
@@ -142,6 +182,7 @@ export const Listings = () => {
           `}>
             <FiltersSidebar
               filters={filters}
+              facets={facets}
               setFilters={setFilters}
               onSearch={handleSearch}
               onClearFilters={handleClearFilters}
@@ -155,7 +196,16 @@ export const Listings = () => {
                 <p className="text-sm text-slate-600">
                   {loading ? 'Loading listings...' : `${listings.length} listing${listings.length === 1 ? '' : 's'} found`}
                 </p>
+                {saveMessage && <p className="text-xs text-primary-700 mt-1">{saveMessage}</p>}
               </div>
+              {canSaveSearch && (
+                <button
+                  onClick={handleSaveSearch}
+                  className="rounded-full border border-primary-200 bg-white px-4 py-2 text-xs font-semibold text-primary-700 hover:bg-primary-50 shadow-sm"
+                >
+                  Save this search
+                </button>
+              )}
             </div>
             {loading ? (
               <div className="flex justify-center py-12">
@@ -0,0 +1,216 @@
+import { useEffect, useRef, useState } from 'react';
+import { toast } from 'react-hot-toast';
+import { inquiryAPI } from '../services/api';
+import { subscribeToInbox } from '../services/eventStream';
+import { useAuth } from '../context/AuthContext';
+
+export const Messages = () => {
+  const { user } = useAuth();
+  const [conversations, setConversations] = useState([]);
+  const [activeId, setActiveId] = useState(null);
+  const [messages, setMessages] = useState([]);
+  const [totalUnread, setTotalUnread] = useState(0);
+  const [reply, setReply] = useState('');
+  const [loading, setLoading] = useState(true);
+  const [sending, setSending] = useState(false);
+  // The stream callback outlives renders, so it reads the open conversation from a ref
+  const activeIdRef = useRef(null);
+
+  useEffect(() => {
+    fetchConversations();
+    const unsubscribe = subscribeToInbox(handleEvent, fetchConversations);
+    return unsubscribe;
+  }, []);
+
+  const fetchConversations = async () => {
+    try {
+      const response = await inquiryAPI.getConversations({ size: 50 });
+      setConversations(response.data.content);
+    } catch (error) {
+      console.error('Error fetching conversations:', error);
+      toast.error('Failed to load messages');
+    } finally {
+      setLoading(false);
+    }
+  };
+
+  const handleEvent = (name, event) => {
+    setTotalUnread(event.totalUnread);
+    if (name !== 'message') {
+      return;
+    }
+    const { message } = event;
+    const isOpen = activeIdRef.current === event.inquiryId;
+    const fromMe = message.senderId === user?.id;
+
+    if (isOpen) {
+      setMessages((current) =>
+        message.id != null && current.some((m) => m.id === message.id) ? current : [...current, message]
+      );
+      if (!fromMe) {
+        inquiryAPI.markRead(event.inquiryId).then((response) => setTotalUnread(response.data.unread));
+      }
+    }
+
+    setConversations((current) => {
+      const existing = current.find((c) => c.inquiryId === event.inquiryId);
+      if (!existing) {
+        // A new conversation: reload to get both participants' details
+        fetchConversations();
+        return current;
+      }
+      const updated = {
+        ...existing,
+        lastMessageAt: message.createdAt,
+        unread: isOpen || fromMe ? 0 : existing.unread + 1,
+      };
+      return [updated, ...current.filter((c) => c.inquiryId !== event.inquiryId)];
+    });
+  };
+
+  const openConversation = async (conversation) => {
+    activeIdRef.current = conversation.inquiryId;
+    setActiveId(conversation.inquiryId);
+    setMessages([]);
+    try {
+      const response = await inquiryAPI.getMessages(conversation.inquiryId);
+      setMessages(response.data);
+      if (conversation.unread > 0) {
+        const readResponse = await inquiryAPI.markRead(conversation.inquiryId);
+        setTotalUnread(readResponse.data.unread);
+        setConversations((current) =>
+          current.map((c) => (c.inquiryId === conversation.inquiryId ? { ...c, unread: 0 } : c))
+        );
+      }
+    } catch (error) {
+      console.error('Error fetching messages:', error);
+      toast.error('Failed to load conversation');
+    }
+  };
+
+  const handleSend = async (e) => {
+    e.preventDefault();
+    if (!reply.trim() || !activeId) {
+      return;
+    }
+    setSending(true);
+    try {
+      const response = await inquiryAPI.reply(activeId, { message: reply });
+      setMessages((current) =>
+        current.some((m) => m.id === response.data.id) ? current : [...current, response.data]
+      );
+      setReply('');
+    } catch (error) {
+      toast.error(error.response?.data?.message || 'Failed to send message');
+    } finally {
+      setSending(false);
+    }
+  };
+
+  const active = conversations.find((c) => c.inquiryId === activeId);
+  const otherParty = (conversation) =>
+    conversation.buyerId === user?.id ? conversation.sellerName : conversation.buyerName;
+
+  if (loading) {
+    return (
+      <div className="flex items-center justify-center h-64">
+        <div className="animate-spin rounded-full h-12 w-12 border-b-2 border-primary-500"></div>
+      </div>
+    );
+  }
+
+  return (
+    <div className="min-h-screen bg-gradient-to-br from-primary-50 via-yellow-50 to-white">
+      <div className="max-w-7xl mx-auto px-4 sm:px-6 lg:px-8 py-8">
+        <div className="flex items-end justify-between mb-6">
+          <div>
+            <p className="text-[10px] uppercase tracking-[0.3em] text-primary-600">Inbox</p>
+            <h1 className="text-3xl font-bold text-slate-900">Messages</h1>
+          </div>
+          <span className="rounded-full bg-primary-600 px-3 py-1 text-xs font-semibold text-white">
+            Unread: {totalUnread}
+          </span>
+        </div>
+
+        <div className="flex flex-col lg:flex-row gap-6">
+          <div className="lg:w-1/3 rounded-2xl border border-primary-100 bg-white shadow-sm divide-y divide-slate-100">
+            {conversations.length === 0 ? (
+              <p className="p-6 text-sm text-slate-600">No conversations yet.</p>
+            ) : (
+              conversations.map((conversation) => (
+                <button
+                  key={conversation.inquiryId}
+                  onClick={() => openConversation(conversation)}
+                  className={`w-full text-left p-4 hover:bg-primary-50 ${
+                    conversation.inquiryId === activeId ? 'bg-primary-50' : ''
+                  }`}
+                >
+                  <div className="flex items-center justify-between gap-2">
+                    <p className="text-sm font-semibold text-slate-900 truncate">{conversation.listingTitle}</p>
+                    {conversation.unread > 0 && (
+                      <span className="rounded-full bg-primary-600 px-2 py-0.5 text-[10px] font-semibold text-white">
+                        {conversation.unread}
+                      </span>
+                    )}
+                  </div>
+                  <p className="text-xs text-slate-500">{otherParty(conversation)}</p>
+                  <p className="text-xs text-slate-400">
+                    {new Date(conversation.lastMessageAt).toLocaleString()}
+                  </p>
+                </button>
+              ))
+            )}
+          </div>
+
+          <div className="lg:w-2/3 rounded-2xl border border-primary-100 bg-white shadow-sm flex flex-col min-h-[28rem]">
+            {!active ? (
+              <p className="m-auto text-sm text-slate-500">Select a conversation</p>
+            ) : (
+              <>
+                <div className="border-b border-slate-100 p-4">
+                  <p className="text-sm font-semibold text-slate-900">{active.listingTitle}</p>
+                  <p className="text-xs text-slate-500">with {otherParty(active)}</p>
+                </div>
+                <div className="flex-1 overflow-y-auto p-4 space-y-3">
+                  {messages.map((message) => (
+                    <div
+                      key={message.id ?? `opening-${message.inquiryId}`}
+                      className={`flex ${message.senderId === user?.id ? 'justify-end' : 'justify-start'}`}
+                    >
+                      <div
+                        className={`max-w-[75%] rounded-2xl px-4 py-2 text-sm ${
+                          message.senderId === user?.id
+                            ? 'bg-primary-600 text-white'
+                            : 'bg-slate-100 text-slate-800'
+                        }`}
+                      >
+                        <p className="whitespace-pre-wrap">{message.message}</p>
+                        <p className="mt-1 text-[10px] opacity-70">{new Date(message.createdAt).toLocaleString()}</p>
+                      </div>
+                    </div>
+                  ))}
+                </div>
+                <form onSubmit={handleSend} className="border-t border-slate-100 p-4 flex gap-2">
+                  <input
+                    type="text"
+                    value={reply}
+                    onChange={(e) => setReply(e.target.value)}
+                    placeholder="Write a reply..."
+                    className="flex-1 rounded-full border border-slate-200 px-4 py-2 text-sm focus:outline-none focus:ring-2 focus:ring-primary-500"
+                  />
+                  <button
+                    type="submit"
+                    disabled={sending || !reply.trim()}
+                    className="rounded-full bg-primary-600 hover:bg-primary-700 disabled:opacity-50 px-5 py-2 text-sm font-semibold text-white"
+                  >
+                    Send
+                  </button>
+                </form>
+              </>
+            )}
+          </div>
+        </div>
+      </div>
+    </div>
+  );
+};
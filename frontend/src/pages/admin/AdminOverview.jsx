@@ -2,13 +2,36 @@ import { useEffect, useState } from 'react';
 import { Link } from 'react-router-dom';
 import { adminAPI } from '../../api/adminAPI';
 import { toast } from 'react-hot-toast';
+import { subscribeToAdminEvents } from '../../services/eventStream';
+
+const STAT_KEYS = ['pendingCount', 'approvedCount', 'rejectedCount', 'suspendedCount'];
 
 export const AdminOverview = () => {
   const [stats, setStats] = useState(null);
   const [loading, setLoading] = useState(true);
 
+  // The stream sends the counts on connect and a delta with every listing change, so the
+  // overview only calls /admin/stats if the stream cannot be opened
   useEffect(() => {
-    fetchStats();
+    let streamed = false;
+    const unsubscribe = subscribeToAdminEvents((name, event) => {
+      streamed = true;
+      setLoading(false);
+      if (name === 'stats') {
+        setStats(event);
+      } else if (event.statsDelta) {
+        setStats((current) =>
+          current && Object.fromEntries(STAT_KEYS.map((key) => [key, current[key] + event.statsDelta[key]]))
+        );
+      }
+    });
+    const fallback = setTimeout(() => {
+      if (!streamed) fetchStats();
+    }, 3000);
+    return () => {
+      clearTimeout(fallback);
+      unsubscribe();
+    };
   }, []);
 
   const fetchStats = async () => {
@@ -1,6 +1,7 @@
 import { useEffect, useState } from 'react';
 import { adminAPI } from '../../api/adminAPI';
 import { toast } from 'react-hot-toast';
+import { subscribeToAdminEvents } from '../../services/eventStream';
 
 export const PendingListings = () => {
   const [listings, setListings] = useState([]);
@@ -9,10 +10,28 @@ export const PendingListings = () => {
   const [rejectReason, setRejectReason] = useState('');
   const [actionType, setActionType] = useState(null); // 'approve' or 'reject'
 
+  // The stream keeps the queue current (new submissions, edits, other admins' decisions);
+  // the list is only reloaded after a reconnect
   useEffect(() => {
     fetchPendingListings();
+    return subscribeToAdminEvents(handleEvent, fetchPendingListings);
   }, []);
 
+  const handleEvent = (name, event) => {
+    if (name === 'stats') {
+      return;
+    }
+    if (event.status === 'PENDING' && event.listing) {
+      setListings((current) =>
+        current.some((listing) => listing.id === event.listingId)
+          ? current.map((listing) => (listing.id === event.listingId ? event.listing : listing))
+          : [event.listing, ...current]
+      );
+      return;
+    }
+    setListings((current) => current.filter((listing) => listing.id !== event.listingId));
+  };
+
   const fetchPendingListings = async () => {
     try {
       const response = await adminAPI.getPendingListings({ page: 0, size: 100 });
@@ -81,6 +100,17 @@ export const PendingListings = () => {
     }
   };
 
+  // Rows are listing cards; the full listing (address, description, all photos) is loaded on open
+  const openDetails = async (listing) => {
+    try {
+      const response = await adminAPI.getListing(listing.id);
+      setSelectedListing(response.data);
+    } catch (error) {
+      console.error('Error fetching listing details:', error);
+      toast.error('Failed to load listing details');
+    }
+  };
+
   const openApproveDialog = (listing) => {
     setSelectedListing(listing);
     setActionType('approve');
@@ -151,12 +181,10 @@ export const PendingListings = () => {
                       <div className="rounded-xl border border-slate-200 bg-slate-50 p-3">
                         <p className="text-xs text-slate-500">Owner</p>
                         <p className="text-sm font-semibold text-slate-900">{listing.ownerName}</p>
-                        <p className="text-xs text-slate-500">{listing.ownerEmail}</p>
                       </div>
                       <div className="rounded-xl border border-slate-200 bg-slate-50 p-3">
                         <p className="text-xs text-slate-500">Location</p>
                         <p className="text-sm font-semibold text-slate-900">{listing.city}, {listing.district}</p>
-                        <p className="text-xs text-slate-500">{listing.address}</p>
                       </div>
                     </div>
 
@@ -165,25 +193,15 @@ export const PendingListings = () => {
                         <p className="text-xs text-primary-700">Price</p>
                         <p className="text-lg font-semibold text-primary-700">Rs. {listing.price?.toLocaleString()}</p>
                       </div>
-                      <p className="text-sm text-slate-600 line-clamp-2">{listing.description}</p>
+                      <p className="text-sm text-slate-600 line-clamp-2">{listing.summary}</p>
                     </div>
 
-                    {listing.photoUrls && listing.photoUrls.length > 0 ? (
-                      <div className="flex flex-wrap gap-2">
-                        {listing.photoUrls.slice(0, 4).map((url, index) => (
-                          <img
-                            key={index}
-                            src={url}
-                            alt={`Listing ${listing.title} ${index + 1}`}
-                            className="h-16 w-24 rounded-lg border border-slate-200 object-cover"
-                          />
-                        ))}
-                        {listing.photoUrls.length > 4 && (
-                          <div className="h-16 w-24 rounded-lg border border-dashed border-slate-300 bg-slate-50 text-xs text-slate-500 flex items-center justify-center">
-                            +{listing.photoUrls.length - 4} more
-                          </div>
-                        )}
-                      </div>
+                    {listing.coverPhotoUrl ? (
+                      <img
+                        src={listing.coverPhotoUrl}
+                        alt={`Listing ${listing.title}`}
+                        className="h-16 w-24 rounded-lg border border-slate-200 object-cover"
+                      />
                     ) : (
                       <p className="text-xs text-slate-500">No photos uploaded</p>
                     )}
@@ -191,7 +209,7 @@ export const PendingListings = () => {
 
                   <div className="flex flex-col gap-2 min-w-[170px]">
                     <button
-                      onClick={() => setSelectedListing(listing)}
+                      onClick={() => openDetails(listing)}
                       className="px-4 py-2 rounded-full border border-primary-200 bg-white text-primary-700 font-semibold hover:bg-primary-50"
                     >
                       View Details
@@ -12,6 +12,7 @@ export const MyListings = () => {
   const [confirmDialog, setConfirmDialog] = useState({ show: false, action: null, listingId: null });
   const [viewModal, setViewModal] = useState({ show: false, listing: null });
   const [activePhoto, setActivePhoto] = useState(0);
+  const [analytics, setAnalytics] = useState(null);
   const [page, setPage] = useState(0);
   const pageSize = 8;
 
@@ -106,11 +107,16 @@ export const MyListings = () => {
 
   const openViewModal = (listing) => {
     setActivePhoto(0);
+    setAnalytics(null);
     setViewModal({ show: true, listing });
+    sellerAPI.getListingAnalytics(listing.id)
+      .then((response) => setAnalytics(response.data))
+      .catch((error) => console.error('Error fetching listing analytics:', error));
   };
 
   const closeViewModal = () => {
     setActivePhoto(0);
+    setAnalytics(null);
     setViewModal({ show: false, listing: null });
   };
 
@@ -144,6 +150,8 @@ export const MyListings = () => {
     );
   };
 
+  const peakViews = analytics ? Math.max(1, ...analytics.days.map((day) => day.views)) : 1;
+
   if (loading) {
     return (
       <div className="flex items-center justify-center h-64">
@@ -252,6 +260,7 @@ export const MyListings = () => {
                   <tr key={listing.id} className="hover:bg-primary-50/50">
                     <td className="px-6 py-4">
                       <div className="text-sm font-semibold text-slate-900">{listing.title}</div>
+                      <div className="text-xs text-slate-500">{(listing.viewCount || 0).toLocaleString()} views</div>
                     </td>
                     <td className="px-6 py-4">
                       <div className="text-sm text-slate-900">Rs. {listing.price.toLocaleString()}</div>
@@ -479,6 +488,27 @@ export const MyListings = () => {
                       </div>
                     </div>
 
+                    {analytics && analytics.listingId === viewModal.listing.id && (
+                      <div className="rounded-2xl border border-slate-200 bg-white p-4 shadow-sm">
+                        <div className="flex items-center justify-between">
+                          <p className="text-[10px] uppercase tracking-[0.2em] text-slate-500">Last 90 days</p>
+                          <p className="text-xs text-slate-500">
+                            {analytics.views.toLocaleString()} views · {analytics.inquiries.toLocaleString()} inquiries · {(analytics.conversionRate * 100).toFixed(1)}% conversion
+                          </p>
+                        </div>
+                        <div className="mt-3 flex items-end gap-px h-16">
+                          {analytics.days.map((day) => (
+                            <div
+                              key={day.date}
+                              title={`${day.date}: ${day.views} views, ${day.inquiries} inquiries`}
+                              className={`flex-1 rounded-sm ${day.inquiries > 0 ? 'bg-primary-600' : 'bg-primary-200'}`}
+                              style={{ height: `${Math.max(2, (day.views / peakViews) * 100)}%` }}
+                            />
+                          ))}
+                        </div>
+                      </div>
+                    )}
+
                     <div className="rounded-2xl border border-slate-200 bg-white p-4 shadow-sm">
                       <p className="text-[10px] uppercase tracking-[0.2em] text-slate-500">WhatsApp</p>
                       <p className="mt-1 text-sm text-slate-700">{viewModal.listing.contactWhatsapp || 'N/A'}</p>
@@ -129,6 +129,9 @@ export const Overview = () => {
             >
               View Listings
             </Link>
+            <span className="rounded-full bg-white/15 px-4 py-2 text-xs font-semibold">
+              Views: {(summary?.views || 0).toLocaleString()}
+            </span>
           </div>
         </div>
       </div>
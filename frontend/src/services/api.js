@@ -1,4 +1,5 @@
 import axios from 'axios';
+import { retryWithRefresh } from './tokenRefresh';
 
 const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
 
@@ -27,6 +28,10 @@ api.interceptors.request.use(
 api.interceptors.response.use(
   (response) => response,
   (error) => {
+    // Access tokens are short-lived: try a refresh before surfacing a 401
+    if (error.response?.status === 401) {
+      return retryWithRefresh(api)(error);
+    }
     // Don't auto-logout, let components handle 401 errors
     // if (error.response?.status === 401) {
     //   localStorage.removeItem('token');
@@ -41,6 +46,9 @@ api.interceptors.response.use(
 export const authAPI = {
   register: (data) => api.post('/auth/register', data),
   login: (data) => api.post('/auth/login', data),
+  logout: (data, token) => api.post('/auth/logout', data, {
+    headers: token ? { Authorization: `Bearer ${token}` } : {},
+  }),
   forgotPassword: (data) => api.post('/auth/forgot-password', data),
   resetPassword: (data) => api.post('/auth/reset-password', data),
 };
@@ -71,6 +79,18 @@ export const inquiryAPI = {
   create: (listingId, data) => api.post(`/inquiries/listing/${listingId}`, data),
   getSellerInquiries: () => api.get('/inquiries/seller'),
   getListingInquiries: (listingId) => api.get(`/inquiries/listing/${listingId}`),
+  getConversations: (params) => api.get('/inquiries/conversations', { params }),
+  getMessages: (inquiryId, params) => api.get(`/inquiries/${inquiryId}/messages`, { params }),
+  reply: (inquiryId, data) => api.post(`/inquiries/${inquiryId}/messages`, data),
+  markRead: (inquiryId) => api.post(`/inquiries/${inquiryId}/read`),
+  getUnreadCount: () => api.get('/inquiries/unread-count'),
+};
+
+// Saved search APIs
+export const savedSearchAPI = {
+  list: () => api.get('/saved-searches'),
+  create: (data) => api.post('/saved-searches', data),
+  delete: (id) => api.delete(`/saved-searches/${id}`),
 };
 
 // Admin APIs
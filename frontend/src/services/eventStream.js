@@ -0,0 +1,86 @@
+import { refreshAccessToken } from './tokenRefresh';
+
+const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
+
+const openStream = (path, signal) =>
+  fetch(`${API_BASE_URL}${path}`, {
+    headers: {
+      Accept: 'text/event-stream',
+      Authorization: `Bearer ${localStorage.getItem('token')}`,
+    },
+    signal,
+  });
+
+// Splits the response body into server-sent events and calls onEvent(name, data) for each
+const readEvents = async (body, onEvent) => {
+  const reader = body.pipeThrough(new TextDecoderStream()).getReader();
+  let buffer = '';
+  for (;;) {
+    const { value, done } = await reader.read();
+    if (done) return;
+    buffer += value;
+    let end;
+    while ((end = buffer.indexOf('\n\n')) >= 0) {
+      const block = buffer.slice(0, end);
+      buffer = buffer.slice(end + 2);
+      let name = 'message';
+      const data = [];
+      for (const line of block.split('\n')) {
+        if (line.startsWith('event:')) name = line.slice(6).trim();
+        else if (line.startsWith('data:')) data.push(line.slice(5).replace(/^ /, ''));
+      }
+      if (data.length > 0) onEvent(name, JSON.parse(data.join('\n')));
+    }
+  }
+};
+
+// Server-sent events from an authenticated endpoint. EventSource cannot send the Authorization
+// header, so the stream is read with fetch. Reconnects with backoff when the server closes it
+// (streams time out after 30 minutes). Returns a function that closes the stream.
+const subscribe = (path, onEvent, onReconnect) => {
+  let controller = null;
+  let closed = false;
+  let retryMs = 1000;
+
+  const connect = async () => {
+    controller = new AbortController();
+    try {
+      let response = await openStream(path, controller.signal);
+      if (response.status === 401) {
+        await refreshAccessToken();
+        response = await openStream(path, controller.signal);
+      }
+      if (!response.ok) {
+        throw new Error(`Event stream ${path} returned ${response.status}`);
+      }
+      retryMs = 1000;
+      await readEvents(response.body, onEvent);
+    } catch (error) {
+      if (!closed) {
+        console.error('Event stream error:', error);
+      }
+    }
+    if (!closed) {
+      // Anything pushed while disconnected is picked up by reloading
+      setTimeout(() => {
+        if (!closed) {
+          onReconnect?.();
+          connect();
+        }
+      }, retryMs);
+      retryMs = Math.min(retryMs * 2, 30000);
+    }
+  };
+
+  connect();
+  return () => {
+    closed = true;
+    controller?.abort();
+  };
+};
+
+// Live inbox updates from GET /inquiries/stream
+export const subscribeToInbox = (onEvent, onReconnect) => subscribe('/inquiries/stream', onEvent, onReconnect);
+
+// Moderation queue updates and stats deltas from GET /admin/events
+export const subscribeToAdminEvents = (onEvent, onReconnect) => subscribe('/admin/events', onEvent, onReconnect);
@@ -0,0 +1,48 @@
+import axios from 'axios';
+
+const API_BASE_URL = import.meta.env.VITE_API_URL || 'http://localhost:8080/api';
+
+let refreshPromise = null;
+
+// Exchange the stored refresh token for a new access/refresh pair.
+// Concurrent 401s share a single refresh request.
+export const refreshAccessToken = () => {
+  if (!refreshPromise) {
+    const refreshToken = localStorage.getItem('refreshToken');
+    if (!refreshToken) {
+      return Promise.reject(new Error('No refresh token'));
+    }
+    refreshPromise = axios
+      .post(`${API_BASE_URL}/auth/refresh`, { refreshToken })
+      .then((response) => {
+        localStorage.setItem('token', response.data.token);
+        localStorage.setItem('refreshToken', response.data.refreshToken);
+        return response.data.token;
+      })
+      .finally(() => {
+        refreshPromise = null;
+      });
+  }
+  return refreshPromise;
+};
+
+// Response error handler: on a 401, refresh the access token once and replay the request
+export const retryWithRefresh = (instance) => async (error) => {
+  const original = error.config;
+  if (
+    error.response?.status === 401 &&
+    original &&
+    !original._retried &&
+    !original.url?.includes('/auth/')
+  ) {
+    original._retried = true;
+    try {
+      const token = await refreshAccessToken();
+      original.headers.Authorization = `Bearer ${token}`;
+      return instance(original);
+    } catch {
+      return Promise.reject(error);
+    }
+  }
+  return Promise.reject(error);
+};